@@ -0,0 +1,201 @@
+package com.github.beemerwt.beacontweaks;
+
+import com.github.beemerwt.beacontweaks.mixin.BeaconBlockEntityAccessor;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.block.entity.BeaconBlockEntity;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-world registry of loaded beacons, which applies their effects in place of vanilla.
+ * - Beacons join and leave as their block entities load and unload.
+ * - Each beacon gets a fixed phase within tickInterval (hashed from its position), so they don't all fire on one tick.
+ * - On a tick with due beacons, players are bucketed by chunk once and each beacon only visits the cells in its range.
+ */
+public final class BeaconRegistry {
+    private static final Map<ServerWorld, BeaconRegistry> BY_WORLD = new HashMap<>();
+
+    private final Long2ObjectOpenHashMap<BeaconBlockEntity> beacons = new Long2ObjectOpenHashMap<>();
+    private List<BeaconBlockEntity>[] phases;
+    private boolean phasesDirty = true;
+
+    // Reused each tick: chunk -> players standing in it
+    private final Long2ObjectOpenHashMap<ArrayList<ServerPlayerEntity>> cells = new Long2ObjectOpenHashMap<>();
+
+    private BeaconRegistry() {}
+
+    public static void register() {
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((be, world) -> {
+            if (be instanceof BeaconBlockEntity beacon) get(world).add(beacon);
+        });
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((be, world) -> {
+            if (be instanceof BeaconBlockEntity beacon) {
+                BeaconRegistry reg = BY_WORLD.get(world);
+                if (reg != null) reg.remove(beacon);
+            }
+        });
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+            BeaconRegistry reg = BY_WORLD.get(world);
+            if (reg != null) reg.tick(world);
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> BY_WORLD.remove(world));
+    }
+
+    private static BeaconRegistry get(ServerWorld world) {
+        return BY_WORLD.computeIfAbsent(world, w -> new BeaconRegistry());
+    }
+
+    private void add(BeaconBlockEntity beacon) {
+        if (beacons.put(beacon.getPos().asLong(), beacon) != beacon) phasesDirty = true;
+    }
+
+    private void remove(BeaconBlockEntity beacon) {
+        long key = beacon.getPos().asLong();
+        if (beacons.get(key) == beacon) {
+            beacons.remove(key);
+            phasesDirty = true;
+        }
+    }
+
+    public int size() {
+        return beacons.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebuildPhases(int interval) {
+        phases = new List[interval];
+        for (Long2ObjectMap.Entry<BeaconBlockEntity> e : beacons.long2ObjectEntrySet()) {
+            int phase = (int) Math.floorMod(HashCommon.mix(e.getLongKey()), (long) interval);
+            if (phases[phase] == null) phases[phase] = new ArrayList<>();
+            phases[phase].add(e.getValue());
+        }
+        phasesDirty = false;
+    }
+
+    private void tick(ServerWorld world) {
+        if (beacons.isEmpty()) return;
+
+        final BTConfig cfg = BeaconTweaks.CONFIG;
+        final int interval = Math.max(1, cfg.tickInterval);
+        if (phasesDirty || phases.length != interval) rebuildPhases(interval);
+
+        List<BeaconBlockEntity> due = phases[(int) Math.floorMod(world.getTime(), (long) interval)];
+        if (due == null || due.isEmpty()) return;
+
+        bucketPlayers(world);
+        if (cells.isEmpty()) return;
+
+        for (int i = 0; i < due.size(); i++) {
+            BeaconBlockEntity beacon = due.get(i);
+            if (beacon.isRemoved()) continue;
+            apply(beacon, cfg);
+        }
+
+        cells.clear();
+    }
+
+    private void bucketPlayers(ServerWorld world) {
+        for (ServerPlayerEntity p : world.getPlayers()) {
+            if (p.isSpectator()) continue;
+            long cell = ChunkPos.toLong(p.getBlockX() >> 4, p.getBlockZ() >> 4);
+            cells.computeIfAbsent(cell, k -> new ArrayList<>(2)).add(p);
+        }
+    }
+
+    private void apply(BeaconBlockEntity beacon, BTConfig cfg) {
+        BeaconBlockEntityAccessor state = (BeaconBlockEntityAccessor) beacon;
+        final int beaconLevel = state.bt$getLevel();
+        if (beaconLevel <= 0 || state.bt$getBeamSegments().isEmpty()) return; // vanilla gate
+
+        RegistryEntry<StatusEffect> primaryEffect = state.bt$getPrimary();
+        RegistryEntry<StatusEffect> secondaryEffect = state.bt$getSecondary();
+        if (primaryEffect == null && (!cfg.includeSecondary || secondaryEffect == null))
+            return;
+
+        final int radius = computeRadius(beaconLevel, cfg);
+        final int duration = Math.max(20, cfg.tickInterval + 40);
+
+        int ampPrimary = cfg.boostAmplifier ? Math.max(0, beaconLevel - 1) : 0;
+        int ampSecondary = cfg.boostAmplifier ? Math.max(0, beaconLevel - 1) : 0;
+
+        final boolean upgradeToLvl2 = cfg.includeSecondary
+                && primaryEffect != null
+                && primaryEffect.equals(secondaryEffect)
+                && beaconLevel >= 4;
+
+        if (upgradeToLvl2) {
+            // Ensure at least amplifier 1 (Level II). If boostAmplifier makes it higher, keep the higher one.
+            ampPrimary = Math.max(ampPrimary, 1);
+            // Do NOT apply a separate secondary in this case.
+            secondaryEffect = null;
+        }
+
+        final boolean applySecondary = cfg.includeSecondary && secondaryEffect != null && !secondaryEffect.equals(primaryEffect);
+        final BlockPos pos = beacon.getPos();
+        final Vec3d center = pos.toCenterPos();
+        final double r2 = (double) radius * radius;
+
+        // Probe the cells in range, or walk the occupied cells if that is fewer
+        final int cx = pos.getX() >> 4, cz = pos.getZ() >> 4;
+        final int span = (radius >> 4) + 1;
+        final long inRange = (long) (2 * span + 1) * (2 * span + 1);
+
+        if (inRange <= cells.size()) {
+            for (int x = cx - span; x <= cx + span; x++) {
+                for (int z = cz - span; z <= cz + span; z++) {
+                    ArrayList<ServerPlayerEntity> cell = cells.get(ChunkPos.toLong(x, z));
+                    if (cell != null) applyTo(cell, center, r2, primaryEffect, secondaryEffect, applySecondary, duration, ampPrimary, ampSecondary);
+                }
+            }
+        } else {
+            for (Long2ObjectMap.Entry<ArrayList<ServerPlayerEntity>> e : cells.long2ObjectEntrySet()) {
+                long cell = e.getLongKey();
+                if (Math.abs(ChunkPos.getPackedX(cell) - cx) > span || Math.abs(ChunkPos.getPackedZ(cell) - cz) > span) continue;
+                applyTo(e.getValue(), center, r2, primaryEffect, secondaryEffect, applySecondary, duration, ampPrimary, ampSecondary);
+            }
+        }
+    }
+
+    private static void applyTo(List<ServerPlayerEntity> players, Vec3d center, double r2,
+                                RegistryEntry<StatusEffect> primaryEffect, RegistryEntry<StatusEffect> secondaryEffect,
+                                boolean applySecondary, int duration, int ampPrimary, int ampSecondary) {
+        for (int i = 0; i < players.size(); i++) {
+            ServerPlayerEntity p = players.get(i);
+            if (p.squaredDistanceTo(center) > r2) continue;
+
+            if (primaryEffect != null)
+                p.addStatusEffect(new StatusEffectInstance(primaryEffect, duration, ampPrimary, true, true));
+
+            // Only apply separate secondary if it differs from primary
+            if (applySecondary)
+                p.addStatusEffect(new StatusEffectInstance(secondaryEffect, duration, ampSecondary, true, true));
+        }
+    }
+
+    private static int computeRadius(int level, BTConfig cfg) {
+        // Forced global radius takes precedence.
+        if (cfg.forceAllBeaconsRange >= 0) return cfg.forceAllBeaconsRange;
+
+        // Fixed constants by beacon level.
+        // index 0 unused for clarity.
+        final int[] R = {0, 9, 34, 83, 164};
+        int clamped = Math.max(0, Math.min(level, 4));
+        return R[clamped];
+    }
+}
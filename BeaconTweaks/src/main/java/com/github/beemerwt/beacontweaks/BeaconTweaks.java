@@ -20,6 +20,8 @@ public final class BeaconTweaks implements ModInitializer {
         LOGGER.info("[BeaconTweaks] tickInterval={}, boostAmplifier={}, includeSecondary={}, forceAllBeaconsRange={}",
                 CONFIG.tickInterval, CONFIG.boostAmplifier, CONFIG.includeSecondary, CONFIG.forceAllBeaconsRange);
 
+        BeaconRegistry.register();
+
         // /beaconrange off
         // /beaconrange <radius>
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, env) -> {
@@ -0,0 +1,25 @@
+package com.github.beemerwt.beacontweaks.mixin;
+
+import net.minecraft.block.entity.BeaconBlockEntity;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.registry.entry.RegistryEntry;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.List;
+
+/** Beacon state read by the BeaconRegistry when it applies effects. */
+@Mixin(BeaconBlockEntity.class)
+public interface BeaconBlockEntityAccessor {
+    @Accessor("level")
+    int bt$getLevel();
+
+    @Accessor("primary")
+    RegistryEntry<StatusEffect> bt$getPrimary();
+
+    @Accessor("secondary")
+    RegistryEntry<StatusEffect> bt$getSecondary();
+
+    @Accessor("beamSegments")
+    List<BeaconBlockEntity.BeamSegment> bt$getBeamSegments();
+}
@@ -72,6 +72,8 @@ public final class Essence implements ModInitializer {
                 var b = ban.get();
                 if (b.expiresAt() != null && b.expiresAt().isBefore(Instant.now())) {
                     getSuspensionStore().unban(uuid); // auto-expire
+                    getSuspensionStore().hydrate(uuid);
+                    LOCATION_STORE.hydrate(uuid);
                     return;
                 }
 
@@ -79,7 +81,19 @@ public final class Essence implements ModInitializer {
                     ? "You are banned.\nReason: " + b.reason()
                     : "You are banned until " + b.expiresAt() + ".\nReason: " + b.reason();
                 handler.disconnect(Text.literal(msg));
+                return;
             }
+
+            // Mutes and jails are checked every tick/chat; keep them in memory while online
+            getSuspensionStore().hydrate(uuid);
+
+            // Homes, back and spawn load off-thread while the player logs in
+            LOCATION_STORE.hydrate(uuid);
+        });
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            getSuspensionStore().evict(handler.getPlayer().getUuid());
+            LOCATION_STORE.evict(handler.getPlayer().getUuid());
         });
 
             // Load storage on server start; save on stop
@@ -96,6 +110,9 @@ public final class Essence implements ModInitializer {
             Essence.server = null
         );
 
+        // Locations are written behind; make sure the last changes land
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> LOCATION_STORE.flush());
+
         // Load per-player data on join
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             ServerPlayerEntity p = handler.player;
@@ -122,6 +139,8 @@ public final class Essence implements ModInitializer {
 
         ServerTickEvents.END_SERVER_TICK.register(server -> {
             var store = getSuspensionStore();
+            store.tick(); // retire lapsed mutes/jails
+
             var now = Instant.now();
             for (var player : server.getPlayerManager().getPlayerList()) {
                 var jail = store.getActiveJail(player.getUuid());
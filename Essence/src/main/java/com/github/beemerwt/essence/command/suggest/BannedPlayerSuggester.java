@@ -8,7 +8,6 @@ import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
@@ -41,8 +40,8 @@ public final class BannedPlayerSuggester implements SuggestionProvider<ServerCom
 
         final int p = page;
         final String q = prefix;
-        MinecraftServer server = ctx.getSource().getServer();
 
+        // Names come from the in-memory index; build off the server thread
         return CompletableFuture.supplyAsync(() -> {
             PlayerStore store = Essence.getPlayerStore();
             int total = store.countByPrefix(q);
@@ -63,7 +62,7 @@ public final class BannedPlayerSuggester implements SuggestionProvider<ServerCom
                 b.suggest(raw); // passthrough for manual UUIDs
 
             return b.build();
-        }, server);
+        });
     }
 
     /**
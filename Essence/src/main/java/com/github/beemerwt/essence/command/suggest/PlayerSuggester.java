@@ -46,8 +46,8 @@ public final class PlayerSuggester implements SuggestionProvider<ServerCommandSo
 
         final int p = page;
         final String q = prefix;
-        MinecraftServer server = ctx.getSource().getServer();
 
+        // Names come from the in-memory index; build off the server thread
         return CompletableFuture.supplyAsync(() -> {
             PlayerStore store = Essence.getPlayerStore();
             int total = store.countByPrefix(q);
@@ -68,7 +68,7 @@ public final class PlayerSuggester implements SuggestionProvider<ServerCommandSo
                 b.suggest(raw); // passthrough for manual UUIDs
 
             return b.build();
-        }, server);
+        });
     }
 
     public CompletableFuture<Suggestions> getSuggestionsConnected(CommandContext<ServerCommandSource> ctx, SuggestionsBuilder b) {
@@ -0,0 +1,240 @@
+package com.github.beemerwt.essence.data;
+
+import com.github.beemerwt.essence.data.model.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-through cache in front of {@link SqliteSuspensionStore} for the per-tick and per-chat checks.
+ * - Mutes and jails of online players are hydrated on join and dropped on disconnect.
+ * - Jail locations are few and always cached.
+ * - Timed mutes/jails sit in a min-heap by expiry; {@link #tick()} retires due ones, so the DB is only touched on mutation.
+ * Players that are not hydrated (offline targets of commands) fall through to the database.
+ */
+public final class CachedSuspensionStore implements SuspensionStore {
+    private enum Kind { MUTE, JAIL }
+
+    private record Expiry(long atMillis, UUID player, Kind kind, long recordId) {}
+
+    private final SqliteSuspensionStore db;
+
+    private final Set<UUID> hydrated = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, MuteRecord> mutes = new ConcurrentHashMap<>();
+    private final Map<UUID, JailRecord> jails = new ConcurrentHashMap<>();
+    private final Map<String, StoredLocation> jailLocations = new ConcurrentHashMap<>();
+
+    // Guarded by itself; stale entries (record replaced or lifted) are skipped when popped
+    private final PriorityQueue<Expiry> expiries = new PriorityQueue<>(Comparator.comparingLong(Expiry::atMillis));
+
+    public CachedSuspensionStore(SqliteSuspensionStore db) {
+        this.db = db;
+        jailLocations.putAll(db.listAllJails());
+    }
+
+    /* ===== LIFECYCLE ===== */
+
+    @Override
+    public void hydrate(UUID player) {
+        db.getActiveMute(player).ifPresentOrElse(m -> cacheMute(player, m), () -> mutes.remove(player));
+        db.getActiveJail(player).ifPresentOrElse(j -> cacheJail(player, j), () -> jails.remove(player));
+        hydrated.add(player);
+
+        // Anything that lapsed while offline is retired right away
+        tick();
+    }
+
+    @Override
+    public void evict(UUID player) {
+        hydrated.remove(player);
+        mutes.remove(player);
+        jails.remove(player);
+    }
+
+    @Override
+    public void tick() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Expiry e;
+            synchronized (expiries) {
+                e = expiries.peek();
+                if (e == null || e.atMillis() > now) return;
+                expiries.poll();
+            }
+
+            switch (e.kind()) {
+                case MUTE -> {
+                    MuteRecord m = mutes.get(e.player());
+                    if (m != null && m.id() == e.recordId() && mutes.remove(e.player(), m)) db.unmute(e.player());
+                }
+                case JAIL -> {
+                    JailRecord j = jails.get(e.player());
+                    if (j != null && j.id() == e.recordId() && jails.remove(e.player(), j)) db.unjail(e.player());
+                }
+            }
+        }
+    }
+
+    private void cacheMute(UUID player, MuteRecord m) {
+        mutes.put(player, m);
+        if (m.expiresAt() != null) schedule(m.expiresAt(), player, Kind.MUTE, m.id());
+    }
+
+    private void cacheJail(UUID player, JailRecord j) {
+        jails.put(player, j);
+        if (j.expiresAt() != null) schedule(j.expiresAt(), player, Kind.JAIL, j.id());
+    }
+
+    private void schedule(Instant at, UUID player, Kind kind, long recordId) {
+        synchronized (expiries) {
+            expiries.add(new Expiry(at.toEpochMilli(), player, kind, recordId));
+        }
+    }
+
+    private static boolean lapsed(@Nullable Instant expiresAt) {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+
+    /* ===== BANS ===== */
+
+    @Override
+    public BanRecord banPermanent(UUID target, @Nullable UUID by, String byName, String reason) {
+        return db.banPermanent(target, by, byName, reason);
+    }
+
+    @Override
+    public BanRecord banTemporary(UUID target, @Nullable UUID by, String byName, String reason, Instant expiresAt) {
+        return db.banTemporary(target, by, byName, reason, expiresAt);
+    }
+
+    @Override
+    public Optional<BanRecord> getActiveBan(UUID target) {
+        return db.getActiveBan(target);
+    }
+
+    @Override
+    public boolean unban(UUID target) {
+        return db.unban(target);
+    }
+
+    @Override
+    public List<BanRecord> listBans(int offset, int limit) {
+        return db.listBans(offset, limit);
+    }
+
+    @Override
+    public int countActiveBans() {
+        return db.countActiveBans();
+    }
+
+    /* ===== MUTES ===== */
+
+    @Override
+    public MuteRecord mutePermanent(UUID target, @Nullable UUID by, String byName, String reason) {
+        MuteRecord m = db.mutePermanent(target, by, byName, reason);
+        if (hydrated.contains(target)) cacheMute(target, m);
+        return m;
+    }
+
+    @Override
+    public MuteRecord muteTemporary(UUID target, @Nullable UUID by, String byName, String reason, Instant expiresAt) {
+        MuteRecord m = db.muteTemporary(target, by, byName, reason, expiresAt);
+        if (hydrated.contains(target)) cacheMute(target, m);
+        return m;
+    }
+
+    @Override
+    public Optional<MuteRecord> getActiveMute(UUID target) {
+        if (!hydrated.contains(target)) return db.getActiveMute(target);
+        return Optional.ofNullable(mutes.get(target));
+    }
+
+    @Override
+    public boolean isMuted(UUID player) {
+        if (!hydrated.contains(player)) return db.isMuted(player);
+
+        MuteRecord m = mutes.get(player);
+        return m != null && !lapsed(m.expiresAt());
+    }
+
+    @Override
+    public boolean unmute(UUID target) {
+        mutes.remove(target);
+        return db.unmute(target);
+    }
+
+    @Override
+    public List<MuteRecord> listMutes(int offset, int limit) {
+        return db.listMutes(offset, limit);
+    }
+
+    @Override
+    public int countActiveMutes() {
+        return db.countActiveMutes();
+    }
+
+    /* ===== JAILS ===== */
+
+    @Override
+    public JailRecord jailTemporary(UUID target, UUID by, String byName, String jailName, String reason, Instant expiresAt) {
+        JailRecord j = db.jailTemporary(target, by, byName, jailName, reason, expiresAt);
+        if (hydrated.contains(target)) cacheJail(target, j);
+        return j;
+    }
+
+    @Override
+    public Optional<JailRecord> getActiveJail(UUID target) {
+        if (!hydrated.contains(target)) return db.getActiveJail(target);
+        return Optional.ofNullable(jails.get(target));
+    }
+
+    @Override
+    public boolean isJailed(UUID player) {
+        if (!hydrated.contains(player)) return db.isJailed(player);
+
+        JailRecord j = jails.get(player);
+        return j != null && !lapsed(j.expiresAt());
+    }
+
+    @Override
+    public boolean unjail(UUID target) {
+        jails.remove(target);
+        return db.unjail(target);
+    }
+
+    @Override
+    public List<JailRecord> listJails(int offset, int limit) {
+        return db.listJails(offset, limit);
+    }
+
+    @Override
+    public int countActiveJails() {
+        return db.countActiveJails();
+    }
+
+    /* ===== JAIL LOCATIONS ===== */
+
+    @Override
+    public boolean setJail(String name, StoredLocation loc) {
+        boolean ok = db.setJail(name, loc);
+        if (ok) jailLocations.put(name.toLowerCase(Locale.ROOT), loc);
+        return ok;
+    }
+
+    @Override
+    public Optional<StoredLocation> getJail(String name) {
+        return Optional.ofNullable(jailLocations.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    @Override
+    public Map<String, StoredLocation> listAllJails() {
+        return new LinkedHashMap<>(new TreeMap<>(jailLocations));
+    }
+
+    @Override
+    public void close() {
+        db.close();
+    }
+}
@@ -1,42 +1,60 @@
 package com.github.beemerwt.essence.data;
 
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 // -------- PlayerLocations wrapper --------
+// Copy-on-write: every edit publishes a new immutable view, so readers never lock or copy.
 final class PlayerLocations {
-    private final EnumMap<LocationType, LinkedHashMap<String, StoredLocation>> byType =
-            new EnumMap<>(LocationType.class);
-
-    Map<String, StoredLocation> ensureType(LocationType type) {
-        return byType.computeIfAbsent(type, t -> new LinkedHashMap<>());
-    }
+    private final AtomicReference<Map<LocationType, Map<String, StoredLocation>>> byType =
+            new AtomicReference<>(Collections.unmodifiableMap(new EnumMap<>(LocationType.class)));
 
     void put(LocationType type, String key, StoredLocation loc) {
-        ensureType(type).put(key, loc);
+        byType.updateAndGet(cur -> {
+            var m = new LinkedHashMap<>(cur.getOrDefault(type, Map.of()));
+            m.put(key, loc);
+            return with(cur, type, m);
+        });
     }
 
     StoredLocation get(LocationType type, String key) {
-        var m = byType.get(type);
+        var m = byType.get().get(type);
         return (m != null) ? m.get(key) : null;
     }
 
     void remove(LocationType type, String key) {
-        var m = byType.get(type);
-        if (m != null) m.remove(key);
+        byType.updateAndGet(cur -> {
+            var m = cur.get(type);
+            if (m == null || !m.containsKey(key)) return cur;
+            var copy = new LinkedHashMap<>(m);
+            copy.remove(key);
+            return with(cur, type, copy);
+        });
+    }
+
+    /** Drop every entry of {@code type}, returning the entries that were removed. */
+    Map<String, StoredLocation> removeAll(LocationType type) {
+        var prev = byType.getAndUpdate(cur -> cur.containsKey(type) ? with(cur, type, null) : cur);
+        return prev.getOrDefault(type, Map.of());
     }
 
     Map<String, StoredLocation> of(LocationType type) {
-        var m = byType.get(type);
-        return (m != null) ? new LinkedHashMap<>(m) : Map.of();
+        return byType.get().getOrDefault(type, Map.of());
     }
 
     Map<LocationType, Map<String, StoredLocation>> snapshot() {
+        return byType.get();
+    }
+
+    private static Map<LocationType, Map<String, StoredLocation>> with(
+            Map<LocationType, Map<String, StoredLocation>> cur, LocationType type, Map<String, StoredLocation> m) {
         var copy = new EnumMap<LocationType, Map<String, StoredLocation>>(LocationType.class);
-        for (var e : byType.entrySet()) {
-            copy.put(e.getKey(), new LinkedHashMap<>(e.getValue()));
-        }
-        return copy;
+        copy.putAll(cur);
+        if (m == null || m.isEmpty()) copy.remove(type);
+        else copy.put(type, Collections.unmodifiableMap(m));
+        return Collections.unmodifiableMap(copy);
     }
 }
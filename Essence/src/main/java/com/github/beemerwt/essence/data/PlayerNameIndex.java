@@ -0,0 +1,212 @@
+package com.github.beemerwt.essence.data;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Every known player name in a case-folded radix trie, for prefix completion without touching the database.
+ * - Edges hold whole runs of characters; nodes split on insert and merge back on removal.
+ * - Each node keeps the number of names below it, so counting a prefix is a single walk.
+ * - Pages come out newest first by last-seen time (microseconds).
+ * Safe for concurrent readers; writes take a short exclusive lock.
+ */
+public final class PlayerNameIndex {
+    private record Entry(UUID id, String name, long lastSeenMicros) {}
+
+    private static final class Node {
+        String label; // folded edge label from the parent; empty for the root
+        final Map<Character, Node> children = new HashMap<>(4);
+        final List<Entry> here = new ArrayList<>(1);
+        int size; // entries in this subtree
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Comparator<Entry> NEWEST_FIRST =
+            Comparator.comparingLong(Entry::lastSeenMicros).reversed()
+                    .thenComparing(Entry::name).thenComparing(Entry::id);
+
+    private final Node root = new Node("");
+    private final Map<UUID, Entry> byId = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Current time in microseconds, for {@link #put}. */
+    public static long nowMicros() {
+        var now = java.time.Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000L;
+    }
+
+    /** Add or refresh a player; a changed name replaces the old one. */
+    public void put(UUID id, String name, long lastSeenMicros) {
+        if (id == null || name == null || name.isEmpty()) return;
+
+        lock.writeLock().lock();
+        try {
+            Entry old = byId.get(id);
+            if (old != null) remove(fold(old.name()), old);
+
+            Entry e = new Entry(id, name, lastSeenMicros);
+            byId.put(id, e);
+            insert(fold(name), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return root.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Names starting with {@code prefix}, ignoring case. */
+    public int countByPrefix(String prefix) {
+        lock.readLock().lock();
+        try {
+            Node n = find(fold(prefix));
+            return n == null ? 0 : n.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** One page of names starting with {@code prefix}, most recently seen first. */
+    public List<PlayerData> listByPrefix(String prefix, int offset, int limit) {
+        if (limit <= 0) return List.of();
+        int keep = Math.max(0, offset) + limit;
+
+        // Min-heap of the newest `keep` entries under the prefix
+        PriorityQueue<Entry> top = new PriorityQueue<>(keep, NEWEST_FIRST.reversed());
+        lock.readLock().lock();
+        try {
+            Node n = find(fold(prefix));
+            if (n == null) return List.of();
+
+            ArrayDeque<Node> stack = new ArrayDeque<>();
+            stack.push(n);
+            while (!stack.isEmpty()) {
+                Node cur = stack.pop();
+                for (Entry e : cur.here) {
+                    if (top.size() < keep) top.add(e);
+                    else if (NEWEST_FIRST.compare(e, top.peek()) < 0) {
+                        top.poll();
+                        top.add(e);
+                    }
+                }
+                for (Node c : cur.children.values()) stack.push(c);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Entry> sorted = new ArrayList<>(top);
+        sorted.sort(NEWEST_FIRST);
+        List<PlayerData> out = new ArrayList<>(limit);
+        for (int i = Math.max(0, offset); i < sorted.size(); i++) {
+            Entry e = sorted.get(i);
+            out.add(new PlayerData(e.id(), e.name()));
+        }
+        return out;
+    }
+
+    // ----- trie -----
+
+    private static String fold(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static int common(String a, int aFrom, String b) {
+        int n = Math.min(a.length() - aFrom, b.length());
+        int i = 0;
+        while (i < n && a.charAt(aFrom + i) == b.charAt(i)) i++;
+        return i;
+    }
+
+    /** Node whose subtree holds exactly the keys starting with {@code key}, or null. */
+    private Node find(String key) {
+        Node n = root;
+        int at = 0;
+        while (at < key.length()) {
+            Node c = n.children.get(key.charAt(at));
+            if (c == null) return null;
+            int cp = common(key, at, c.label);
+            if (at + cp == key.length()) return c;   // prefix ends on or inside this edge
+            if (cp < c.label.length()) return null;  // diverges inside the edge
+            at += cp;
+            n = c;
+        }
+        return n;
+    }
+
+    private void insert(String key, Entry e) {
+        Node n = root;
+        n.size++;
+        int at = 0;
+        while (at < key.length()) {
+            char ch = key.charAt(at);
+            Node c = n.children.get(ch);
+            if (c == null) {
+                Node leaf = new Node(key.substring(at));
+                leaf.here.add(e);
+                leaf.size = 1;
+                n.children.put(ch, leaf);
+                return;
+            }
+
+            int cp = common(key, at, c.label);
+            if (cp < c.label.length()) {
+                // Split the edge at the divergence point
+                Node mid = new Node(c.label.substring(0, cp));
+                c.label = c.label.substring(cp);
+                mid.children.put(c.label.charAt(0), c);
+                mid.size = c.size;
+                n.children.put(ch, mid);
+                c = mid;
+            }
+            c.size++;
+            at += cp;
+            n = c;
+        }
+        n.here.add(e);
+    }
+
+    private void remove(String key, Entry e) {
+        ArrayList<Node> path = new ArrayList<>();
+        Node n = root;
+        path.add(n);
+        int at = 0;
+        while (at < key.length()) {
+            Node c = n.children.get(key.charAt(at));
+            if (c == null || !key.startsWith(c.label, at)) return;
+            at += c.label.length();
+            n = c;
+            path.add(n);
+        }
+        if (!n.here.remove(e)) return;
+
+        for (Node p : path) p.size--;
+
+        // Prune empty leaves and merge pass-through nodes back into their only child
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node cur = path.get(i);
+            Node parent = path.get(i - 1);
+            if (!cur.here.isEmpty()) break;
+
+            if (cur.children.isEmpty()) {
+                parent.children.remove(cur.label.charAt(0));
+                continue;
+            }
+            if (cur.children.size() == 1) {
+                Node only = cur.children.values().iterator().next();
+                only.label = cur.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+            }
+            break;
+        }
+    }
+}
@@ -9,14 +9,40 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 
+/**
+ * Locations kept in memory, with SQLite written behind.
+ * - Reads and writes touch only the cached {@link PlayerLocations}; a write also records its key in a dirty journal.
+ * - The journal coalesces per (player, type, key): only the latest put or delete of a key is ever written.
+ * - A single background thread owns the connection. It flushes the journal in one transaction every second,
+ *   and clears an entry only after the commit, and only if no newer write replaced it meanwhile.
+ * - Players are hydrated off-thread on join and evicted (after a flush) on disconnect.
+ * Warps are stored under {@link #GLOBAL} (callers pass a null player).
+ */
 public final class SqliteLocationStore implements LocationStore, Closeable {
+    public static final UUID GLOBAL = new UUID(0L, 0L);
+    private static final long FLUSH_MILLIS = 1000L;
+
     private final Path dir = FabricLoader.getInstance().getConfigDir().resolve("Essence");
     private final Path dbPath = dir.resolve("locations.db");
 
-    private Connection conn;
+    private record Key(UUID player, LocationType type, String key) {}
+
+    /** Pending write for a key; a null location is a delete. Compared by identity when clearing. */
+    private static final class Op {
+        final StoredLocation loc;
+        Op(StoredLocation loc) { this.loc = loc; }
+    }
+
+    private Connection conn; // writer thread only
     private final Map<UUID, PlayerLocations> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, Op> journal = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Essence-Locations");
+        t.setDaemon(true);
+        return t;
+    });
 
     public SqliteLocationStore() {
         try {
@@ -27,6 +53,8 @@ public final class SqliteLocationStore implements LocationStore, Closeable {
         } catch (Exception e) {
             throw new RuntimeException("Failed to init SqliteLocationStore", e);
         }
+        writer.scheduleWithFixedDelay(this::flushQuietly, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        writer.execute(() -> load(GLOBAL));
     }
 
     private static void initPragmas(Connection c) throws SQLException {
@@ -62,12 +90,34 @@ public final class SqliteLocationStore implements LocationStore, Closeable {
     }
 
     // -------- Cache helpers using PlayerLocations --------
+
+    private static UUID owner(UUID playerId) {
+        return playerId != null ? playerId : GLOBAL;
+    }
+
     private PlayerLocations ensureLoaded(UUID id) {
-        // Atomically: if absent, load from DB; if present, return as-is
-        return cache.compute(id, (k, existing) -> {
-            if (existing != null) return existing;
-            return loadPlayerFromDb(k);
-        });
+        var pl = cache.get(id);
+        if (pl != null) return pl;
+
+        // Not hydrated (offline target, or join still loading): wait for the writer to load it
+        try {
+            return writer.submit(() -> load(id)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("hydratePlayer interrupted for " + id, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("hydratePlayer failed for " + id, e.getCause());
+        }
+    }
+
+    // Writer thread only
+    private PlayerLocations load(UUID id) {
+        var pl = cache.get(id);
+        if (pl != null) return pl;
+
+        // Land anything still journaled for this player first, so the rows we read are current
+        if (!journal.isEmpty()) flushQuietly();
+        return cache.computeIfAbsent(id, this::loadPlayerFromDb);
     }
 
     private PlayerLocations loadPlayerFromDb(UUID id) {
@@ -97,130 +147,175 @@ public final class SqliteLocationStore implements LocationStore, Closeable {
         return pl;
     }
 
-    private void hydratePlayer(UUID id) {
-        var pl = new PlayerLocations();
-        try (PreparedStatement ps = conn.prepareStatement(
-                "SELECT type, key, world, x, y, z, yaw, pitch FROM locations WHERE uuid=?")) {
-            ps.setString(1, id.toString());
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    LocationType type;
-                    try { type = LocationType.valueOf(rs.getString(1)); }
-                    catch (IllegalArgumentException ex) { continue; }
-                    String key = rs.getString(2);
-                    String world = rs.getString(3);
-                    double x = rs.getDouble(4);
-                    double y = rs.getDouble(5);
-                    double z = rs.getDouble(6);
-                    float yaw = (float) rs.getDouble(7);
-                    float pitch = (float) rs.getDouble(8);
-                    pl.put(type, key, new StoredLocation(world, x, y, z, yaw, pitch));
+    // -------- write-behind --------
+
+    private void flushQuietly() {
+        try {
+            writeJournal();
+        } catch (Throwable t) {
+            Essence.getLogger().warning("Failed to flush {} location changes, will retry: {}", journal.size(), t.getMessage());
+        }
+    }
+
+    // Writer thread only
+    private void writeJournal() throws SQLException {
+        if (journal.isEmpty()) return;
+
+        var batch = new ArrayList<Map.Entry<Key, Op>>(journal.size());
+        for (var e : journal.entrySet()) batch.add(Map.entry(e.getKey(), e.getValue()));
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement up = conn.prepareStatement(
+                "INSERT INTO locations(uuid,type,key,world,x,y,z,yaw,pitch) VALUES(?,?,?,?,?,?,?,?,?) " +
+                "ON CONFLICT(uuid,type,key) DO UPDATE SET world=excluded.world,x=excluded.x,y=excluded.y,z=excluded.z,yaw=excluded.yaw,pitch=excluded.pitch");
+             PreparedStatement del = conn.prepareStatement(
+                "DELETE FROM locations WHERE uuid=? AND type=? AND key=?")) {
+
+            for (var e : batch) {
+                Key k = e.getKey();
+                StoredLocation loc = e.getValue().loc;
+                if (loc == null) {
+                    del.setString(1, k.player().toString());
+                    del.setString(2, k.type().name());
+                    del.setString(3, k.key());
+                    del.addBatch();
+                    continue;
                 }
+                up.setString(1, k.player().toString());
+                up.setString(2, k.type().name());
+                up.setString(3, k.key());
+                up.setString(4, loc.worldKey());
+                up.setDouble(5, loc.x());
+                up.setDouble(6, loc.y());
+                up.setDouble(7, loc.z());
+                up.setDouble(8, loc.yaw());
+                up.setDouble(9, loc.pitch());
+                up.addBatch();
             }
+            up.executeBatch();
+            del.executeBatch();
+            conn.commit();
         } catch (SQLException e) {
-            throw new RuntimeException("hydratePlayer failed for " + id, e);
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
-        cache.put(id, pl);
+
+        // Durable now; keep any key that was written again while we were busy
+        for (var e : batch) journal.remove(e.getKey(), e.getValue());
+    }
+
+    private void journal(UUID owner, LocationType type, String key, StoredLocation locOrNull) {
+        journal.put(new Key(owner, type, key), new Op(locOrNull));
     }
 
     // -------- LocationStore implementation --------
 
     @Override
-    public synchronized boolean set(UUID playerId, LocationType type, String key, StoredLocation loc) {
+    public void hydrate(UUID playerId) {
+        if (cache.containsKey(playerId)) return;
+        writer.execute(() -> {
+            try {
+                load(playerId);
+            } catch (RuntimeException e) {
+                Essence.getLogger().warning("Failed to load locations for {}: {}", playerId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void evict(UUID playerId) {
+        // Queued behind any pending load; flush first so a later load reads what was written
+        writer.execute(() -> {
+            flushQuietly();
+            if (!journal.isEmpty()) return; // flush failed; keep them cached until it succeeds
+            cache.remove(playerId);
+        });
+    }
+
+    @Override
+    public boolean set(UUID playerId, LocationType type, String key, StoredLocation loc) {
         if (type == null) throw new IllegalArgumentException("type");
         if (key == null || key.isBlank()) key = "_";
-        try (PreparedStatement ps = conn.prepareStatement(
-                "INSERT INTO locations(uuid,type,key,world,x,y,z,yaw,pitch) VALUES(?,?,?,?,?,?,?,?,?) " +
-                "ON CONFLICT(uuid,type,key) DO UPDATE SET world=excluded.world,x=excluded.x,y=excluded.y,z=excluded.z,yaw=excluded.yaw,pitch=excluded.pitch")) {
-            ps.setString(1, playerId.toString());
-            ps.setString(2, type.name());
-            ps.setString(3, key);
-            ps.setString(4, loc.worldKey());
-            ps.setDouble(5, loc.x());
-            ps.setDouble(6, loc.y());
-            ps.setDouble(7, loc.z());
-            ps.setDouble(8, loc.yaw());
-            ps.setDouble(9, loc.pitch());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            Essence.getLogger().warning("Failed to set location {} for player {}: {}", key, playerId, e.getMessage());
-            return false;
-        }
+        UUID id = owner(playerId);
+
+        var pl = ensureLoaded(id);
+        if (loc.equals(pl.get(type, key))) return true;
 
-        ensureLoaded(playerId).put(type, key, loc);
+        pl.put(type, key, loc);
+        journal(id, type, key, loc);
         return true;
     }
 
     @Override
-    public synchronized Optional<StoredLocation> get(UUID playerId, LocationType type, String key) {
+    public Optional<StoredLocation> get(UUID playerId, LocationType type, String key) {
         if (key == null || key.isBlank()) key = "_";
-        var loc = ensureLoaded(playerId).get(type, key);
+        var loc = ensureLoaded(owner(playerId)).get(type, key);
         // Because ensureLoaded pulls all rows, a miss here means "doesn't exist".
         return Optional.ofNullable(loc);
     }
 
     @Override
-    public synchronized Map<String, StoredLocation> list(UUID playerId, LocationType type) {
-        // Update the cached locations
-        return ensureLoaded(playerId).of(type);
+    public Map<String, StoredLocation> list(UUID playerId, LocationType type) {
+        return ensureLoaded(owner(playerId)).of(type);
     }
 
     @Override
-    public synchronized Map<LocationType, Map<String, StoredLocation>> listAll(UUID playerId) {
-        return ensureLoaded(playerId).snapshot();
+    public Map<LocationType, Map<String, StoredLocation>> listAll(UUID playerId) {
+        return ensureLoaded(owner(playerId)).snapshot();
     }
 
     @Override
-    public synchronized boolean delete(UUID playerId, LocationType type, String key) {
+    public boolean delete(UUID playerId, LocationType type, String key) {
         if (key == null || key.isBlank()) key = "_";
-        int n;
-        try (PreparedStatement ps = conn.prepareStatement(
-                "DELETE FROM locations WHERE uuid=? AND type=? AND key=?")) {
-            ps.setString(1, playerId.toString());
-            ps.setString(2, type.name());
-            ps.setString(3, key);
-            n = ps.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("delete location failed", e);
-        }
+        UUID id = owner(playerId);
+
+        var pl = ensureLoaded(id);
+        if (pl.get(type, key) == null) return false;
 
-        var pl = ensureLoaded(playerId);
-        if (pl != null) pl.remove(type, key);
-        return n > 0;
+        pl.remove(type, key);
+        journal(id, type, key, null);
+        return true;
     }
 
     @Override
-    public synchronized boolean deleteAllOfType(UUID playerId, LocationType type) {
-        int n;
-        try (PreparedStatement ps = conn.prepareStatement(
-                "DELETE FROM locations WHERE uuid=? AND type=?")) {
-            ps.setString(1, playerId.toString());
-            ps.setString(2, type.name());
-            n = ps.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("deleteAllOfType failed", e);
-        }
+    public boolean deleteAllOfType(UUID playerId, LocationType type) {
+        UUID id = owner(playerId);
 
-        var pl = ensureLoaded(playerId);
-        var snap = pl.snapshot();
-        snap.remove(type);
-        cache.put(playerId, fromSnapshot(snap));
-        return n > 0;
+        // The cache holds every row for a loaded player, so per-key deletes cover the type
+        var removed = ensureLoaded(id).removeAll(type);
+        for (String key : removed.keySet()) journal(id, type, key, null);
+        return !removed.isEmpty();
     }
 
-    private static PlayerLocations fromSnapshot(Map<LocationType, Map<String, StoredLocation>> snap) {
-        var pl = new PlayerLocations();
-        for (var e : snap.entrySet()) {
-            var type = e.getKey();
-            for (var kv : e.getValue().entrySet()) {
-                pl.put(type, kv.getKey(), kv.getValue());
-            }
+    @Override
+    public void flush() {
+        try {
+            writer.submit(this::flushQuietly).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            Essence.getLogger().warning("Failed to flush locations: {}", e.getMessage());
         }
-        return pl;
+        if (!journal.isEmpty())
+            Essence.getLogger().error("{} location changes could not be saved yet", journal.size());
     }
 
     @Override
-    public synchronized void close() {
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS))
+                Essence.getLogger().warning("Location writer did not stop in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Writer is gone; this thread owns the connection now
+        flushQuietly();
+        if (!journal.isEmpty())
+            Essence.getLogger().error("{} location changes could not be saved", journal.size());
         try { if (conn != null) conn.close(); } catch (SQLException ignored) {}
         cache.clear();
     }
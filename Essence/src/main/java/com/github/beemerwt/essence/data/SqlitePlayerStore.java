@@ -21,17 +21,33 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
     // Hot cache for active players
     private final Map<UUID, PlayerData> cache = new ConcurrentHashMap<>();
 
+    // Every known name, for prefix suggestions without SQL
+    private final PlayerNameIndex names = new PlayerNameIndex();
+
     public SqlitePlayerStore() {
         try {
             Files.createDirectories(dir);
             this.conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
             initPragmas(conn);
             createSchema(conn);
+            loadNames();
         } catch (Exception e) {
             throw new RuntimeException("Failed to init SqlitePlayerStore", e);
         }
     }
 
+    private void loadNames() throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT uuid, name, updated_at FROM players")) {
+            while (rs.next()) {
+                UUID id;
+                try { id = UUID.fromString(rs.getString(1)); }
+                catch (IllegalArgumentException ex) { continue; }
+                names.put(id, rs.getString(2), rs.getLong(3) * 1_000_000L); // updated_at is in seconds
+            }
+        }
+    }
+
     private static void initPragmas(Connection c) throws SQLException {
         try (Statement s = c.createStatement()) {
             s.execute("PRAGMA journal_mode=WAL");
@@ -66,6 +82,7 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
         } catch (SQLException e) {
             throw new RuntimeException("ensurePlayerRow failed", e);
         }
+        names.put(id, name, PlayerNameIndex.nowMicros());
         return loadIntoCache(id, name);
     }
 
@@ -120,49 +137,13 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
     }
 
     @Override
-    public synchronized int countByPrefix(String prefix) {
-        String like = (prefix == null || prefix.isEmpty()) ? "%" : (prefix + "%");
-        try (PreparedStatement ps = conn.prepareStatement("""
-            SELECT COUNT(*) FROM players
-            WHERE name LIKE ? COLLATE NOCASE
-        """))
-        {
-            ps.setString(1, like);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? rs.getInt(1) : 0;
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("countByPrefix failed", e);
-        }
+    public int countByPrefix(String prefix) {
+        return names.countByPrefix(prefix);
     }
 
     @Override
-    public synchronized List<PlayerData> listByPrefix(String prefix, int offset, int limit) {
-        String like = (prefix == null || prefix.isEmpty()) ? "%" : (prefix + "%");
-        List<PlayerData> out = new ArrayList<>(limit);
-        try (PreparedStatement ps = conn.prepareStatement("""
-            SELECT uuid, name
-            FROM players
-            WHERE name LIKE ? COLLATE NOCASE
-            ORDER BY updated_at DESC
-            LIMIT ? OFFSET ?
-        """)) {
-            ps.setString(1, like);
-            ps.setInt(2, limit);
-            ps.setInt(3, offset);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    UUID id = UUID.fromString(rs.getString(1));
-                    String nm = rs.getString(2);
-                    PlayerData pd = new PlayerData(id, nm);
-                    cache.put(id, pd); // keep cache fresh
-                    out.add(pd);
-                }
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("listByPrefix failed", e);
-        }
-        return out;
+    public List<PlayerData> listByPrefix(String prefix, int offset, int limit) {
+        return names.listByPrefix(prefix, offset, limit);
     }
 
     // ---------- Convenience ----------
@@ -179,6 +160,7 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
         }
         // Replace cached instance with a new immutable object
         cache.compute(id, (k, oldVal) -> new PlayerData(id, newName));
+        names.put(id, newName, PlayerNameIndex.nowMicros());
     }
 
     // ---------- Low-level helpers ----------
@@ -11,6 +11,11 @@ import java.util.UUID;
 public interface LocationStore {
     static LocationStore create() { return new SqliteLocationStore(); }
 
+    // Lifecycle (no-ops unless the store caches per player)
+    default void hydrate(UUID playerId) {} // player is joining
+    default void evict(UUID playerId) {}   // player left
+    default void flush() {}                // write anything pending before returning
+
     // Write
     boolean set(UUID playerId, LocationType type, String key, StoredLocation loc);
     default boolean setSingle(UUID playerId, LocationType type, StoredLocation loc) {
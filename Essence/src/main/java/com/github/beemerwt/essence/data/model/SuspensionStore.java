@@ -1,5 +1,6 @@
 package com.github.beemerwt.essence.data.model;
 
+import com.github.beemerwt.essence.data.CachedSuspensionStore;
 import com.github.beemerwt.essence.data.SqliteSuspensionStore;
 import com.github.beemerwt.essence.data.StoredLocation;
 import org.jetbrains.annotations.Nullable;
@@ -9,7 +10,12 @@ import java.time.Instant;
 import java.util.*;
 
 public interface SuspensionStore extends Closeable {
-    static SuspensionStore create() { return new SqliteSuspensionStore(); }
+    static SuspensionStore create() { return new CachedSuspensionStore(new SqliteSuspensionStore()); }
+
+    /* ===== CACHE LIFECYCLE (no-ops for uncached stores) ===== */
+    default void hydrate(UUID player) {} // player is joining
+    default void evict(UUID player) {} // player left
+    default void tick() {} // retire lapsed mutes/jails
 
     /* ===== BANS ===== */
     BanRecord banPermanent(UUID target, @Nullable UUID by, String byName, String reason);
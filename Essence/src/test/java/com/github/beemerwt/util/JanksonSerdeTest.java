@@ -0,0 +1,174 @@
+package com.github.beemerwt.util;
+
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import com.github.beemerwt.annotation.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JanksonSerdeTest {
+    private static final UUID OWNER = UUID.fromString("0b3c1a5e-7d2f-4c6b-9a8e-1f2d3c4b5a69");
+
+    enum Channel { GLOBAL, LOCAL }
+
+    @JanksonObject
+    record Warp(String world, double x, double y, double z, UUID owner, int uses) {}
+
+    @JanksonObject
+    static class Limits {
+        public int homes = 3;
+        public long cooldownMillis = 5_000L;
+
+        Limits() {}
+
+        Limits(int homes, long cooldownMillis) {
+            this.homes = homes;
+            this.cooldownMillis = cooldownMillis;
+        }
+    }
+
+    @JanksonObject
+    static class Base {
+        @JankComment("Shown above the key")
+        public boolean enabled = true;
+        public String prefix = "[E]";
+    }
+
+    @JanksonObject
+    static class Settings extends Base {
+        @JankKey("spawn-owner")
+        public UUID spawnOwner = null;
+
+        @JankOptional
+        public String motd = "";
+        @JankOptional
+        public Map<String, Integer> aliases = new LinkedHashMap<>();
+
+        public Channel channel = Channel.GLOBAL;
+        public float volume = 0.5f;
+        public double radius = 16.0;
+        public List<String> blockedWords = new ArrayList<>(List.of("spam"));
+
+        public Limits limits = new Limits();
+        public Map<String, Limits> ranks = new LinkedHashMap<>();
+        public List<Warp> warps = new ArrayList<>();
+        public Map<String, Warp> namedWarps = new LinkedHashMap<>();
+
+        @JankIgnore
+        public int ignored = 7;
+    }
+
+    private static Settings edited() {
+        Settings s = new Settings();
+        s.enabled = false;
+        s.prefix = "[Essence]";
+        s.spawnOwner = OWNER;
+        s.motd = "welcome";
+        s.aliases = new LinkedHashMap<>(Map.of("h", 1));
+        s.channel = Channel.LOCAL;
+        s.volume = 0.125f;
+        s.radius = 48.5;
+        s.blockedWords = new ArrayList<>(List.of("a", "b"));
+        s.limits = new Limits(10, 250L);
+        s.ranks = new LinkedHashMap<>(Map.of("vip", new Limits(20, 0L)));
+        s.warps = new ArrayList<>(List.of(new Warp("minecraft:overworld", 1.5, 64, -3.25, OWNER, 4)));
+        s.namedWarps = new LinkedHashMap<>(Map.of("nether", new Warp("minecraft:the_nether", 0, 100, 0, null, 0)));
+        return s;
+    }
+
+    private static void assertSameValues(Settings expected, Settings actual) {
+        assertEquals(expected.enabled, actual.enabled);
+        assertEquals(expected.prefix, actual.prefix);
+        assertEquals(expected.spawnOwner, actual.spawnOwner);
+        assertEquals(expected.motd, actual.motd);
+        assertEquals(expected.aliases, actual.aliases);
+        assertEquals(expected.channel, actual.channel);
+        assertEquals(expected.volume, actual.volume);
+        assertEquals(expected.radius, actual.radius);
+        assertEquals(expected.blockedWords, actual.blockedWords);
+        assertEquals(expected.limits.homes, actual.limits.homes);
+        assertEquals(expected.limits.cooldownMillis, actual.limits.cooldownMillis);
+
+        assertEquals(expected.ranks.keySet(), actual.ranks.keySet());
+        for (String k : expected.ranks.keySet()) {
+            assertEquals(expected.ranks.get(k).homes, actual.ranks.get(k).homes);
+            assertEquals(expected.ranks.get(k).cooldownMillis, actual.ranks.get(k).cooldownMillis);
+        }
+
+        // Records compare by value
+        assertEquals(expected.warps, actual.warps);
+        assertEquals(expected.namedWarps, actual.namedWarps);
+    }
+
+    @Test
+    void writesBaseFieldsFirstWithKeysAndComments() {
+        JsonObject json = JanksonSerde.toJson(new Settings());
+
+        assertEquals(List.of("enabled", "prefix", "spawn-owner", "channel", "volume", "radius", "blockedWords",
+                "limits", "ranks", "warps", "namedWarps"), new ArrayList<>(json.keySet()));
+        assertEquals("Shown above the key", json.getComment("enabled"));
+        assertFalse(json.containsKey("ignored"));
+    }
+
+    @Test
+    void roundTripsEveryFieldKind() {
+        Settings source = edited();
+        JsonObject json = JanksonSerde.toJson(source);
+
+        assertTrue(json.containsKey("motd"));
+        assertTrue(json.containsKey("aliases"));
+
+        Settings copy = JanksonSerde.fillFrom(json, new Settings());
+        assertSameValues(source, copy);
+        assertEquals(Integer.class, copy.aliases.get("h").getClass());
+    }
+
+    @Test
+    void missingKeysKeepDefaults() {
+        JsonObject json = new JsonObject();
+        json.put("prefix", JsonPrimitive.of("[X]"));
+        json.put("spawn-owner", JsonPrimitive.of("not-a-uuid"));
+
+        Settings s = JanksonSerde.fillFrom(json, new Settings());
+
+        Settings expected = new Settings();
+        expected.prefix = "[X]";
+        assertSameValues(expected, s);
+    }
+
+    @Test
+    void recordsRoundTripThroughTheirCanonicalConstructor() {
+        Warp warp = new Warp("minecraft:overworld", -12.5, 70, 3, OWNER, 2);
+
+        assertEquals(warp, JanksonSerde.fromJson(JanksonSerde.toJson(warp), Warp.class));
+    }
+
+    @Test
+    void recordsFillMissingComponentsWithDefaults() {
+        JsonObject json = new JsonObject();
+        json.put("world", JsonPrimitive.of("minecraft:the_end"));
+        json.put("y", JsonPrimitive.of(80.0));
+
+        Warp warp = JanksonSerde.fromJson(json, Warp.class);
+
+        assertEquals(new Warp("minecraft:the_end", 0.0, 80.0, 0.0, null, 0), warp);
+    }
+
+    @Test
+    void fromJsonBuildsClassesThroughTheirNoArgConstructor() {
+        JsonObject json = new JsonObject();
+        json.put("homes", JsonPrimitive.of(6L));
+
+        Limits limits = JanksonSerde.fromJson(json, Limits.class);
+
+        assertEquals(6, limits.homes);
+        assertEquals(5_000L, limits.cooldownMillis);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.beemerwt.mcrpg.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.api.SyntaxError;
+import com.github.beemerwt.mcrpg.data.SkillType;
+import com.github.beemerwt.mcrpg.util.JanksonSerde;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full config load/reload, as {@code ConfigManager.init()} does it, minus the disk:
+ * - {@link #reload}: parse every skill file plus general.json5 and fill fresh config objects
+ * - {@link #fill}: the same from already-parsed trees, isolating {@link JanksonSerde#fillFrom}
+ * - {@link #writeDefaults}: serialize every config, as on first start
+ * Files are the in-code defaults rendered once in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigLoadBenchmark {
+    private final Jankson jankson = Jankson.builder().build();
+
+    private final Map<SkillType, String> skillFiles = new EnumMap<>(SkillType.class);
+    private final Map<SkillType, JsonObject> skillTrees = new EnumMap<>(SkillType.class);
+    private String generalFile;
+    private JsonObject generalTree;
+
+    @Setup
+    public void setup() throws SyntaxError {
+        for (SkillType skill : SkillType.values()) {
+            SkillConfig cfg = SkillConfig.newConfig(skill);
+            if (cfg == null) continue;
+
+            String text = JanksonSerde.toJson(cfg).toJson(true, true);
+            skillFiles.put(skill, text);
+            skillTrees.put(skill, jankson.load(text));
+        }
+
+        generalFile = JanksonSerde.toJson(new GeneralConfig()).toJson(true, true);
+        generalTree = jankson.load(generalFile);
+    }
+
+    @Benchmark
+    public void reload(Blackhole bh) throws SyntaxError {
+        bh.consume(JanksonSerde.fillFrom(jankson.load(generalFile), new GeneralConfig()));
+        for (var e : skillFiles.entrySet())
+            bh.consume(JanksonSerde.fillFrom(jankson.load(e.getValue()), SkillConfig.newConfig(e.getKey())));
+    }
+
+    @Benchmark
+    public void fill(Blackhole bh) {
+        bh.consume(JanksonSerde.fillFrom(generalTree, new GeneralConfig()));
+        for (var e : skillTrees.entrySet())
+            bh.consume(JanksonSerde.fillFrom(e.getValue(), SkillConfig.newConfig(e.getKey())));
+    }
+
+    @Benchmark
+    public void writeDefaults(Blackhole bh) {
+        bh.consume(JanksonSerde.toJson(new GeneralConfig()));
+        for (SkillType skill : skillTrees.keySet())
+            bh.consume(JanksonSerde.toJson(SkillConfig.newConfig(skill)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.beemerwt.mcrpg.managers;
+
+import com.github.beemerwt.mcrpg.config.IHasBlocks;
+import com.github.beemerwt.mcrpg.config.SkillConfig;
+import com.github.beemerwt.mcrpg.data.SkillType;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-break block lookups over the default skill configs, before and after {@link BlockSkillIndex}.
+ * - {@code whichSkillHasBlock}: owning skill of a broken block
+ * - {@code resolveBlockXp}: Mining's base XP for a broken block, as Mining.onBreak asks for every block
+ * The sample is 70% blocks some skill lists and 30% arbitrary registry blocks, which mostly miss.
+ * Scores are per lookup; run with the default {@code -prof gc} to see the allocation per break.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockLookupBenchmark {
+    private static final int SAMPLE = 1024;
+
+    private List<SkillConfig> skills;
+    private Map<String, Integer> miningBlocks;
+    private BlockSkillIndex index;
+    private Block[] broken;
+
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        // SkillType order, as ConfigManager's EnumMap iterates
+        skills = new ArrayList<>();
+        for (SkillType skill : SkillType.values()) {
+            SkillConfig cfg = SkillConfig.newConfig(skill);
+            if (cfg != null) skills.add(cfg);
+        }
+        miningBlocks = ((IHasBlocks) SkillConfig.newConfig(SkillType.MINING)).getBlocks();
+        index = BlockSkillIndex.build(skills);
+
+        List<Block> listed = new ArrayList<>();
+        for (SkillConfig cfg : skills) {
+            if (!(cfg instanceof IHasBlocks hb)) continue;
+            for (String id : hb.getBlocks().keySet()) {
+                Identifier parsed = Identifier.tryParse(id);
+                if (parsed != null && Registries.BLOCK.containsId(parsed)) listed.add(Registries.BLOCK.get(parsed));
+            }
+        }
+        List<Block> all = Registries.BLOCK.stream().toList();
+
+        SplittableRandom rnd = new SplittableRandom(42);
+        broken = new Block[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            broken[i] = (rnd.nextInt(10) < 7) ? listed.get(rnd.nextInt(listed.size())) : all.get(rnd.nextInt(all.size()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public int whichSkillHasBlock() {
+        int found = 0;
+        for (Block block : broken) {
+            BlockSkillIndex.Entry e = index.get(block);
+            if (e != null) found += e.skill().skillType.ordinal();
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public int previousWhichSkillHasBlock() {
+        int found = 0;
+        for (Block block : broken) {
+            SkillConfig cfg = previousWhichSkillHasBlock(Registries.BLOCK.getId(block).toString());
+            if (cfg != null) found += cfg.skillType.ordinal();
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public long resolveBlockXp() {
+        long xp = 0;
+        for (Block block : broken) xp += index.xp(SkillType.MINING, block);
+        return xp;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public long previousResolveBlockXp() {
+        long xp = 0;
+        for (Block block : broken) xp += previousResolveBlockXp(miningBlocks, block);
+        return xp;
+    }
+
+    // ----- the lookups BlockSkillIndex replaced -----
+
+    private SkillConfig previousWhichSkillHasBlock(String blockId) {
+        return skills.stream()
+                .filter(Objects::nonNull)
+                .filter(cfg -> cfg instanceof IHasBlocks hb && hb.hasBlock(blockId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static long previousResolveBlockXp(Map<String, Integer> blocks, Block block) {
+        var id = Registries.BLOCK.getId(block);
+
+        Integer direct = blocks.get(id.toString());
+        if (direct != null) return direct;
+
+        if (!blocks.isEmpty()) {
+            RegistryEntry<Block> entry = Registries.BLOCK.getEntry(block);
+            for (Map.Entry<String, Integer> e : blocks.entrySet()) {
+                String key = e.getKey();
+                if (!key.startsWith("#")) continue;
+                Identifier tagId = Identifier.tryParse(key.substring(1));
+                if (tagId == null) continue;
+                TagKey<Block> tagKey = TagKey.of(RegistryKeys.BLOCK, tagId);
+                if (entry.isIn(tagKey)) return e.getValue();
+            }
+        }
+
+        return 0;
+    }
+}
@@ -6,6 +6,10 @@ import com.github.beemerwt.mcrpg.events.*;
 import com.github.beemerwt.mcrpg.managers.ConfigManager;
 import com.github.beemerwt.mcrpg.data.PlayerStore;
 import com.github.beemerwt.mcrpg.managers.AbilityManager;
+import com.github.beemerwt.mcrpg.permission.Permissions;
+import com.github.beemerwt.mcrpg.persistent.PlacedBlockTracker;
+import com.github.beemerwt.mcrpg.persistent.CropMarkers;
+import com.github.beemerwt.mcrpg.persistent.FurnaceSlotOwners;
 import com.github.beemerwt.mcrpg.skills.*;
 import com.github.beemerwt.mcrpg.ui.HealthbarHover;
 import com.github.beemerwt.mcrpg.ui.XpBossbarManager;
@@ -13,8 +17,10 @@ import com.github.beemerwt.mcrpg.util.FabricLogger;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.MinecraftServer;
 
 public class McRPG implements ModInitializer {
@@ -37,12 +43,17 @@ public class McRPG implements ModInitializer {
 
         LOG.info("Initializing");
         ConfigManager.init();            // loads defaults + overrides
+        Permissions.init();              // reads the configured permissions system
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> ConfigManager.rebuildBlockIndex());
         AbilityManager.init();
 
         store = PlayerStore.create();
         BlockEvents.register();
         AbilityEvents.register();
         CombatEvents.register();
+        PlacedBlockTracker.register();
+        CropMarkers.register();
+        FurnaceSlotOwners.register();
 
         CommandRegistrationCallback.EVENT.register((d, access, regEnv) -> {
                 SkillCommand.register(d);
@@ -59,13 +70,19 @@ public class McRPG implements ModInitializer {
         Smelting.register();
         Swords.register();
 
+        // Kick off the load as early as possible so it is usually hydrated by JOIN
+        ServerPlayConnectionEvents.INIT.register((handler, s) ->
+            store.load(handler.player.getUuid(), handler.player.getStringifiedName()));
+
         ServerPlayerEvents.JOIN.register(player -> {
             store.ensurePlayerRow(player.getUuid(), player.getStringifiedName());
-            store.get(player); // touch the player to load or create their data
+            store.get(player); // touch the player; never blocks, the preload is already in flight
         });
 
         lastSave = System.currentTimeMillis();
         ServerTickEvents.END_SERVER_TICK.register(minecraftServer -> {
+            store.tick();
+
             long now = System.currentTimeMillis();
             if (now - lastSave > ConfigManager.getGeneralConfig().autoSaveEverySeconds * 1000L) {
                 try {
@@ -27,8 +27,7 @@ public class DoubleDrops {
     public static boolean processTrigger(DoubleDropsConfig doubleDrops, int skillLevel,
                                   ServerWorld world, BlockPos pos, Block block, List<ItemStack> drops)
     {
-        double chance = Leveling.getScaledPercentage(doubleDrops.baseChance, doubleDrops.maxChance, skillLevel);
-        if (Math.random() > chance) return false;
+        if (!roll(doubleDrops, skillLevel)) return false;
 
         McRPG.getLogger().debug("Double drop proc on block {}", block.getName());
 
@@ -44,4 +43,10 @@ public class DoubleDrops {
 
         return true;
     }
+
+    /** Roll the proc chance only; for callers that spawn the extra drops themselves. */
+    public static boolean roll(DoubleDropsConfig doubleDrops, int skillLevel) {
+        double chance = Leveling.getScaledPercentage(doubleDrops.baseChance, doubleDrops.maxChance, skillLevel);
+        return Math.random() <= chance;
+    }
 }
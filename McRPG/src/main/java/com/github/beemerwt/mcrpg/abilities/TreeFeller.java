@@ -7,16 +7,22 @@ import com.github.beemerwt.mcrpg.persistent.PlacedBlockTracker;
 import com.github.beemerwt.mcrpg.data.SkillType;
 import com.github.beemerwt.mcrpg.util.BlockClassifier;
 import com.github.beemerwt.mcrpg.data.Leveling;
+import com.github.beemerwt.mcrpg.util.ItemClassifier;
+import com.github.beemerwt.mcrpg.util.TickScheduler;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.ItemEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.registry.Registries;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3i;
+import net.minecraft.util.math.ChunkSectionPos;
 
 import java.util.*;
 
@@ -31,9 +37,15 @@ import java.util.*;
  *  - For any log found, add it to the removal set and schedule it as a new center to recurse.
  *  - For tree non-wood parts (leaves, roots, wart blocks, etc.), add to removal but don't recurse.
  *
+ * Felling:
+ *  - The search runs on packed BlockPos longs; the result is sorted bottom-up.
+ *  - Blocks are then broken over as many ticks as it takes, within a per-tick time budget.
+ *  - Double Drops extras and XP are collected along the way and paid out once, when the felling ends.
+ *  - Blocks are claimed per world while a felling runs, so two fellings never take the same block.
+ *
  * Safety:
  *  - Hard threshold on total blocks to avoid nuking forests.
- *  - Optional "ineligible" predicate so you can skip player-placed logs if you track them.
+ *  - Player-placed logs are skipped.
  */
 public final class TreeFeller {
     private TreeFeller() {}
@@ -41,59 +53,182 @@ public final class TreeFeller {
     private static final int THRESHOLD = 1024;
     private static final boolean INCLUDE_NON_WOOD_PARTS = true;
 
-    /**
-     * Collects the tree starting at 'start' and processes each block:
-     * - precomputes drops for Double Drops
-     * - breaks the block
-     * - damages the axe on logs
-     * - awards per-block XP (doubled if Double Drops procs)
-     * Returns the total (pre-modifier) XP earned.
-     */
-    public static long fellAndProcess(ServerPlayerEntity player, BlockPos start,
-                                      int skillLevel, WoodcuttingConfig cfg) {
-        var world = player.getEntityWorld();
-        var treeBlocks = collect(world, start);
-        if (treeBlocks.isEmpty()) return 0L;
+    private static final Map<UUID, Felling> ACTIVE = new HashMap<>();
+    private static final Map<ServerWorld, LongOpenHashSet> CLAIMED = new HashMap<>();
+
+    /** A tree being felled, one budgeted slice per tick. */
+    private static final class Felling implements Runnable {
+        final UUID playerId;
+        final ServerWorld world;
+        final BlockPos origin;
+        final long[] order; // bottom-up
+        final int skillLevel;
+        final WoodcuttingConfig cfg;
+        final List<ItemStack> extraDrops = new ArrayList<>();
+        final BlockPos.Mutable cursor = new BlockPos.Mutable();
+        TickScheduler.Task task;
+        int next;
+        int broken;
+        long xp;
+
+        Felling(ServerPlayerEntity player, ServerWorld world, BlockPos origin, long[] order, int skillLevel, WoodcuttingConfig cfg) {
+            this.playerId = player.getUuid();
+            this.world = world;
+            this.origin = origin.toImmutable();
+            this.order = order;
+            this.skillLevel = skillLevel;
+            this.cfg = cfg;
+        }
 
-        long totalXp = 0L;
-        var ordered = treeBlocks.stream()
-                .sorted(Comparator.comparingInt(Vec3i::getY))
-                .toList();
+        @Override
+        public void run() {
+            var player = world.getServer().getPlayerManager().getPlayer(playerId);
+            if (player == null || player.isRemoved() || player.getEntityWorld() != world) {
+                finish(player);
+                return;
+            }
 
-        var tool = player.getMainHandStack();
+            var tool = player.getMainHandStack();
+            long budget = Math.max(1L, cfg.treeFeller.tickBudgetMicros) * 1_000L;
+            long began = System.nanoTime();
 
-        for (var pos : ordered) {
-            var state = world.getBlockState(pos);
-            var block = state.getBlock();
+            while (next < order.length) {
+                // The axe broke or was put away: leave the rest of the tree standing
+                if (!ItemClassifier.isAxe(tool.getItem())) {
+                    next = order.length;
+                    break;
+                }
+
+                breakOne(player, tool, order[next++]);
+                if (System.nanoTime() - began >= budget) break;
+            }
 
-            // Resolve XP for THIS block (skip if non-xp)
-            long xp = Leveling.resolveBlockXp(cfg.getBlocks(), block);
-            if (xp <= 0) continue;
+            if (next >= order.length) finish(player);
+        }
+
+        private void breakOne(ServerPlayerEntity player, ItemStack tool, long packed) {
+            cursor.set(packed);
+            if (!world.isChunkLoaded(ChunkSectionPos.getSectionCoord(cursor.getX()), ChunkSectionPos.getSectionCoord(cursor.getZ())))
+                return;
+
+            // Re-check: the world may have changed since the search
+            var state = world.getBlockState(cursor);
+            var block = state.getBlock();
+            long blockXp = ConfigManager.blockXp(SkillType.WOODCUTTING, block);
+            if (blockXp <= 0) return;
 
-            // Build predicted drops BEFORE breaking so we can duplicate exactly
-            var predictedDrops = predictedDropsFor(state, world, pos, player, tool);
+            // Roll first; only predict drops when there is something to duplicate
+            boolean doubled = DoubleDrops.roll(cfg.doubleDrops, skillLevel);
+            List<ItemStack> predicted = doubled ? predictedDropsFor(state, world, cursor, player, tool) : List.of();
 
-            // Break (this path won't fire Fabric AFTER; that's fine for Telekinesis since we spawn dupes)
-            if (!world.breakBlock(pos, true, player)) {
+            // Break (this path won't fire Fabric AFTER; extra drops are spawned as one batch at the end)
+            if (!world.breakBlock(cursor, true, player)) {
                 McRPG.getLogger().warning("Tree Feller failed to break {} at {}",
-                        Registries.BLOCK.getId(block), pos);
-                continue;
+                        Registries.BLOCK.getId(block), cursor);
+                return;
             }
+            broken++;
 
-            // Axe durability on logs only; do not cancel the run mid-tree (let natural break happen)
+            // Axe durability on logs only
             if (BlockClassifier.isLog(block) && tool.isDamageable())
                 tool.damage(1, player, EquipmentSlot.MAINHAND);
 
-            // Double Drops per block (spawns extra copies the Telekinesis mixin can capture)
-            if (DoubleDrops.processTrigger(cfg.doubleDrops, skillLevel, world, pos, block, predictedDrops))
-                xp *= 2;
+            if (doubled) {
+                for (ItemStack s : predicted) merge(extraDrops, s);
+                blockXp *= 2;
+            }
+            xp += blockXp;
+        }
+
+        private void finish(ServerPlayerEntity player) {
+            if (task != null) task.cancel();
+            ACTIVE.remove(playerId, this);
+            release(world, order);
+
+            // Spawn through ServerWorld so the Telekinesis mixin sees it and captures
+            double cx = origin.getX() + 0.5, cy = origin.getY() + 0.5, cz = origin.getZ() + 0.5;
+            for (ItemStack s : extraDrops) world.spawnEntity(new ItemEntity(world, cx, cy, cz, s));
 
-            totalXp += Math.max(0, xp);
+            long awarded = Math.max(0L, Math.round(xp * cfg.xpModifier));
+            if (awarded > 0) {
+                if (player != null) Leveling.addXp(player, SkillType.WOODCUTTING, awarded);
+                else awardOffline(awarded);
+            }
+
+            McRPG.getLogger().debug("Tree Feller felled {} of {} blocks for {} ({} XP)",
+                    broken, order.length, playerId, awarded);
         }
 
-        McRPG.getLogger().debug("Tree Feller felled {} blocks for {}",
-                ordered.size(), player.getName().getString());
-        return totalXp;
+        // The player left mid-felling: wait for their stored totals so the award lands on real data
+        private void awardOffline(long awarded) {
+            try (var ticket = McRPG.getStore().load(playerId, null)) {
+                ticket.whenReady().whenComplete((data, err) -> {
+                    if (err != null) {
+                        McRPG.getLogger().warning("Tree Feller could not award {} XP to {}: {}",
+                                awarded, playerId, err.getMessage());
+                        return;
+                    }
+                    Leveling.addXp(data, SkillType.WOODCUTTING, awarded);
+                });
+            }
+        }
+    }
+
+    /**
+     * Collects the tree starting at 'start' and starts felling it over the next ticks:
+     * - precomputes drops for Double Drops
+     * - breaks the block
+     * - damages the axe on logs
+     * - awards per-block XP (doubled if Double Drops procs) once the whole tree is down
+     * Returns false if there was nothing to fell, or the player is already felling a tree.
+     */
+    public static boolean fell(ServerPlayerEntity player, BlockPos start, int skillLevel, WoodcuttingConfig cfg) {
+        if (ACTIVE.containsKey(player.getUuid())) return false;
+
+        var world = player.getEntityWorld();
+        long[] order = collect(world, start);
+        if (order.length == 0) return false;
+
+        LongArrays.quickSort(order, (a, b) -> Integer.compare(BlockPos.unpackLongY(a), BlockPos.unpackLongY(b)));
+        claim(world, order);
+
+        Felling felling = new Felling(player, world, start, order, skillLevel, cfg);
+        ACTIVE.put(felling.playerId, felling);
+
+        // First slice right away, so small trees still come down on the tick they were chopped
+        felling.run();
+        if (felling.next < order.length)
+            felling.task = TickScheduler.scheduleRepeating("TreeFeller", 1L, 1L, felling);
+        return true;
+    }
+
+    public static int activeFellings() {
+        return ACTIVE.size();
+    }
+
+    private static void claim(ServerWorld world, long[] positions) {
+        LongOpenHashSet claimed = CLAIMED.computeIfAbsent(world, w -> new LongOpenHashSet());
+        for (long p : positions) claimed.add(p);
+    }
+
+    private static void release(ServerWorld world, long[] positions) {
+        LongOpenHashSet claimed = CLAIMED.get(world);
+        if (claimed == null) return;
+        for (long p : positions) claimed.remove(p);
+        if (claimed.isEmpty()) CLAIMED.remove(world);
+    }
+
+    /** Stack {@code stack} onto a matching entry in {@code into}, spilling into new stacks when full. */
+    private static void merge(List<ItemStack> into, ItemStack stack) {
+        ItemStack rest = stack.copy();
+        for (int i = 0; i < into.size() && !rest.isEmpty(); i++) {
+            ItemStack s = into.get(i);
+            if (s.getCount() >= s.getMaxCount() || !ItemStack.areItemsAndComponentsEqual(s, rest)) continue;
+            int moved = Math.min(rest.getCount(), s.getMaxCount() - s.getCount());
+            s.increment(moved);
+            rest.decrement(moved);
+        }
+        if (!rest.isEmpty()) into.add(rest);
     }
 
     // ---- drops helper (predict identical to the real drop) ----
@@ -113,106 +248,104 @@ public final class TreeFeller {
         }
     }
 
-    /** Collects the set of blocks Tree Feller would remove (no breaking). */
-    public static Set<BlockPos> collect(ServerWorld world, BlockPos startingPos) {
-        Set<BlockPos> out = new HashSet<>();
-
-        // We mirror the recursive shape, but drive it iteratively to avoid deep stacks.
-        ArrayDeque<BlockPos> futureCenters = new ArrayDeque<>();
-        LongOpenHashSet seen = new LongOpenHashSet(128);
-        boolean[] reachedThreshold = new boolean[] { false }; // mutable flag
+    /** Collects the packed positions Tree Feller would remove (no breaking), skipping blocks other fellings hold. */
+    public static long[] collect(ServerWorld world, BlockPos startingPos) {
+        Search search = new Search(world);
 
         // Kick off the first center as the starting block (mcMMO starts at the first broken block)
-        processTree(startingPos, world, out, futureCenters, seen, reachedThreshold);
+        search.processTree(startingPos.asLong());
 
-        while (!futureCenters.isEmpty() && !reachedThreshold[0]) {
-            BlockPos center = futureCenters.removeFirst();
-            processTree(center, world, out, futureCenters, seen, reachedThreshold);
+        while (!search.futureCenters.isEmpty() && !search.reachedThreshold) {
+            search.processTree(search.futureCenters.dequeueLong());
         }
-        return out;
+        return search.out.toLongArray();
     }
 
     // ---------------- core search (ported from mcMMO) ----------------
 
-    private static void processTree(BlockPos center,
-                                    ServerWorld world,
-                                    Set<BlockPos> treeFellerBlocks,
-                                    ArrayDeque<BlockPos> futureCenters,
-                                    LongOpenHashSet seen,
-                                    boolean[] reachedThreshold) {
-
-        // If there is a log above: trunk mode (flat cylinder at same Y)
-        boolean trunk = processTarget(center.up(), world, futureCenters, treeFellerBlocks, seen, reachedThreshold);
-
-        if (trunk) {
-            for (int[] d : DIRECTIONS_CYLINDER_R2_NO_CORNERS) {
-                if (reachedThreshold[0]) return;
-                BlockPos pos = center.add(d[0], 0, d[1]);
-                processTarget(pos, world, futureCenters, treeFellerBlocks, seen, reachedThreshold);
-            }
-            return;
+    private static final class Search {
+        final ServerWorld world;
+        final PlacedBlockTracker placed;
+        final LongOpenHashSet claimed;
+        final LongArrayList out = new LongArrayList();
+        final LongArrayFIFOQueue futureCenters = new LongArrayFIFOQueue();
+        final LongOpenHashSet seen = new LongOpenHashSet(128);
+        final BlockPos.Mutable probe = new BlockPos.Mutable();
+        boolean reachedThreshold;
+
+        Search(ServerWorld world) {
+            this.world = world;
+            this.placed = PlacedBlockTracker.get(world);
+            this.claimed = CLAIMED.get(world);
         }
 
-        // Branch/top mode:
-        // Cover DOWN (explicit)
-        if (!reachedThreshold[0]) {
-            processTarget(center.down(), world, futureCenters, treeFellerBlocks, seen, reachedThreshold);
-        }
+        void processTree(long center) {
+            int x = BlockPos.unpackLongX(center), y = BlockPos.unpackLongY(center), z = BlockPos.unpackLongZ(center);
+
+            // If there is a log above: trunk mode (flat cylinder at same Y)
+            boolean trunk = processTarget(x, y + 1, z);
 
-        // Search a cube: cylinder at Y-1, Y, Y+1
-        for (int dy = -1; dy <= 1 && !reachedThreshold[0]; dy++) {
-            for (int[] d : DIRECTIONS_CYLINDER_R2_NO_CORNERS) {
-                if (reachedThreshold[0]) return;
-                BlockPos pos = center.add(d[0], dy, d[1]);
-                processTarget(pos, world, futureCenters, treeFellerBlocks, seen, reachedThreshold);
+            if (trunk) {
+                for (int[] d : DIRECTIONS_CYLINDER_R2_NO_CORNERS) {
+                    if (reachedThreshold) return;
+                    processTarget(x + d[0], y, z + d[1]);
+                }
+                return;
             }
-        }
-    }
 
-    /**
-     * Try to add a block to the removal set and, if it's a log, also enqueue it as a future center.
-     * @return true iff the given block is a log not already present.
-     */
-    private static boolean processTarget(BlockPos pos,
-                                         ServerWorld world,
-                                         ArrayDeque<BlockPos> futureCenters,
-                                         Set<BlockPos> treeFellerBlocks,
-                                         LongOpenHashSet seen,
-                                         boolean[] reachedThreshold) {
+            // Branch/top mode:
+            // Cover DOWN (explicit)
+            if (!reachedThreshold) processTarget(x, y - 1, z);
 
-        long key = BlockPos.asLong(pos.getX(), pos.getY(), pos.getZ());
-        if (seen.contains(key)) return false;
+            // Search a cube: cylinder at Y-1, Y, Y+1
+            for (int dy = -1; dy <= 1 && !reachedThreshold; dy++) {
+                for (int[] d : DIRECTIONS_CYLINDER_R2_NO_CORNERS) {
+                    if (reachedThreshold) return;
+                    processTarget(x + d[0], y + dy, z + d[1]);
+                }
+            }
+        }
 
-        if (PlacedBlockTracker.get(world).isMarked(pos)) return false;
+        /**
+         * Try to add a block to the removal set and, if it's a log, also enqueue it as a future center.
+         * @return true iff the given block is a log not already present.
+         */
+        boolean processTarget(int x, int y, int z) {
+            long key = BlockPos.asLong(x, y, z);
+            if (seen.contains(key)) return false;
+            if (claimed != null && claimed.contains(key)) return false;
+
+            probe.set(x, y, z);
+            if (placed.isMarked(probe)) return false;
+
+            // Threshold check BEFORE expanding through leaves
+            if (out.size() > THRESHOLD) {
+                reachedThreshold = true;
+                return false;
+            }
 
-        // Threshold check BEFORE expanding through leaves
-        if (treeFellerBlocks.size() > THRESHOLD) {
-            reachedThreshold[0] = true;
-            return false;
-        }
+            BlockState state = world.getBlockState(probe);
 
-        BlockState state = world.getBlockState(pos);
+            if (isLog(state)) {
+                seen.add(key);
+                out.add(key);
+                futureCenters.enqueue(key);
+                return true;
+            }
 
-        if (isLog(state)) {
-            seen.add(key);
-            treeFellerBlocks.add(pos.toImmutable());
-            futureCenters.addLast(pos.toImmutable());
-            return true;
-        }
+            if (INCLUDE_NON_WOOD_PARTS && isTreeNonWood(state)) {
+                seen.add(key);
+                out.add(key);
+                return false;
+            }
 
-        if (INCLUDE_NON_WOOD_PARTS && isTreeNonWood(state)) {
-            seen.add(key);
-            treeFellerBlocks.add(pos.toImmutable());
             return false;
         }
-
-        return false;
     }
 
     private static boolean isLog(BlockState s) {
-        WoodcuttingConfig cfg = ConfigManager.getSkillConfig(SkillType.WOODCUTTING);
-        var blockName = Registries.BLOCK.getId(s.getBlock()).toString();
-        return cfg.getBlocks().containsKey(blockName);
+        // Anything Woodcutting gives XP for, ids and tags alike
+        return ConfigManager.blockXp(SkillType.WOODCUTTING, s.getBlock()) > 0;
     }
 
     private static boolean isTreeNonWood(BlockState s) {
@@ -1,14 +1,19 @@
 package com.github.beemerwt.mcrpg.command;
 
 import com.github.beemerwt.mcrpg.McRPG;
+import com.github.beemerwt.mcrpg.abilities.TreeFeller;
 import com.github.beemerwt.mcrpg.command.suggest.PlayerSuggester;
 import com.github.beemerwt.mcrpg.command.suggest.SkillSuggester;
 import com.github.beemerwt.mcrpg.data.Leveling;
 import com.github.beemerwt.mcrpg.data.SkillType;
+import com.github.beemerwt.mcrpg.data.SqlitePlayerStore;
 import com.github.beemerwt.mcrpg.managers.AbilityManager;
 import com.github.beemerwt.mcrpg.managers.ConfigManager;
 import com.github.beemerwt.mcrpg.permission.OpLevel;
+import com.github.beemerwt.mcrpg.permission.LuckPermissionsProvider;
 import com.github.beemerwt.mcrpg.permission.Permissions;
+import com.github.beemerwt.mcrpg.ui.XpBossbarManager;
+import com.github.beemerwt.mcrpg.util.TickScheduler;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
@@ -61,6 +66,9 @@ public final class AdminCommand {
                     }
                 })))
 
+            .then(literal("stats")
+                .executes(AdminCommand::execStats))
+
             .then(literal("resetcd")
                 .executes(ctx -> safe(ctx, () -> {
                     var player = ctx.getSource().getPlayer();
@@ -170,6 +178,39 @@ public final class AdminCommand {
         });
     }
 
+    private static int execStats(CommandContext<ServerCommandSource> ctx) {
+        return safe(ctx, () -> {
+            if (McRPG.getStore() instanceof SqlitePlayerStore sql) {
+                var w = sql.writerStats();
+                ok(ctx, "Player writer: " + w.queued() + " queued, " + w.offered() + " offered, "
+                    + w.coalesced() + " coalesced, " + w.rejected() + " rejected", false);
+                ok(ctx, "  " + w.batches() + " batches, " + w.rows() + " rows, " + w.failures() + " failures, "
+                    + "last " + w.lastBatchMicros() + " us, max " + w.maxBatchMicros() + " us", false);
+            }
+
+            ok(ctx, "Scheduler: " + TickScheduler.carriedOver() + " tasks carried over last tick", false);
+            ok(ctx, "Tree Feller: " + TreeFeller.activeFellings() + " fellings in progress", false);
+            for (var s : TickScheduler.stats()) {
+                ok(ctx, "  " + s.owner + ": " + s.runs() + " runs, " + s.totalMicros() + " us total, "
+                    + s.maxMicros() + " us max, " + s.failures() + " failures", false);
+            }
+
+            var b = XpBossbarManager.stats();
+            ok(ctx, "XP bars: " + b.shown() + " shown, " + b.pooled() + " pooled, " + b.barsCreated() + " created, "
+                + b.barsReused() + " reused, " + b.titlesBuilt() + " titles built", false);
+            ok(ctx, "  " + b.lastTickPackets() + " packets and " + b.lastTickRenders() + " renders last tick, "
+                + b.totalPackets() + " packets total", false);
+
+            if (Permissions.provider() instanceof LuckPermissionsProvider lp) {
+                var p = lp.stats();
+                ok(ctx, "LuckPerms cache: " + p.hits() + " hits, " + p.misses() + " misses, "
+                    + p.invalidations() + " invalidations, " + p.players() + " players, " + p.nodes() + " nodes", false);
+            }
+
+            return Command.SINGLE_SUCCESS;
+        });
+    }
+
     // ---------------- helpers ----------------
 
     public static void reload(CommandContext<ServerCommandSource> ctx) {
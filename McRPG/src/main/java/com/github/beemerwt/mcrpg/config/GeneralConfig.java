@@ -31,6 +31,12 @@ public class GeneralConfig extends Config {
     public boolean debug = false;
     public int autoSaveEverySeconds = 300; // 5 minutes
 
+    @JankComment("Time McRPG's scheduled tasks may use per tick, in microseconds. Anything left over runs next tick.")
+    public int schedulerTickBudgetMicros = 5000;
+
+    @JankComment("How often each player's look target is sampled for mob health bars, in ticks. Players are spread across the interval.")
+    public int healthbarSampleTicks = 2;
+
     @JankComment("""
         Permissions System for McRPG.
         Options:
@@ -15,13 +15,10 @@ import com.github.beemerwt.mcrpg.util.JanksonSerde;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Optional;
 
 @JanksonObject
 public class SkillConfig extends Config {
-    private static final Path ROOT = ConfigManager.SKILLS_DIR;
-
     @JankIgnore
     public final SkillType skillType;
 
@@ -47,35 +44,39 @@ public class SkillConfig extends Config {
         return Optional.empty();
     }
 
-    public static SkillConfig createOrLoadConfig(SkillType skillType) {
-        SkillConfig cfg = null;
-
-        var skillName = skillType.name().toLowerCase();
-        var skillFile = ROOT.resolve(skillName + ".json5");
-
-        switch (skillType) {
-            case ACROBATICS -> cfg = new AcrobaticsConfig();
+    /** Fresh, unloaded config for {@code skillType}, or null if the skill has no config class yet. */
+    public static SkillConfig newConfig(SkillType skillType) {
+        return switch (skillType) {
+            case ACROBATICS -> new AcrobaticsConfig();
 
             // Gathering skills
-            case MINING -> cfg = new MiningConfig();
-            case WOODCUTTING -> cfg = new WoodcuttingConfig();
-            case EXCAVATION -> cfg = new ExcavationConfig();
-            case HERBALISM -> cfg = new HerbalismConfig();
+            case MINING -> new MiningConfig();
+            case WOODCUTTING -> new WoodcuttingConfig();
+            case EXCAVATION -> new ExcavationConfig();
+            case HERBALISM -> new HerbalismConfig();
 
             // Artisan skills
-            // case FISHING -> cfg = new FishingConfig();
-            case SMELTING -> cfg = new SmeltingConfig();
-            case REPAIR -> cfg = new RepairConfig();
-            case SALVAGE -> cfg = new SalvageConfig();
-            // case ALCHEMY -> cfg = new AlchemyConfig();
+            // case FISHING -> new FishingConfig();
+            case SMELTING -> new SmeltingConfig();
+            case REPAIR -> new RepairConfig();
+            case SALVAGE -> new SalvageConfig();
+            // case ALCHEMY -> new AlchemyConfig();
 
             // Combat skills
-            case SWORDS -> cfg = new SwordsConfig();
-            case AXES -> cfg = new AxesConfig();
-            case UNARMED -> cfg = new UnarmedConfig();
-            //case ARCHERY -> cfg = new ArcheryConfig();
-        }
+            case SWORDS -> new SwordsConfig();
+            case AXES -> new AxesConfig();
+            case UNARMED -> new UnarmedConfig();
+            //case ARCHERY -> new ArcheryConfig();
+
+            default -> null;
+        };
+    }
+
+    public static SkillConfig createOrLoadConfig(SkillType skillType) {
+        var skillName = skillType.name().toLowerCase();
+        var skillFile = ConfigManager.SKILLS_DIR.resolve(skillName + ".json5");
 
+        SkillConfig cfg = newConfig(skillType);
         if (cfg == null) {
             McRPG.getLogger().error("No SkillConfig class for skill {}", skillType);
             return null;
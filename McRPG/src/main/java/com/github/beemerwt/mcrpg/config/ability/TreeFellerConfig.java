@@ -1,8 +1,11 @@
 package com.github.beemerwt.mcrpg.config.ability;
 
+import com.github.beemerwt.mcrpg.annotation.JankComment;
 import com.github.beemerwt.mcrpg.annotation.JanksonObject;
 import com.github.beemerwt.mcrpg.config.SuperAbilityConfig;
 
 @JanksonObject
 public class TreeFellerConfig extends SuperAbilityConfig {
-}
\ No newline at end of file
+    @JankComment("Time a felling may spend breaking blocks per tick, in microseconds. The rest of the tree falls on following ticks.")
+    public int tickBudgetMicros = 1000;
+}
@@ -1,7 +1,17 @@
 package com.github.beemerwt.mcrpg.data;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface DataTicket<T> extends AutoCloseable {
 
+    /** The data for this ticket. May be a placeholder until {@link #isReady()}. */
     T data();
+
+    /** True once {@link #data()} reflects what is persisted. */
+    boolean isReady();
+
+    /** Completes on the server thread once {@link #data()} is hydrated. */
+    CompletableFuture<T> whenReady();
+
     void close();
 }
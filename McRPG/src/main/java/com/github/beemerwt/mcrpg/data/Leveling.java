@@ -5,12 +5,7 @@ import com.github.beemerwt.mcrpg.config.GeneralConfig;
 import com.github.beemerwt.mcrpg.managers.ConfigManager;
 import com.github.beemerwt.mcrpg.ui.XpBossbarManager;
 import net.minecraft.block.Block;
-import net.minecraft.registry.Registries;
-import net.minecraft.registry.RegistryKeys;
-import net.minecraft.registry.entry.RegistryEntry;
-import net.minecraft.registry.tag.TagKey;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.NotNull;
 
 import static org.joml.Math.lerp;
@@ -107,6 +102,7 @@ public final class Leveling {
     public static LevelProgress getLevelProgress(PlayerData data, SkillType skill) {
         if (data == null || skill == null) return new LevelProgress(0, 0f);
         var cfg = ConfigManager.getGeneralConfig();
+        var table = ConfigManager.getXpTable();
 
         // Composite: weighted average of *continuous* levels
         if (SkillLinks.isComposite(skill)) {
@@ -116,7 +112,7 @@ public final class Leveling {
                 SkillType part = c.parts()[i];
                 double w = c.weights()[i];
                 long xp = getRawTotalXpLocal(data, canonical(part)); // each source bucket’s total XP
-                double Li = continuousLevelForTotalXp(xp, cfg);      // continuous level for that bucket
+                double Li = table.continuousLevelFor(xp);            // continuous level for that bucket
                 weighted += w * Li;
             }
             // clamp and split into integer level + fractional progress
@@ -129,7 +125,7 @@ public final class Leveling {
         // Normal / alias path: just one bucket
         SkillType s = canonical(skill);
         long total = getRawTotalXpLocal(data, s);
-        double cont = continuousLevelForTotalXp(total, cfg);
+        double cont = table.continuousLevelFor(total);
         int level = (int) Math.floor(cont);
         float pct = (float) (cont - level);
         return new LevelProgress(level, pct);
@@ -137,16 +133,41 @@ public final class Leveling {
 
     // --------------- Internals ----------------
 
+    /**
+     * Merge stored totals into a placeholder. Anything the placeholder gained while loading is
+     * added on top and marked dirty. Server thread only.
+     */
+    static void hydrate(PlayerData placeholder, PlayerData loaded) {
+        if (placeholder.hydrated) return;
+
+        EnumMap<SkillType, Long> buffered = new EnumMap<>(placeholder.xp);
+        placeholder.xp.clear();
+        placeholder.xp.putAll(loaded.xp);
+
+        for (var e : buffered.entrySet()) {
+            if (e.getValue() == 0L) continue;
+            long before = placeholder.xp.getOrDefault(e.getKey(), 0L);
+            placeholder.xp.put(e.getKey(), clampTotal(before + e.getValue()));
+            placeholder.markDirty(e.getKey());
+        }
+
+        if (placeholder.name == null) placeholder.name = loaded.name;
+        else if (!placeholder.name.equals(loaded.name)) placeholder.dirty = true;
+
+        placeholder.hydrated = true;
+    }
+
     private static void addXpBase(PlayerData p, SkillType skill, long amount) {
         if (amount == 0) return;
         SkillType s = canonical(skill);
 
         long before = p.xp.getOrDefault(s, 0L);
-        long after  = clampTotal(before + amount);
+        // A placeholder holds a signed delta; it is clamped once hydrate adds it to the stored total
+        long after  = p.hydrated ? clampTotal(before + amount) : before + amount;
         if (after == before) return;
 
         p.xp.put(s, after);
-        p.dirty = true;
+        p.markDirty(s);
     }
 
     private static void setLevelInternal(PlayerData p, SkillType skill, int level) {
@@ -160,7 +181,7 @@ public final class Leveling {
         long clamped = clampTotal(total);
         Long prev = p.xp.put(s, clamped);
         if (!Objects.equals(prev, clamped)) {
-            p.dirty = true;
+            p.markDirty(s);
         }
     }
 
@@ -182,30 +203,8 @@ public final class Leveling {
 
     // ------------- Curve Helpers --------------
 
-    private static boolean isLinear(GeneralConfig.XpCurve curve) {
-        // Preserve previous semantics: "linear" vs "quadratic" etc by base string
-        return curve != null && "linear".equalsIgnoreCase(curve.base);
-    }
-
-    private static long xpForLevel(int level, GeneralConfig.XpCurve curve) {
-        if (isLinear(curve)) {
-            // per-level requirement at this level
-            return curve.linearBase + (long) level * curve.multiplier;
-        }
-        // quadratic per-level requirement: a*L^2 + b*L + c
-        return curve.quadA * (long) level * (long) level + curve.quadB * (long) level + curve.quadC;
-    }
-
     public static long xpForLevel(int level) {
-        return xpForLevel(level, ConfigManager.getGeneralConfig().xpCurve);
-    }
-
-    private static double continuousLevelForTotalXp(long total, GeneralConfig cfg) {
-        var curve = cfg.xpCurve;
-        if (isLinear(curve)) {
-            return Math.min(levelFromLinearXP(total, curve.linearBase, curve.multiplier), cfg.maxLevel);
-        }
-        return Math.min(levelFromQuadraticXP(total, curve.quadA, curve.quadB, curve.quadC), cfg.maxLevel);
+        return XpTable.perLevel(level, ConfigManager.getGeneralConfig().xpCurve);
     }
 
     /**
@@ -214,20 +213,7 @@ public final class Leveling {
      * @return total XP required
      */
     public static long totalXpForLevel(int level) {
-        if (level <= 0) return 0L;
-
-        var curve = ConfigManager.getGeneralConfig().xpCurve;
-
-        if (isLinear(curve)) {
-            // Sum_{i=1..L} (base + i*multiplier) = L*base + multiplier * L*(L+1)/2
-            return (long) level * curve.linearBase
-                + curve.multiplier * (long) level * ((long) level + 1L) / 2L;
-        }
-
-        // Sum_{i=1..L} (a*i^2 + b*i + c)
-        long S1 = (long) level * ((long) level + 1L) / 2L;  // 1 + 2 + ... + L
-        long S2 = (long) level * ((long) level + 1L) * (2L * (long) level + 1L) / 6L; // 1^2 + 2^2 + ... + L^2
-        return curve.quadA * S2 + curve.quadB * S1 + curve.quadC * (long) level;
+        return ConfigManager.getXpTable().totalFor(level);
     }
 
     /**
@@ -236,16 +222,7 @@ public final class Leveling {
      * @return level (0..maxLevel)
      */
     public static int levelForTotalXp(long total, GeneralConfig cfg) {
-        var curve = cfg.xpCurve;
-
-        if (isLinear(curve)) {
-            double lvl = levelFromLinearXP(total, curve.linearBase, curve.multiplier);
-            return Math.min((int) Math.floor(lvl), cfg.maxLevel);
-        }
-
-        // Quadratic
-        double lvl = levelFromQuadraticXP(total, curve.quadA, curve.quadB, curve.quadC);
-        return Math.min((int) Math.floor(lvl), cfg.maxLevel);
+        return ConfigManager.getXpTable().levelFor(total);
     }
 
     private static int levelFromComposite(PlayerData p, @NotNull SkillLinks.Composite c) {
@@ -260,7 +237,7 @@ public final class Leveling {
     }
 
     private static long clampTotal(long v) {
-        long maxTotalXp = totalXpForLevel(ConfigManager.getGeneralConfig().maxLevel);
+        long maxTotalXp = ConfigManager.getXpTable().maxTotal();
         if (maxTotalXp <= 0) maxTotalXp = Long.MAX_VALUE;
         if (v < 0) return 0L;
         return Math.min(v, maxTotalXp);
@@ -287,102 +264,8 @@ public final class Leveling {
         return Math.round(lerp(aTicks, bTicks, scale));
     }
 
-    public static long resolveBlockXp(Map<String, Integer> blocks, Block block) {
-        var id = Registries.BLOCK.getId(block);
-
-        Integer direct = blocks.get(id.toString());
-        if (direct != null) return direct;
-
-        if (!blocks.isEmpty()) {
-            RegistryEntry<Block> entry = Registries.BLOCK.getEntry(block);
-            for (Map.Entry<String, Integer> e : blocks.entrySet()) {
-                String key = e.getKey();
-                if (!key.startsWith("#")) continue;
-                Identifier tagId = Identifier.tryParse(key.substring(1));
-                if (tagId == null) continue;
-                TagKey<Block> tagKey = TagKey.of(RegistryKeys.BLOCK, tagId);
-                if (entry.isIn(tagKey)) return e.getValue();
-            }
-        }
-
-        return 0;
-    }
-
-    private static double levelFromLinearXP(double total, double base, double mult) {
-        total = Math.max(0.0, total);
-        if (mult == 0.0) {
-            // C(L) = base*L
-            return base > 0 ? (total / base) : 0.0;
-        }
-
-        // C(L) = base*L + (mult/2)*(L^2 + L)
-        // Solve a L^2 + d L - total = 0, d = base + mult/2
-        double d = base + (mult * 0.5);
-        double radicand = d * d + 2.0 * mult * Math.max(0L, total);
-        if (radicand < 0 && radicand > -1e-9) radicand = 0;
-
-        return (-d + Math.sqrt(radicand)) / mult; // positive root
-    }
-
-    // Here's some comedic relief
-    private static double levelFromQuadraticXP(double total, double a, double b, double c) {
-        total = Math.max(0.0, total);
-
-        // Degenerate cases
-        if (Math.abs(a) < 1e-12) {
-            // Falls back to linear per-level: cost = b*i + c
-            // C(L) = (b/2)L^2 + (b/2 + c)L
-            double A = b / 2.0;
-            double B = (b / 2.0) + c;
-            double C = -total;
-            if (Math.abs(A) < 1e-12) {
-                // C(L) = B L
-                return B > 0 ? (total / B) : 0.0;
-            }
-            double disc = B * B - 4.0 * A * C;
-            if (disc < 0 && disc > -1e-9) disc = 0;
-            return (-B + Math.sqrt(Math.max(0.0, disc))) / (2.0 * A);
-        }
-
-        // Cubic coefficients: α L^3 + β L^2 + γ L + δ = 0
-        double alpha = a / 3.0;
-        double beta  = (a + b) / 2.0;
-        double gamma = a / 6.0 + b / 2.0 + c;
-        double delta = -total;
-
-        // Depress the cubic: L = y - beta/(3*alpha)
-        double inv3alpha = 1.0 / (3.0 * alpha);
-        double shift = beta * inv3alpha;
-
-        // y^3 + p y + q = 0
-        double p = (3.0 * alpha * gamma - beta * beta) / (3.0 * alpha * alpha);
-        double q = (27.0 * alpha * alpha * delta - 9.0 * alpha * beta * gamma + 2.0 * beta * beta * beta)
-            / (27.0 * alpha * alpha * alpha);
-
-        double halfQ = q * 0.5;
-        double thirdP = p / 3.0;
-        double disc = halfQ * halfQ + thirdP * thirdP * thirdP; // Δ
-
-        double y;
-        if (disc >= 0) {
-            // One real root
-            double sqrtD = Math.sqrt(disc);
-            double u = Math.cbrt(-halfQ + sqrtD);
-            double v = Math.cbrt(-halfQ - sqrtD);
-            y = u + v;
-        } else {
-            // Three real roots, pick the largest (monotone cumulative implies this is the physical one)
-            double r = Math.sqrt(-thirdP);
-            double cosArg = -halfQ / (r * r * r);
-            // Clamp numerical drift
-            cosArg = Math.max(-1.0, Math.min(1.0, cosArg));
-            double theta = Math.acos(cosArg);
-            // Roots: 2r cos((θ + 2kπ)/3), k = 0,1,2. Largest is k = 0.
-            y = 2.0 * r * Math.cos(theta / 3.0);
-        }
-
-        double L = y - shift;
-        if (L < 0 && L > -1e-9) L = 0; // clean tiny negative
-        return Math.max(0.0, L);
+    /** Base XP {@code skill} gives for {@code block}, from the table compiled on config and tag (re)load. */
+    public static long resolveBlockXp(SkillType skill, Block block) {
+        return ConfigManager.blockXp(skill, block);
     }
 }
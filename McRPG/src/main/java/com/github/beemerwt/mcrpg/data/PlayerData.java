@@ -16,6 +16,12 @@ public final class PlayerData {
 
     volatile boolean dirty = false;
 
+    // Bit per SkillType ordinal; only these skills are written on the next snapshot
+    int dirtySkills = 0;
+
+    // False while this is a placeholder whose xp holds gains buffered until the stored totals arrive
+    volatile boolean hydrated = true;
+
     public PlayerData(UUID id, @Nullable String name, Map<SkillType, Long> xp) {
         this.id = Objects.requireNonNull(id, "PlayerData uuid");
         this.name = name;
@@ -30,16 +36,31 @@ public final class PlayerData {
         this(id, null, new EnumMap<>(SkillType.class));
     }
 
+    static PlayerData placeholder(UUID id, @Nullable String name) {
+        PlayerData pd = new PlayerData(id, name);
+        pd.hydrated = false;
+        return pd;
+    }
+
+    public boolean isHydrated() {
+        return hydrated;
+    }
+
     void setName(String name) {
-        if (!this.name.equals(name)) {
+        if (!Objects.equals(this.name, name)) {
             this.name = name;
             this.dirty = true;
         }
     }
 
     public String getName() {
-        if (name.isEmpty()) return id.toString();
+        if (name == null || name.isEmpty()) return id.toString();
         return name;
     }
+
+    void markDirty(SkillType skill) {
+        dirtySkills |= 1 << skill.ordinal();
+        dirty = true;
+    }
 }
 
@@ -0,0 +1,70 @@
+package com.github.beemerwt.mcrpg.data;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable copy of the parts of a PlayerData that changed since the last snapshot.
+ * Captured on the server thread and handed to the writer thread; never touches live state.
+ *
+ * Values are absolute skill totals (not increments), so replaying or coalescing them is idempotent.
+ */
+final class PlayerSnapshot {
+    private static final SkillType[] SKILLS = SkillType.values();
+
+    private final UUID id;
+    private final @Nullable String name;
+    private final int skillMask;
+    private final long[] xp; // indexed by SkillType ordinal, valid only where skillMask has the bit
+
+    private PlayerSnapshot(UUID id, @Nullable String name, int skillMask, long[] xp) {
+        this.id = id;
+        this.name = name;
+        this.skillMask = skillMask;
+        this.xp = xp;
+    }
+
+    /** Copy the dirty skills of {@code pd}. Server thread only; the caller clears the dirty state once queued. */
+    static PlayerSnapshot capture(PlayerData pd) {
+        int mask = pd.dirtySkills;
+        long[] xp = new long[SKILLS.length];
+        for (int i = 0; i < SKILLS.length; i++) {
+            if ((mask & (1 << i)) == 0) continue;
+            xp[i] = pd.xp.getOrDefault(SKILLS[i], 0L);
+        }
+
+        return new PlayerSnapshot(pd.id, pd.name, mask, xp);
+    }
+
+    /** A snapshot that only upserts the players row. */
+    static PlayerSnapshot nameOnly(UUID id, @Nullable String name) {
+        return new PlayerSnapshot(id, name, 0, new long[SKILLS.length]);
+    }
+
+    /** Coalesce: skills from {@code newer} win, everything else is kept from this snapshot. */
+    PlayerSnapshot mergedWith(PlayerSnapshot newer) {
+        long[] merged = xp.clone();
+        for (int i = 0; i < SKILLS.length; i++) {
+            if ((newer.skillMask & (1 << i)) != 0) merged[i] = newer.xp[i];
+        }
+
+        String mergedName = newer.name != null ? newer.name : name;
+        return new PlayerSnapshot(id, mergedName, skillMask | newer.skillMask, merged);
+    }
+
+    /** Overlay the not-yet-committed values onto data freshly read from the database. */
+    void applyTo(PlayerData pd) {
+        if (name != null && !Objects.equals(pd.name, name)) pd.name = name;
+        for (int i = 0; i < SKILLS.length; i++) {
+            if ((skillMask & (1 << i)) != 0) pd.xp.put(SKILLS[i], xp[i]);
+        }
+    }
+
+    UUID id() { return id; }
+    @Nullable String name() { return name; }
+    int skillCount() { return Integer.bitCount(skillMask); }
+    boolean hasSkill(SkillType skill) { return (skillMask & (1 << skill.ordinal())) != 0; }
+    long xp(SkillType skill) { return xp[skill.ordinal()]; }
+}
@@ -14,6 +14,12 @@ public interface PlayerStore {
     @NotNull PlayerData get(ServerPlayerEntity player);
     @NotNull PlayerData get(UUID id);
 
+    /** Start an off-thread load; the ticket's data is a placeholder until it is ready. */
+    DataTicket<PlayerData> load(UUID id, @Nullable String name);
+
+    /** Server-thread housekeeping, e.g. merging finished loads. Called every tick. */
+    void tick();
+
     Optional<PlayerData> lookup(String name);
 
     List<PlayerData> list();
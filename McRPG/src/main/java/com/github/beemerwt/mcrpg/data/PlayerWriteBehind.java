@@ -0,0 +1,237 @@
+package com.github.beemerwt.mcrpg.data;
+
+import com.github.beemerwt.mcrpg.McRPG;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind engine for player data.
+ * - The server thread only offers immutable PlayerSnapshots; it never touches JDBC.
+ * - Snapshots for the same player coalesce while queued, so the queue is bounded by players, not by XP events.
+ * - A dedicated writer thread drains the queue in group-committed transactions on its own connection.
+ * - A snapshot stays visible (see {@link #pending(UUID)}) until its transaction commits, so reloads never read stale rows.
+ */
+public final class PlayerWriteBehind implements AutoCloseable {
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long RETRY_PARK_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000L;
+
+    public record Stats(int queued, long offered, long coalesced, long rejected,
+                        long batches, long rows, long failures, long lastBatchMicros, long maxBatchMicros) {}
+
+    private final Connection conn;
+    private final int capacity;
+    private final ConcurrentHashMap<UUID, PlayerSnapshot> pending = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastBatchMicros = 0L;
+    private volatile long maxBatchMicros = 0L;
+
+    PlayerWriteBehind(Connection conn, int capacity) {
+        this.conn = conn;
+        this.capacity = Math.max(1, capacity);
+        this.thread = new Thread(this::run, "McRPG-PlayerWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // ---------- Producer side (any thread) ----------
+
+    /**
+     * Queue a snapshot for writing, merging it into any snapshot already queued for that player.
+     * @return false if the queue is full; the caller keeps its data dirty and retries later.
+     */
+    boolean offer(PlayerSnapshot snap) {
+        UUID id = snap.id();
+        if (!pending.containsKey(id) && pending.size() >= capacity) {
+            rejected.increment();
+            return false;
+        }
+
+        enqueue(snap);
+        return true;
+    }
+
+    /** Queue a snapshot regardless of capacity. Only for shutdown, where nothing may be dropped. */
+    void enqueue(PlayerSnapshot snap) {
+        offered.increment();
+        pending.merge(snap.id(), snap, (queued, newer) -> {
+            coalesced.increment();
+            return queued.mergedWith(newer);
+        });
+
+        LockSupport.unpark(thread);
+    }
+
+    /** The queued or in-flight snapshot for a player, or null if everything is committed. */
+    @Nullable PlayerSnapshot pending(UUID id) {
+        return pending.get(id);
+    }
+
+    public Stats stats() {
+        return new Stats(pending.size(), offered.sum(), coalesced.sum(), rejected.sum(),
+            batches.sum(), rows.sum(), failures.sum(), lastBatchMicros, maxBatchMicros);
+    }
+
+    // ---------- Writer thread ----------
+
+    private void run() {
+        while (running) {
+            if (pending.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            if (!flushBatch()) LockSupport.parkNanos(this, RETRY_PARK_NANOS);
+        }
+    }
+
+    /** Write up to MAX_BATCH queued snapshots in one transaction. Returns false on failure. */
+    private boolean flushBatch() {
+        List<PlayerSnapshot> batch = new ArrayList<>(Math.min(MAX_BATCH, pending.size()));
+        for (PlayerSnapshot s : pending.values()) {
+            batch.add(s);
+            if (batch.size() >= MAX_BATCH) break;
+        }
+
+        if (batch.isEmpty()) return true;
+
+        long start = System.nanoTime();
+        try {
+            int written = write(batch);
+            rows.add(written);
+        } catch (SQLException e) {
+            failures.increment();
+            McRPG.getLogger().error(e, "Failed to write {} player snapshots; will retry", batch.size());
+            return false;
+        }
+
+        // Only drop what we wrote; a snapshot coalesced in meanwhile is a new object and stays queued.
+        for (PlayerSnapshot s : batch) pending.remove(s.id(), s);
+
+        long micros = (System.nanoTime() - start) / 1_000L;
+        lastBatchMicros = micros;
+        if (micros > maxBatchMicros) maxBatchMicros = micros;
+        batches.increment();
+        return true;
+    }
+
+    private int write(List<PlayerSnapshot> batch) throws SQLException {
+        int written = 0;
+        conn.setAutoCommit(false);
+        try (PreparedStatement upPlayers = conn.prepareStatement(
+            "INSERT INTO players(uuid, name, created_at, updated_at) VALUES(?,?,?,?) " +
+            "ON CONFLICT(uuid) DO UPDATE SET " +
+            "  name = COALESCE(excluded.name, players.name), " +
+            "  updated_at=excluded.updated_at"
+        );
+             PreparedStatement upSkill = conn.prepareStatement(
+                 "INSERT INTO player_skills(uuid, skill, xp) VALUES(?,?,?) " +
+                 "ON CONFLICT(uuid, skill) DO UPDATE SET xp=excluded.xp"
+             )
+        ) {
+            long now = Instant.now().getEpochSecond();
+            for (PlayerSnapshot s : batch) {
+                String id = s.id().toString();
+                upPlayers.setString(1, id);
+                if (s.name() == null || s.name().isBlank())
+                    upPlayers.setNull(2, Types.VARCHAR);
+                else
+                    upPlayers.setString(2, s.name());
+                upPlayers.setLong(3, now);
+                upPlayers.setLong(4, now);
+                upPlayers.addBatch();
+                written++;
+
+                if (s.skillCount() == 0) continue;
+                for (SkillType skill : SkillType.values()) {
+                    if (!s.hasSkill(skill)) continue;
+                    upSkill.setString(1, id);
+                    upSkill.setString(2, skill.name());
+                    upSkill.setLong(3, s.xp(skill));
+                    upSkill.addBatch();
+                    written++;
+                }
+            }
+
+            // Parent rows first so the player_skills foreign key always resolves
+            upPlayers.executeBatch();
+            upSkill.executeBatch();
+            conn.commit();
+            return written;
+        } catch (SQLException sqle) {
+            conn.rollback();
+            throw sqle;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ---------- Shutdown ----------
+
+    /**
+     * Stop the writer and drain everything still queued. Blocks the caller; only used on server stop.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+
+        // The writer exits after its current batch; a slow commit only delays shutdown, it must not drop data
+        long waited = 0L;
+        while (thread.isAlive()) {
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (thread.isAlive()) {
+                waited += SHUTDOWN_TIMEOUT_MS;
+                McRPG.getLogger().warning("Player writer still busy after {} ms; waiting ({} players queued)",
+                        waited, pending.size());
+            }
+        }
+
+        if (thread.isAlive()) {
+            // Interrupted while it still owns the connection; say exactly what is lost
+            logUnsaved();
+            return;
+        }
+
+        // The writer has exited; finish the drain on this thread.
+        int failed = 0;
+        while (!pending.isEmpty() && failed < 3) {
+            if (!flushBatch()) failed++;
+        }
+
+        logUnsaved();
+        try { conn.close(); } catch (SQLException ignored) {}
+    }
+
+    private void logUnsaved() {
+        for (UUID id : pending.keySet()) {
+            McRPG.getLogger().error("Unsaved McRPG data for {} could not be written on shutdown", id);
+        }
+    }
+}
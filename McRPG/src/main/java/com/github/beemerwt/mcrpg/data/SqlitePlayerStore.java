@@ -10,14 +10,22 @@ import java.io.Closeable;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.*;
-import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SQLite-backed PlayerStore with RAII-style borrows.
  * - Online players live in cache (hydrated). Borrow close() does not evict.
  * - Offline players are hydrated per-borrow; close() saves if dirty and evicts.
+ * - Loads never block the caller: a placeholder is cached immediately, buffers XP gains, and is
+ *   hydrated on the server thread once the loader thread has read the stored totals.
+ * - Writes never happen on the caller's thread: dirty data is snapshotted and handed to a
+ *   {@link PlayerWriteBehind} that commits on its own connection.
  *
  * Tables:
  *   players(uuid TEXT PRIMARY KEY, name TEXT NOT NULL, created_at INTEGER, updated_at INTEGER)
@@ -26,17 +34,42 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public final class SqlitePlayerStore implements PlayerStore, Closeable {
     private final Path dbPath = FabricLoader.getInstance().getConfigDir().resolve("McRPG").resolve("players.db");
+    private static final int WRITE_QUEUE_CAPACITY = 4096;
+
     private final Connection conn;
+    private final PlayerWriteBehind writer;
+
+    // Loader thread and its own read connection
+    private final Connection loadConn;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "McRPG-PlayerLoader");
+        t.setDaemon(true);
+        return t;
+    });
 
-    // Hot cache for ONLINE players only (hydrated)
+    // Hot cache for ONLINE players only (hydrated or placeholder)
     private final Map<UUID, PlayerData> cache = new ConcurrentHashMap<>();
 
+    // Placeholders still waiting on the loader, and loads that finished but are not merged yet
+    private final Map<UUID, CompletableFuture<PlayerData>> loading = new ConcurrentHashMap<>();
+    private final Queue<Loaded> loaded = new ConcurrentLinkedQueue<>();
+
+    private record Loaded(PlayerData placeholder, @Nullable PlayerData stored) {}
+
+    private record Ticket(PlayerData data, CompletableFuture<PlayerData> whenReady) implements DataTicket<PlayerData> {
+        @Override public boolean isReady() { return data.hydrated; }
+
+        // Tickets do not own the cache entry; saveAll evicts offline players once they are clean.
+        @Override public void close() {}
+    }
+
     public SqlitePlayerStore() {
         try {
             Files.createDirectories(dbPath.getParent());
-            this.conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
-            initPragmas(conn);
+            this.conn = openConnection(dbPath);
             createSchema(conn);
+            this.loadConn = openConnection(dbPath);
+            this.writer = new PlayerWriteBehind(openConnection(dbPath), WRITE_QUEUE_CAPACITY);
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize SqlitePlayerStore", e);
         }
@@ -44,10 +77,17 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
 
     // ---------- Schema / setup ----------
 
+    private static Connection openConnection(Path dbPath) throws SQLException {
+        Connection c = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+        initPragmas(c);
+        return c;
+    }
+
     private static void initPragmas(Connection c) throws SQLException {
         try (Statement s = c.createStatement()) {
             s.execute("PRAGMA journal_mode=WAL");
             s.execute("PRAGMA synchronous=NORMAL");
+            s.execute("PRAGMA busy_timeout=5000"); // reader and writer connections share the file
             s.execute("PRAGMA foreign_keys=ON");
             s.execute("PRAGMA temp_store=MEMORY");
             s.execute("PRAGMA mmap_size=30000000000"); // 30GB hint; SQLite caps internally
@@ -80,13 +120,75 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
 
     // ---------- PlayerStore high-level API ----------
 
+    /**
+     * Never blocks. Returns the cached data, or a placeholder whose load has just been started.
+     */
     @Override
     public @NotNull PlayerData get(UUID id) {
-        return cache.computeIfAbsent(id, key -> {
-            ensurePlayerRow(key);                 // creates row if missing; does NOT set a placeholder name
-            PlayerData pd = loadOneFromDb(key);   // may return null only on hard failure
-            return (pd != null) ? pd : new PlayerData(key); // name stays nullable
+        PlayerData pd = cache.get(id);
+        if (pd != null) return pd;
+        return load(id, null).data();
+    }
+
+    /**
+     * Start loading a player off-thread (called as early as the connection INIT phase).
+     * The returned data is usable at once; gains made before hydration are merged in afterwards.
+     */
+    @Override
+    public DataTicket<PlayerData> load(UUID id, @Nullable String name) {
+        PlayerData pd = cache.computeIfAbsent(id, key -> {
+            PlayerData placeholder = PlayerData.placeholder(key, name);
+            loading.put(key, new CompletableFuture<>());
+            loader.execute(() -> {
+                PlayerData stored = null;
+                try {
+                    stored = loadOneFromDb(loadConn, key);
+                } catch (Exception e) {
+                    McRPG.getLogger().error(e, "Player loader failed for {}", key);
+                }
+                loaded.add(new Loaded(placeholder, stored));
+            });
+            return placeholder;
         });
+
+        CompletableFuture<PlayerData> ready = loading.get(id);
+        return new Ticket(pd, ready != null ? ready : CompletableFuture.completedFuture(pd));
+    }
+
+    /** Merge finished loads into their placeholders. Server thread, once per tick. */
+    @Override
+    public void tick() {
+        Loaded l;
+        while ((l = loaded.poll()) != null) {
+            finishHydration(l.placeholder(), l.stored());
+        }
+    }
+
+    private void finishHydration(PlayerData placeholder, @Nullable PlayerData stored) {
+        var ready = loading.remove(placeholder.id);
+        if (placeholder.hydrated) return; // already merged by a blocking lookup
+
+        if (stored == null) {
+            // Hard failure: saving the placeholder would overwrite the stored totals, so drop it
+            // and let the next get() retry the load.
+            McRPG.getLogger().error("Could not load McRPG data for {}; will retry", placeholder.id);
+            cache.remove(placeholder.id, placeholder);
+            if (ready != null) ready.completeExceptionally(new IllegalStateException("Load failed for " + placeholder.id));
+            return;
+        }
+
+        Leveling.hydrate(placeholder, stored);
+        if (ready != null) ready.complete(placeholder);
+    }
+
+    /**
+     * Blocking variant for command paths that already query the DB on the calling thread.
+     * Empty if the load failed: the placeholder has then been dropped from the cache and must not be handed out.
+     */
+    private Optional<PlayerData> getHydrated(UUID id) {
+        PlayerData pd = get(id);
+        if (!pd.hydrated) finishHydration(pd, loadOneFromDb(conn, id));
+        return pd.hydrated ? Optional.of(pd) : Optional.empty();
     }
 
     @Override
@@ -114,7 +216,7 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     UUID id = UUID.fromString(rs.getString(1));
-                    return Optional.of(get(id)); // hydrates cache & skills
+                    return getHydrated(id); // hydrates cache & skills
                 }
             }
         } catch (SQLException e) {
@@ -176,97 +278,50 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
         return new ArrayList<>(cache.values());
     }
 
+    /**
+     * Snapshot every dirty cached player and hand the snapshots to the writer thread.
+     * Runs on the server thread; never touches JDBC.
+     */
     @Override
     public void saveAll() {
-        try {
-            conn.setAutoCommit(false);
-            try (PreparedStatement upPlayers = conn.prepareStatement(
-                "INSERT INTO players(uuid, name, created_at, updated_at) VALUES(?,?,?,?) " +
-                "ON CONFLICT(uuid) DO UPDATE SET name=excluded.name, updated_at=excluded.updated_at"
-            );
-             PreparedStatement upSkill = conn.prepareStatement(
-                 "INSERT INTO player_skills(uuid, skill, xp) VALUES(?,?,?) " +
-                 "ON CONFLICT(uuid, skill) DO UPDATE SET xp=excluded.xp"
-             )
-            ) {
-                long now = epochSeconds();
-                for (PlayerData pd : cache.values()) {
-                    if (!pd.dirty) continue;
-                    upPlayers.setString(1, pd.id.toString());
-                    upPlayers.setString(2, pd.getName());
-                    upPlayers.setLong(3, now);
-                    upPlayers.setLong(4, now);
-                    upPlayers.addBatch();
-
-                    for (var e : pd.xp.entrySet()) {
-                        upSkill.setString(1, pd.id.toString());
-                        upSkill.setString(2, e.getKey().name());
-                        upSkill.setLong(3, e.getValue());
-                        upSkill.addBatch();
-                    }
-                    pd.dirty = false;
-                }
-                upPlayers.executeBatch();
-                upSkill.executeBatch();
-                conn.commit();
-            } catch (SQLException sqle) {
-                conn.rollback();
-                throw sqle;
-            } finally {
-                conn.setAutoCommit(true);
-            }
-        } catch (SQLException e) {
-            McRPG.getLogger().error(e, "Failed to saveAll players");
+        int queued = 0;
+        for (PlayerData pd : cache.values()) {
+            // A placeholder's xp are increments, not totals; it is saved after hydration
+            if (pd.hydrated && pd.dirty && enqueue(pd)) queued++;
         }
 
-        // Cache eviction of offline players
+        var stats = writer.stats();
+        McRPG.getLogger().debug("Queued {} players for saving ({} pending, {} rejected, last batch {} us)",
+            queued, stats.queued(), stats.rejected(), stats.lastBatchMicros());
+
+        // Cache eviction of offline players; anything the writer rejected stays until the next pass
         var pm = McRPG.getServer().getPlayerManager();
-        cache.entrySet().removeIf(e -> pm.getPlayer(e.getKey()) == null);
+        cache.entrySet().removeIf(e -> pm.getPlayer(e.getKey()) == null
+            && e.getValue().hydrated && !e.getValue().dirty);
     }
 
-    // ---------- Low-level store ops ----------
-
     @Override
     public void save(PlayerData pd) {
-        try {
-            conn.setAutoCommit(false);
-            long now = epochSeconds();
-            try (PreparedStatement upPlayer = conn.prepareStatement(
-                "INSERT INTO players(uuid, name, created_at, updated_at) VALUES(?,?,?,?) " +
-                "ON CONFLICT(uuid) DO UPDATE SET name=excluded.name, updated_at=excluded.updated_at"
-            );
-                 PreparedStatement upSkill = conn.prepareStatement(
-                     "INSERT INTO player_skills(uuid, skill, xp) VALUES(?,?,?) " +
-                     "ON CONFLICT(uuid, skill) DO UPDATE SET xp=excluded.xp"
-                 )
-            ) {
-                upPlayer.setString(1, pd.id.toString());
-                upPlayer.setString(2, pd.getName());
-                upPlayer.setLong(3, now);
-                upPlayer.setLong(4, now);
-                upPlayer.executeUpdate();
-
-                for (var e : pd.xp.entrySet()) {
-                    upSkill.setString(1, pd.id.toString());
-                    upSkill.setString(2, e.getKey().name());
-                    upSkill.setLong(3, e.getValue());
-                    upSkill.addBatch();
-                }
-                upSkill.executeBatch();
-                conn.commit();
-                pd.dirty = false;
-            } catch (SQLException sqle) {
-                conn.rollback();
-                throw sqle;
-            } finally {
-                conn.setAutoCommit(true);
-            }
-        } catch (SQLException e) {
-            // log if available
+        if (pd.hydrated && !enqueue(pd)) {
+            McRPG.getLogger().warning("Player write queue is full; {} stays dirty until the next save pass", pd.id);
         }
     }
 
-    private PlayerData loadOneFromDb(UUID id) {
+    public PlayerWriteBehind.Stats writerStats() {
+        return writer.stats();
+    }
+
+    private boolean enqueue(PlayerData pd) {
+        if (!writer.offer(PlayerSnapshot.capture(pd))) return false;
+        pd.dirtySkills = 0;
+        pd.dirty = false;
+        return true;
+    }
+
+    private PlayerData loadOneFromDb(Connection conn, UUID id) {
+        // Grab uncommitted writes BEFORE reading: if the writer commits in between, the DB has them instead
+        PlayerSnapshot unsaved = writer.pending(id);
+
         // Load base player row first
         String name = null;
         try (PreparedStatement ps = conn.prepareStatement(
@@ -303,6 +358,7 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
             McRPG.getLogger().error(e, "Failed to load skills for player {}", id);
         }
 
+        if (unsaved != null) unsaved.applyTo(pd);
         pd.dirty = false;
         return pd;
     }
@@ -310,42 +366,41 @@ public final class SqlitePlayerStore implements PlayerStore, Closeable {
     /**
      * Ensure a players row exists. If absent, insert with given name or UUID string.
      * Update updated_at; update name if provided and different.
+     * The upsert is queued for the writer thread.
      */
     @Override
     public void ensurePlayerRow(UUID id, @Nullable String name) {
-        long now = epochSeconds();
-        try (PreparedStatement ps = conn.prepareStatement(
-            "INSERT INTO players(uuid, name, created_at, updated_at) VALUES(?,?,?,?) " +
-            "ON CONFLICT(uuid) DO UPDATE SET " +
-            "  name = COALESCE(excluded.name, players.name), " +
-            "  updated_at=excluded.updated_at"
-        )) {
-            ps.setString(1, id.toString());
-            if (name == null || name.isBlank())
-                ps.setNull(2, Types.VARCHAR);
-            else
-                ps.setString(2, name);
-            ps.setLong(3, now);
-            ps.setLong(4, now);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            // log
-            McRPG.getLogger().error(e, "Failed to ensure player row for {}", id);
+        if (!writer.offer(PlayerSnapshot.nameOnly(id, name))) {
+            McRPG.getLogger().warning("Player write queue is full; dropped player row update for {} ({})", id, name);
         }
     }
 
-    private void ensurePlayerRow(UUID id) {
-        ensurePlayerRow(id, null);
-    }
-
     // ---------- Utilities ----------
 
-    private static long epochSeconds() {
-        return Instant.now().getEpochSecond();
-    }
-
+    /**
+     * Flush everything to disk and release both connections. Blocks until the writer drains.
+     */
     @Override
     public void close() {
+        // Let in-flight loads land so their buffered gains are merged and saved too
+        loader.shutdown();
+        try {
+            if (!loader.awaitTermination(10, TimeUnit.SECONDS))
+                McRPG.getLogger().warning("Player loader did not finish before shutdown");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        tick();
+
+        for (PlayerData pd : cache.values()) {
+            if (!pd.hydrated || !pd.dirty) continue;
+            writer.enqueue(PlayerSnapshot.capture(pd));
+            pd.dirtySkills = 0;
+            pd.dirty = false;
+        }
+
+        writer.close();
+        try { loadConn.close(); } catch (SQLException ignored) {}
         try { if (conn != null) conn.close(); } catch (SQLException ignored) {}
     }
 }
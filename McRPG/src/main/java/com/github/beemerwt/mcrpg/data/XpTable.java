@@ -0,0 +1,106 @@
+package com.github.beemerwt.mcrpg.data;
+
+import com.github.beemerwt.mcrpg.config.GeneralConfig;
+
+/**
+ * The configured XP curve compiled into a cumulative table, where {@code total[L]} is the XP needed to reach level L.
+ * Entries come from the same closed forms Leveling always used, so they match them exactly;
+ * level lookups become a binary search instead of a root solve.
+ * Immutable; rebuilt by ConfigManager whenever the general config loads.
+ */
+public final class XpTable {
+    private final GeneralConfig.XpCurve curve;
+    private final int maxLevel;
+    private final long[] total; // levels 0..maxLevel+1
+
+    private XpTable(GeneralConfig.XpCurve curve, int maxLevel, long[] total) {
+        this.curve = curve;
+        this.maxLevel = maxLevel;
+        this.total = total;
+    }
+
+    public static XpTable compile(GeneralConfig cfg) {
+        // Copy the curve so later edits to the live config can't desync levels past the table
+        GeneralConfig.XpCurve curve = new GeneralConfig.XpCurve();
+        curve.base = cfg.xpCurve.base;
+        curve.linearBase = cfg.xpCurve.linearBase;
+        curve.multiplier = cfg.xpCurve.multiplier;
+        curve.quadA = cfg.xpCurve.quadA;
+        curve.quadB = cfg.xpCurve.quadB;
+        curve.quadC = cfg.xpCurve.quadC;
+
+        int maxLevel = Math.max(0, cfg.maxLevel);
+        long[] total = new long[maxLevel + 2];
+        for (int l = 1; l < total.length; l++) total[l] = cumulative(l, curve);
+
+        return new XpTable(curve, maxLevel, total);
+    }
+
+    public int maxLevel() {
+        return maxLevel;
+    }
+
+    /** Total XP required to reach {@code level} from level 0. */
+    public long totalFor(int level) {
+        if (level <= 0) return 0L;
+        if (level < total.length) return total[level];
+        return cumulative(level, curve);
+    }
+
+    /** Highest level (0..maxLevel) whose requirement is met by {@code xp}. */
+    public int levelFor(long xp) {
+        if (xp <= 0L) return 0;
+
+        // Last index in [0, maxLevel] with total[i] <= xp
+        int lo = 0, hi = maxLevel;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (total[mid] <= xp) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /** Level plus the fraction of the way to the next one, capped at maxLevel. */
+    public double continuousLevelFor(long xp) {
+        int level = levelFor(xp);
+        if (level >= maxLevel) return maxLevel;
+
+        long at = total[level];
+        long span = total[level + 1] - at;
+        if (span <= 0L) return level;
+        return level + Math.min(1.0, (double) (xp - at) / (double) span);
+    }
+
+    /** XP total at the level cap; anything above is clamped to this. */
+    public long maxTotal() {
+        return total[maxLevel];
+    }
+
+    public static boolean isLinear(GeneralConfig.XpCurve curve) {
+        // Preserve previous semantics: "linear" vs "quadratic" etc by base string
+        return curve != null && "linear".equalsIgnoreCase(curve.base);
+    }
+
+    /** Per-level requirement at {@code level}. */
+    public static long perLevel(int level, GeneralConfig.XpCurve curve) {
+        if (isLinear(curve)) {
+            return curve.linearBase + (long) level * curve.multiplier;
+        }
+        // quadratic per-level requirement: a*L^2 + b*L + c
+        return curve.quadA * (long) level * (long) level + curve.quadB * (long) level + curve.quadC;
+    }
+
+    private static long cumulative(int level, GeneralConfig.XpCurve curve) {
+        if (isLinear(curve)) {
+            // Sum_{i=1..L} (base + i*multiplier) = L*base + multiplier * L*(L+1)/2
+            return (long) level * curve.linearBase
+                + curve.multiplier * (long) level * ((long) level + 1L) / 2L;
+        }
+
+        // Sum_{i=1..L} (a*i^2 + b*i + c)
+        long S1 = (long) level * ((long) level + 1L) / 2L;  // 1 + 2 + ... + L
+        long S2 = (long) level * ((long) level + 1L) * (2L * (long) level + 1L) / 6L; // 1^2 + 2^2 + ... + L^2
+        return curve.quadA * S2 + curve.quadB * S1 + curve.quadC * (long) level;
+    }
+}
@@ -15,7 +15,6 @@ import net.fabricmc.fabric.api.event.player.UseItemCallback;
 import net.fabricmc.fabric.impl.event.interaction.InteractionEventsRouter;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.Item;
-import net.minecraft.registry.Registries;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.ActionResult;
@@ -109,11 +108,10 @@ public class AbilityEvents {
         var block = state.getBlock();
         if (block == null) return;
 
-        var blockName = Registries.BLOCK.getId(block).toString();
-        var skillCfg = ConfigManager.whichSkillHasBlock(blockName).orElse(null);
+        var skillCfg = ConfigManager.whichSkillHasBlock(block);
         if (skillCfg == null) {
             AbilityManager.clearReadiedAbility(sp);
-            McRPG.getLogger().debug("AbilityEvents: onStartBreak: No skill config for block {}", blockName);
+            McRPG.getLogger().debug("AbilityEvents: onStartBreak: No skill config for block {}", block);
             return;
         }
 
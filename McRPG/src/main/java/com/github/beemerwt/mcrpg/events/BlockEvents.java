@@ -13,7 +13,6 @@ import com.github.beemerwt.mcrpg.util.BlockClassifier;
 import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
 import net.minecraft.block.Block;
 import net.minecraft.item.ItemStack;
-import net.minecraft.registry.Registries;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 
@@ -38,7 +37,6 @@ public final class BlockEvents {
             McRPG.getLogger().debug("Processing block break event at {} by player {}", pos, player.getName().getString());
 
             var block = state.getBlock();
-            var blockName = Registries.BLOCK.getId(block).toString();
 
             if (BlockClassifier.isFurnace(block)) {
                 McRPG.getLogger().debug("Removing furnace at {} from smelt automation tracking", pos);
@@ -46,9 +44,9 @@ public final class BlockEvents {
                 return true;
             }
 
-            var skillCfg = ConfigManager.whichSkillHasBlock(blockName).orElse(null);
+            var skillCfg = ConfigManager.whichSkillHasBlock(block);
             if (skillCfg == null) {
-                McRPG.getLogger().debug("No skill associated with block " + blockName);
+                McRPG.getLogger().debug("No skill associated with block {}", block);
                 return true;
             }
 
@@ -59,7 +57,7 @@ public final class BlockEvents {
             var marker = CropMarkers.get(sw);
             if (marker.isMarked(pos)) {
                 marker.unmark(sw, pos);
-                McRPG.getLogger().debug("Removing marked crop {}", blockName);
+                McRPG.getLogger().debug("Removing marked crop {}", block);
                 Herbalism.onCropBroken(sp, sw, pos, state, drops);
                 return true;
             }
@@ -67,7 +65,7 @@ public final class BlockEvents {
             var tracker = PlacedBlockTracker.get(sw);
             if (tracker.isMarked(pos)) {
                 tracker.unmark(sw, pos);
-                McRPG.getLogger().debug("Skipping block {} because it was player-placed", blockName);
+                McRPG.getLogger().debug("Skipping block {} because it was player-placed", block);
                 return true;
             }
 
@@ -3,13 +3,13 @@ package com.github.beemerwt.mcrpg.events;
 import com.github.beemerwt.mcrpg.McRPG;
 import com.github.beemerwt.mcrpg.managers.ConfigManager;
 import com.github.beemerwt.mcrpg.config.GeneralConfig;
-import com.github.beemerwt.mcrpg.mixin.access.DamageTrackerAccessor;
 import com.github.beemerwt.mcrpg.data.SkillType;
 import com.github.beemerwt.mcrpg.util.ItemClassifier;
 import com.github.beemerwt.mcrpg.data.Leveling;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.projectile.PersistentProjectileEntity;
@@ -17,12 +17,10 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.registry.Registries;
 import net.minecraft.server.network.ServerPlayerEntity;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 public final class CombatEvents {
-    private static final Map<UUID, Object2IntOpenHashMap<UUID>> CURSORS = new HashMap<>();
+    private static final CombatLedger LEDGER = new CombatLedger(CombatEvents::credit);
 
     private CombatEvents() {}
 
@@ -33,72 +31,45 @@ public final class CombatEvents {
     };
 
     public static void register() {
-        ServerLivingEntityEvents.AFTER_DAMAGE.register((victimEntity, src, amount, v1, v2) -> {
-            if (victimEntity instanceof LivingEntity victim) {
-                processNewDamageRecords(victim);
-            }
+        ServerLivingEntityEvents.AFTER_DAMAGE.register((victim, src, baseTaken, taken, blocked) -> {
+            record(victim, src, taken);
         });
 
-        // Ensure we also pay the killing blow BEFORE vanilla logs/clears
-        ServerLivingEntityEvents.ALLOW_DEATH.register((entity, source, amount) -> {
-            if (entity instanceof LivingEntity victim) {
-                processNewDamageRecords(victim);
-            }
+        // AFTER_DAMAGE is not fired for the killing blow, so record it here and pay out
+        ServerLivingEntityEvents.ALLOW_DEATH.register((victim, source, amount) -> {
+            record(victim, source, amount);
+            LEDGER.flush(victim.getId());
             return true; // do not cancel death
         });
 
-        // Cleanup after death
-        ServerLivingEntityEvents.AFTER_DEATH.register((entity, src) -> {
-            if (entity != null) CURSORS.remove(entity.getUuid());
+        // Anything that leaves the world (despawn, chunk unload, dimension change) pays what it owes
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof LivingEntity) LEDGER.flush(entity.getId());
         });
     }
 
-    private static void processNewDamageRecords(LivingEntity victim) {
-        var tracker = victim.getDamageTracker();
-        var records = ((DamageTrackerAccessor) tracker).getRecentDamage();
-        if (records == null || records.isEmpty()) return;
+    private static void record(LivingEntity victim, DamageSource src, float applied) {
+        if (applied <= 0f) return;
+        if (!(resolveAttacker(src) instanceof ServerPlayerEntity sp)) return;
 
-        var perAttacker = CURSORS.computeIfAbsent(victim.getUuid(), k -> {
-            var m = new Object2IntOpenHashMap<UUID>();
-            m.defaultReturnValue(-1);
-            return m;
-        });
-
-        for (int i = 0; i < records.size(); i++) {
-            var rec = records.get(i);
-            var src = rec.damageSource();
-
-            var attacker = resolveAttacker(src);
-            if (!(attacker instanceof ServerPlayerEntity sp)) continue;
-
-            int last = perAttacker.getInt(sp.getUuid());
-            if (i <= last) continue; // already paid
+        var skill = classifyFromContext(sp, src);
+        if (skill == null) return;
 
-            float applied = rec.damage(); // post-mitigation, applied to HP
-            if (applied <= 0f) {
-                perAttacker.put(sp.getUuid(), i);
-                continue;
-            }
-
-            var skill = classifyFromContext(sp, src);
-            if (skill != null) {
-                var cfg  = ConfigManager.getSkillConfig(skill);
-                long base = baseKillXp(victim, cfg.xpModifier);
-                long xp   = Math.round(applied * base);
-                if (xp < 1) xp = 1;
+        LEDGER.add(victim.getId(), victim.getType(), sp.getUuid(), skill, applied);
+    }
 
-                Leveling.addXp(sp, skill, xp);
+    private static void credit(UUID attacker, SkillType skill, float damage, EntityType<?> victimType) {
+        var cfg  = ConfigManager.getSkillConfig(skill);
+        long base = baseKillXp(victimType, cfg.xpModifier);
+        long xp   = Math.round(damage * base);
+        if (xp < 1) xp = 1;
 
-                // Debug
-                var id = Registries.ENTITY_TYPE.getId(victim.getType());
-                McRPG.getLogger().debug(
-                        "XP {} -> {} for {} dmg to {} (recIdx={})",
-                        xp, sp.getGameProfile().name(), applied, id, i
-                );
-            }
+        var sp = McRPG.getServer().getPlayerManager().getPlayer(attacker);
+        if (sp != null) Leveling.addXp(sp, skill, xp);
+        else Leveling.addXp(McRPG.getStore().get(attacker), skill, xp);
 
-            perAttacker.put(sp.getUuid(), i);
-        }
+        McRPG.getLogger().debug("XP {} -> {} for {} dmg to {}",
+                xp, attacker, damage, Registries.ENTITY_TYPE.getId(victimType));
     }
 
     // ------------ Classification & XP helpers ------------
@@ -142,9 +113,9 @@ public final class CombatEvents {
     }
 
     // Very light scaling by mob type/hp
-    private static long baseKillXp(LivingEntity victim, double modifier) {
+    private static long baseKillXp(EntityType<?> victimType, double modifier) {
         GeneralConfig cfg = ConfigManager.getGeneralConfig();
-        var id = Registries.ENTITY_TYPE.getId(victim.getType());
+        var id = Registries.ENTITY_TYPE.getId(victimType);
         var baseXp = cfg.mobXpModifiers.getOrDefault(id.toString(), 1.0);
         if (baseXp <= 0.0) baseXp = 1.0; // sanity clamp
         baseXp *= 10;
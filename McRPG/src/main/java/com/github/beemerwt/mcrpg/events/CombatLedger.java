@@ -0,0 +1,97 @@
+package com.github.beemerwt.mcrpg.events;
+
+import com.github.beemerwt.mcrpg.data.SkillType;
+import com.github.beemerwt.mcrpg.util.TickScheduler;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.entity.EntityType;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Damage attribution for combat XP, keyed by the victim's entity id.
+ * - Each victim holds small parallel primitive arrays of (attacker, skill) -> damage dealt.
+ * - An entry is paid out and dropped when the victim dies, unloads, or ages out
+ *   ({@link #WINDOW_TICKS} after its first hit, via the TickScheduler wheel).
+ * Nothing outlives its window, so mobs that survive a fight cannot leak.
+ * Server thread only.
+ */
+final class CombatLedger {
+    static final long WINDOW_TICKS = 10L;
+
+    private static final SkillType[] SKILLS = SkillType.values();
+
+    @FunctionalInterface
+    interface Payout {
+        void credit(UUID attacker, SkillType skill, float damage, EntityType<?> victimType);
+    }
+
+    private static final class Entry {
+        private final EntityType<?> victimType;
+        private long[] most = new long[2];
+        private long[] least = new long[2];
+        private byte[] skill = new byte[2];
+        private float[] damage = new float[2];
+        private int count;
+        private TickScheduler.Task expiry;
+
+        private Entry(EntityType<?> victimType) {
+            this.victimType = victimType;
+        }
+
+        private void add(long m, long l, int s, float dmg) {
+            for (int i = 0; i < count; i++) {
+                if (most[i] == m && least[i] == l && skill[i] == s) {
+                    damage[i] += dmg;
+                    return;
+                }
+            }
+
+            if (count == most.length) {
+                int n = count * 2;
+                most = Arrays.copyOf(most, n);
+                least = Arrays.copyOf(least, n);
+                skill = Arrays.copyOf(skill, n);
+                damage = Arrays.copyOf(damage, n);
+            }
+
+            most[count] = m;
+            least[count] = l;
+            skill[count] = (byte) s;
+            damage[count] = dmg;
+            count++;
+        }
+    }
+
+    private final Int2ObjectOpenHashMap<Entry> byVictim = new Int2ObjectOpenHashMap<>();
+    private final Payout payout;
+
+    CombatLedger(Payout payout) {
+        this.payout = payout;
+    }
+
+    /** Record damage dealt by a player; opens the victim's window on its first hit. */
+    void add(int victimId, EntityType<?> victimType, UUID attacker, SkillType skill, float damage) {
+        if (damage <= 0f) return;
+
+        Entry e = byVictim.get(victimId);
+        if (e == null) {
+            e = new Entry(victimType);
+            byVictim.put(victimId, e);
+            e.expiry = TickScheduler.schedule("CombatLedger", WINDOW_TICKS, () -> flush(victimId));
+        }
+
+        e.add(attacker.getMostSignificantBits(), attacker.getLeastSignificantBits(), skill.ordinal(), damage);
+    }
+
+    /** Pay out everything owed for this victim and forget it. */
+    void flush(int victimId) {
+        Entry e = byVictim.remove(victimId);
+        if (e == null) return;
+
+        if (e.expiry != null) e.expiry.cancel();
+        for (int i = 0; i < e.count; i++) {
+            payout.credit(new UUID(e.most[i], e.least[i]), SKILLS[e.skill[i]], e.damage[i], e.victimType);
+        }
+    }
+}
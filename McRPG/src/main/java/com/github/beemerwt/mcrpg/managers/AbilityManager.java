@@ -9,7 +9,6 @@ import com.github.beemerwt.mcrpg.data.PlayerData;
 import com.github.beemerwt.mcrpg.abilities.GigaDrillBreaker;
 import com.github.beemerwt.mcrpg.abilities.GreenTerra;
 import com.github.beemerwt.mcrpg.abilities.SuperBreaker;
-import com.github.beemerwt.mcrpg.data.SkillType;
 import com.github.beemerwt.mcrpg.text.Component;
 import com.github.beemerwt.mcrpg.text.NamedTextColor;
 import com.github.beemerwt.mcrpg.util.ItemClassifier;
@@ -21,25 +20,43 @@ import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.sound.SoundEvents;
-import org.joml.Math;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Ready, active and cooldown state for super abilities.
+ * - Each player has one record of deadline ticks per phase, indexed by {@link ActiveAbilityType} ordinal.
+ * - A deadline of 0 means the phase is not running.
+ * - Cooldowns are only ever compared against the clock; nothing fires when they end.
+ * - Ready and active deadlines need a message or a deactivate, so one shared scheduler task is armed
+ *   for the earliest of them and sweeps every player whose deadline has passed.
+ * Server thread only.
+ */
 public final class AbilityManager {
-    /** A ready attempt: which ability was readied, and the expiry task. */
-    private record ReadyAttempt(ActiveAbilityType activeAbilityType, TickScheduler.Task expiry) {}
-
-    /** Track the current active ability and its scheduled deactivation task. */
-    private record Active(ActiveAbilityType activeAbilityType, TickScheduler.Task task) {}
+    private static final ActiveAbilityType[] TYPES = ActiveAbilityType.values();
+    private static final int ABILITIES = TYPES.length;
+
+    /** One player's deadlines, in {@link TickScheduler#now()} ticks. At most one ability is readied or active at a time. */
+    private static final class State {
+        final long[] readyUntil = new long[ABILITIES];
+        final long[] activeUntil = new long[ABILITIES];
+        final long[] cooldownUntil = new long[ABILITIES];
+
+        ServerPlayerEntity player; // latest handle, for expiry messages
+        String readiedHeld;        // what "You lower your ..." names
+        NamedTextColor readiedColor;
+    }
 
     private static final long READY_TIMEOUT_TICKS = 60L; // 3s at 20 ticks per second
-    private static final Map<UUID, ReadyAttempt> readiedAbilities = new HashMap<>();
-    private static final Map<UUID, Active> activeAbilities = new ConcurrentHashMap<>();
-    private static final Map<UUID, Map<ActiveAbilityType, TickScheduler.Task>> cooldowns = new ConcurrentHashMap<>();
+    private static final Map<UUID, State> states = new HashMap<>();
+
+    private static final Runnable SWEEP = AbilityManager::sweep;
+    private static TickScheduler.Task sweepTask;
+    private static long sweepAt = Long.MAX_VALUE;
 
     private AbilityManager() {}
 
@@ -51,12 +68,10 @@ public final class AbilityManager {
 
         // Clean up on server stop.
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
-            readiedAbilities.values().forEach(a -> safeCancel(a.expiry));
-            activeAbilities.values().forEach(a -> safeCancel(a.task));
-            cooldowns.values().forEach(map -> map.values().forEach(AbilityManager::safeCancel));
-            readiedAbilities.clear();
-            activeAbilities.clear();
-            cooldowns.clear();
+            safeCancel(sweepTask);
+            sweepTask = null;
+            sweepAt = Long.MAX_VALUE;
+            states.clear();
         });
     }
 
@@ -88,22 +103,14 @@ public final class AbilityManager {
             return;
         }
 
-        // Remove last alert if it exists (prevents overloading)
-        var prev = readiedAbilities.remove(player.getUuid());
-        if (prev != null) safeCancel(prev.expiry);
-
-        // Schedule expiry
-        var expiry = TickScheduler.schedule(READY_TIMEOUT_TICKS, () -> {
-            ReadyAttempt attempt = readiedAbilities.get(player.getUuid());
-            if (attempt != null && attempt.activeAbilityType == activeAbilityType) {
-                Messenger.actionBar(player,
-                        Component.text("You lower your ").append(Component.text(heldType, textColor))
-                );
-                readiedAbilities.remove(player.getUuid());
-            }
-        });
-
-        readiedAbilities.put(player.getUuid(), new ReadyAttempt(activeAbilityType, expiry));
+        // Replaces any earlier ready (prevents overloading)
+        State st = stateFor(player);
+        long until = TickScheduler.now() + READY_TIMEOUT_TICKS;
+        Arrays.fill(st.readyUntil, 0L);
+        st.readyUntil[activeAbilityType.ordinal()] = until;
+        st.readiedHeld = heldType;
+        st.readiedColor = textColor;
+        armSweep(until);
 
         Messenger.actionBar(player,
                 Component.text("You ready your ").append(Component.text(heldType, textColor))
@@ -112,30 +119,31 @@ public final class AbilityManager {
 
     public static void clearReadiedAbility(ServerPlayerEntity player) {
         if (player == null) return;
-        var attempt = readiedAbilities.remove(player.getUuid());
-        if (attempt != null) safeCancel(attempt.expiry);
+        State st = states.get(player.getUuid());
+        if (st != null) Arrays.fill(st.readyUntil, 0L);
     }
 
     /** The readied ability, if any (not validating cooldown here). */
     public static Optional<ActiveAbilityType> getReadiedAbility(ServerPlayerEntity player) {
         if (player == null) return Optional.empty();
-        var attempt = readiedAbilities.get(player.getUuid());
-        return attempt != null ? Optional.of(attempt.activeAbilityType) : Optional.empty();
+        State st = states.get(player.getUuid());
+        if (st == null) return Optional.empty();
+
+        int i = firstAfter(st.readyUntil, TickScheduler.now());
+        return i >= 0 ? Optional.of(TYPES[i]) : Optional.empty();
     }
 
     /** Remaining cooldown in ticks for the given ability. */
     public static long cooldownRemaining(ServerPlayerEntity p, ActiveAbilityType a) {
         if (p == null || a == null) return 0L;
-        var map = cooldowns.get(p.getUuid());
-        if (map == null) return 0L;
-        var task = map.get(a);
-        return task != null ? Math.max(0L, task.getRemainingTicks()) : 0L;
+        State st = states.get(p.getUuid());
+        return st == null ? 0L : Math.max(0L, st.cooldownUntil[a.ordinal()] - TickScheduler.now());
     }
 
     public static boolean isActive(ServerPlayerEntity p, ActiveAbilityType a) {
         if (p == null || a == null) return false;
-        var active = activeAbilities.get(p.getUuid());
-        return active != null && active.activeAbilityType == a;
+        State st = states.get(p.getUuid());
+        return st != null && st.activeUntil[a.ordinal()] > TickScheduler.now();
     }
 
     /** True only when no cooldown remains. */
@@ -149,8 +157,7 @@ public final class AbilityManager {
         if (player == null || activeAbilityType == null) return;
 
         // Clear the ready state on activation attempt (no lingering ready)
-        var attempt = readiedAbilities.remove(player.getUuid());
-        if (attempt != null) safeCancel(attempt.expiry);
+        clearReadiedAbility(player);
 
         SkillConfig skillCfg = ConfigManager.whichSkillHasAbility(activeAbilityType).orElse(null);
         if (skillCfg == null) return;
@@ -161,37 +168,34 @@ public final class AbilityManager {
         if (!(abilityCfg instanceof SuperAbilityConfig superAbility))
             return;
 
-        int level = Leveling.getLevel(player, SkillType.MINING);
+        int level = Leveling.getLevel(player, skillCfg.getSkillType());
         if (level < superAbility.minLevel) return;
 
         long durationTicks = Leveling.getScaledTicks(superAbility.baseDuration, superAbility.maxDuration, level);
         long cooldownTicks = Leveling.getScaledTicks(superAbility.baseCooldown, superAbility.minCooldown, level);
         cooldownTicks += durationTicks; // cooldown starts after duration ends
 
-        // If another duration ability is active for this player, cancel and cleanly deactivate it.
-        var prior = activeAbilities.remove(player.getUuid());
-        if (prior != null) {
-            safeCancel(prior.task);
-            // Ensure prior ability effect is removed if different
-            if (prior.activeAbilityType != null) {
-                try {
-                    deactivate(player, prior.activeAbilityType);
-                } catch (Throwable t) {
-                    McRPG.getLogger().warning("Failed to deactivate prior ability {} for {}", prior.activeAbilityType, player.getName().getString(), t);
-                }
+        State st = stateFor(player);
+        long now = TickScheduler.now();
+
+        // If another duration ability is active for this player, cleanly deactivate it.
+        int prior = firstAfter(st.activeUntil, now);
+        Arrays.fill(st.activeUntil, 0L);
+        if (prior >= 0) {
+            ActiveAbilityType priorType = TYPES[prior];
+            try {
+                deactivate(player, priorType);
+            } catch (Throwable t) {
+                McRPG.getLogger().warning("Failed to deactivate prior ability {} for {}", priorType, player.getName().getString(), t);
             }
         }
 
         // Start effect for duration
-        TickScheduler.Task endTask = TickScheduler.schedule(durationTicks, () -> {
-            deactivate(player, activeAbilityType);
-            activeAbilities.remove(player.getUuid());
-        });
-
-        activeAbilities.put(player.getUuid(), new Active(activeAbilityType, endTask));
+        st.activeUntil[activeAbilityType.ordinal()] = now + Math.max(1L, durationTicks);
+        armSweep(now + Math.max(1L, durationTicks));
 
         // Always start cooldown (instant abilities get cooldown too)
-        startCooldown(player, activeAbilityType, cooldownTicks);
+        if (cooldownTicks > 0) st.cooldownUntil[activeAbilityType.ordinal()] = now + cooldownTicks;
 
         // Apply effects
         switch (activeAbilityType) {
@@ -205,7 +209,6 @@ public final class AbilityManager {
 
         SoundUtil.playSound(player, SoundEvents.ITEM_TRIDENT_RIPTIDE_3.value(), 1.0f, 1.0f);
 
-        long now = player.getEntityWorld().getTime();
         McRPG.getLogger().debug("Activated {} for {} ticks ({} seconds) level={}, now={}, ends={}, cooldownEnds={}",
                 activeAbilityType.getDisplayName(), durationTicks, durationTicks / 20.0f, level, now, now + durationTicks, now + cooldownTicks);
     }
@@ -225,44 +228,78 @@ public final class AbilityManager {
     /** Force-end the current active ability for this player (no-op if not active or mismatched). */
     public static void forceDeactivate(ServerPlayerEntity player, ActiveAbilityType activeAbilityType) {
         if (player == null || activeAbilityType == null) return;
-        var active = activeAbilities.get(player.getUuid());
-        if (active == null) return;
-        // Only cancel if it matches the asked ability
-        if (active.activeAbilityType == activeAbilityType) {
-            safeCancel(active.task);
-            activeAbilities.remove(player.getUuid());
+        State st = states.get(player.getUuid());
+        if (st == null) return;
+        // Only end it if it matches the asked ability
+        if (st.activeUntil[activeAbilityType.ordinal()] > TickScheduler.now()) {
+            st.activeUntil[activeAbilityType.ordinal()] = 0L;
             deactivate(player, activeAbilityType);
         }
     }
 
+    public static void clearAllFor(UUID id) {
+        if (id == null) return;
+        states.remove(id);
+    }
+
     // --- internals ---
-    private static void startCooldown(ServerPlayerEntity player, ActiveAbilityType activeAbilityType, long cooldownTicks) {
-        if (cooldownTicks <= 0) return;
-        var map = cooldowns.computeIfAbsent(player.getUuid(), k -> new ConcurrentHashMap<>());
+    private static State stateFor(ServerPlayerEntity player) {
+        State st = states.computeIfAbsent(player.getUuid(), k -> new State());
+        st.player = player;
+        return st;
+    }
 
-        // Cancel any existing cooldown for this ability before replacing it.
-        var existing = map.get(activeAbilityType);
-        if (existing != null) safeCancel(existing);
+    /** Index of the entry still in the future, or -1. */
+    private static int firstAfter(long[] deadlines, long now) {
+        for (int i = 0; i < deadlines.length; i++) {
+            if (deadlines[i] > now) return i;
+        }
+        return -1;
+    }
 
-        TickScheduler.Task cd = TickScheduler.schedule(cooldownTicks, () -> {
-            var cds = cooldowns.get(player.getUuid());
-            if (cds != null) cds.remove(activeAbilityType);
-        });
+    /** Make sure the sweep runs no later than {@code deadline}. */
+    private static void armSweep(long deadline) {
+        if (sweepTask != null && !sweepTask.isCancelled() && sweepAt <= deadline) return;
 
-        map.put(activeAbilityType, cd);
+        safeCancel(sweepTask);
+        sweepAt = deadline;
+        sweepTask = TickScheduler.schedule("AbilityManager", deadline - TickScheduler.now(), SWEEP);
     }
 
-    public static void clearAllFor(UUID id) {
-        if (id == null) return;
-
-        var ready = readiedAbilities.remove(id);
-        if (ready != null) safeCancel(ready.expiry);
+    /** Expire every ready and active deadline that has passed, then re-arm for the next one. */
+    private static void sweep() {
+        sweepTask = null;
+        sweepAt = Long.MAX_VALUE;
+
+        long now = TickScheduler.now();
+        long next = Long.MAX_VALUE;
+        for (State st : states.values()) {
+            for (int i = 0; i < ABILITIES; i++) {
+                long ready = st.readyUntil[i];
+                if (ready != 0L && ready <= now) {
+                    st.readyUntil[i] = 0L;
+                    Messenger.actionBar(st.player,
+                            Component.text("You lower your ").append(Component.text(st.readiedHeld, st.readiedColor))
+                    );
+                } else if (ready != 0L) {
+                    next = Math.min(next, ready);
+                }
 
-        var active = activeAbilities.remove(id);
-        if (active != null) safeCancel(active.task);
+                long active = st.activeUntil[i];
+                if (active != 0L && active <= now) {
+                    st.activeUntil[i] = 0L;
+                    try {
+                        deactivate(st.player, TYPES[i]);
+                    } catch (Throwable t) {
+                        McRPG.getLogger().warning("Failed to deactivate {} for {}", TYPES[i], st.player.getName().getString(), t);
+                    }
+                } else if (active != 0L) {
+                    next = Math.min(next, active);
+                }
+            }
+        }
 
-        var cds = cooldowns.remove(id);
-        if (cds != null) cds.values().forEach(AbilityManager::safeCancel);
+        if (next != Long.MAX_VALUE) armSweep(next);
     }
 
     private static void safeCancel(TickScheduler.Task t) {
@@ -0,0 +1,127 @@
+package com.github.beemerwt.mcrpg.managers;
+
+import com.github.beemerwt.mcrpg.McRPG;
+import com.github.beemerwt.mcrpg.config.IHasBlocks;
+import com.github.beemerwt.mcrpg.config.SkillConfig;
+import com.github.beemerwt.mcrpg.data.SkillType;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable block tables compiled from every {@link IHasBlocks} skill config.
+ * - Dispatch: Block -> (owning skill, base XP); the first skill (SkillType order) to list a block wins.
+ * - Per skill: Block -> base XP, for skills that score blocks another skill owns.
+ * - In both, explicit block ids win over {@code #tag} entries, and tags only expand once bound,
+ *   so the index is rebuilt when datapacks (re)load.
+ * Lookups are a single identity-hash probe with no allocation.
+ */
+public final class BlockSkillIndex {
+    public record Entry(SkillConfig skill, int xp) {}
+
+    private static final BlockSkillIndex EMPTY =
+            new BlockSkillIndex(new Reference2ObjectOpenHashMap<>(), new EnumMap<>(SkillType.class));
+
+    private final Reference2ObjectOpenHashMap<Block, Entry> table;
+    private final EnumMap<SkillType, Reference2IntOpenHashMap<Block>> xpBySkill;
+
+    private BlockSkillIndex(Reference2ObjectOpenHashMap<Block, Entry> table,
+                            EnumMap<SkillType, Reference2IntOpenHashMap<Block>> xpBySkill) {
+        this.table = table;
+        this.xpBySkill = xpBySkill;
+    }
+
+    static BlockSkillIndex empty() {
+        return EMPTY;
+    }
+
+    public @Nullable Entry get(Block block) {
+        return table.get(block);
+    }
+
+    /** Base XP {@code skill} gives for {@code block}, or 0 if it doesn't list it. */
+    public int xp(SkillType skill, Block block) {
+        Reference2IntOpenHashMap<Block> xp = xpBySkill.get(skill);
+        return (xp == null) ? 0 : xp.getInt(block);
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    static BlockSkillIndex build(Collection<SkillConfig> skills) {
+        return build(skills, Registries.BLOCK::iterateEntries);
+    }
+
+    /** As {@link #build(Collection)}, with tag contents from {@code tagContents} instead of the bound registry tags. */
+    static BlockSkillIndex build(Collection<SkillConfig> skills,
+                                 Function<TagKey<Block>, Iterable<RegistryEntry<Block>>> tagContents) {
+        var table = new Reference2ObjectOpenHashMap<Block, Entry>();
+        var xpBySkill = new EnumMap<SkillType, Reference2IntOpenHashMap<Block>>(SkillType.class);
+
+        // Pass 1: explicit ids
+        for (SkillConfig cfg : skills) {
+            if (!(cfg instanceof IHasBlocks hb)) continue;
+            for (Map.Entry<String, Integer> e : hb.getBlocks().entrySet()) {
+                String key = e.getKey();
+                if (key.startsWith("#")) continue;
+
+                Identifier id = Identifier.tryParse(key);
+                if (id == null || !Registries.BLOCK.containsId(id)) {
+                    McRPG.getLogger().warning("Unknown block '{}' in {} config", key, cfg.skillType);
+                    continue;
+                }
+
+                Block block = Registries.BLOCK.get(id);
+                putFirst(table, block, cfg, e.getValue());
+                skillXp(xpBySkill, cfg).putIfAbsent(block, e.getValue() == null ? 0 : e.getValue().intValue());
+            }
+        }
+
+        // Pass 2: tags (empty until tags are bound)
+        for (SkillConfig cfg : skills) {
+            if (!(cfg instanceof IHasBlocks hb)) continue;
+            for (Map.Entry<String, Integer> e : hb.getBlocks().entrySet()) {
+                String key = e.getKey();
+                if (!key.startsWith("#")) continue;
+
+                Identifier tagId = Identifier.tryParse(key.substring(1));
+                if (tagId == null) continue;
+
+                TagKey<Block> tag = TagKey.of(RegistryKeys.BLOCK, tagId);
+                for (RegistryEntry<Block> entry : tagContents.apply(tag)) {
+                    putFirst(table, entry.value(), cfg, e.getValue());
+                    skillXp(xpBySkill, cfg).putIfAbsent(entry.value(), e.getValue() == null ? 0 : e.getValue().intValue());
+                }
+            }
+        }
+
+        table.trim();
+        xpBySkill.values().forEach(Reference2IntOpenHashMap::trim);
+        return new BlockSkillIndex(table, xpBySkill);
+    }
+
+    private static Reference2IntOpenHashMap<Block> skillXp(
+            EnumMap<SkillType, Reference2IntOpenHashMap<Block>> xpBySkill, SkillConfig cfg) {
+        return xpBySkill.computeIfAbsent(cfg.skillType, k -> new Reference2IntOpenHashMap<>());
+    }
+
+    private static void putFirst(Reference2ObjectOpenHashMap<Block, Entry> table, Block block, SkillConfig cfg, Integer xp) {
+        Entry prev = table.putIfAbsent(block, new Entry(cfg, xp == null ? 0 : xp));
+        if (prev != null && prev.skill() != cfg) {
+            McRPG.getLogger().debug("Block {} claimed by {} and {}; keeping {}",
+                    block, prev.skill().skillType, cfg.skillType, prev.skill().skillType);
+        }
+    }
+}
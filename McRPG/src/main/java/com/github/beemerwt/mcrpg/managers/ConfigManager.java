@@ -6,15 +6,19 @@ import blue.endless.jankson.api.SyntaxError;
 import com.github.beemerwt.mcrpg.McRPG;
 import com.github.beemerwt.mcrpg.config.AbilityConfig;
 import com.github.beemerwt.mcrpg.config.GeneralConfig;
-import com.github.beemerwt.mcrpg.config.IHasBlocks;
 import com.github.beemerwt.mcrpg.config.SkillConfig;
 import com.github.beemerwt.mcrpg.config.skills.ExcavationConfig;
 import com.github.beemerwt.mcrpg.data.ActiveAbilityType;
 import com.github.beemerwt.mcrpg.data.SkillType;
+import com.github.beemerwt.mcrpg.data.XpTable;
 import com.github.beemerwt.mcrpg.util.FabricLogger;
 import com.github.beemerwt.mcrpg.util.JanksonSerde;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.block.Block;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -38,6 +42,8 @@ public final class ConfigManager {
     private static final GeneralConfig GENERAL = new GeneralConfig();
     static final Map<SkillType, SkillConfig> BY_SKILL = new EnumMap<>(SkillType.class);
     private static volatile EnumMap<ActiveAbilityType, SkillConfig> ABILITY_TO_SKILL = new EnumMap<>(ActiveAbilityType.class);
+    private static volatile BlockSkillIndex BLOCK_INDEX = BlockSkillIndex.empty();
+    private static volatile XpTable XP_TABLE = XpTable.compile(GENERAL);
 
     private ConfigManager() {}
 
@@ -64,6 +70,8 @@ public final class ConfigManager {
             McRPG.getLogger().error(e, "Syntax error in general config: {}", e.getMessage());
         }
 
+        rebuildXpTable();
+
         BY_SKILL.put(SkillType.ACROBATICS, SkillConfig.createOrLoadConfig(SkillType.ACROBATICS));
 
         // Gathering skills
@@ -87,6 +95,7 @@ public final class ConfigManager {
         // BY_SKILL.put(SkillType.ARCHERY, SkillConfig.createOrLoadConfig(SkillType.ARCHERY));
 
         rebuildAbilityIndex();
+        rebuildBlockIndex();
 
         FabricLogger.setGlobalDebug(GENERAL.debug);
         McRPG.getLogger().info("Debug logging is {}", GENERAL.debug ? "ENABLED" : "disabled");
@@ -118,6 +127,16 @@ public final class ConfigManager {
 
     public @NotNull static GeneralConfig getGeneralConfig() { return GENERAL; }
 
+    /** Cumulative XP table for the configured curve and level cap. */
+    public @NotNull static XpTable getXpTable() { return XP_TABLE; }
+
+    /** Recompile the XP curve. Called whenever the general config is (re)loaded. */
+    public static void rebuildXpTable() {
+        XP_TABLE = XpTable.compile(GENERAL);
+        McRPG.getLogger().debug("XP table rebuilt up to level {} ({} XP at cap)",
+                XP_TABLE.maxLevel(), XP_TABLE.maxTotal());
+    }
+
     @SuppressWarnings("unchecked")
     public @NotNull static <T extends SkillConfig> T getSkillConfig(SkillType s) {
         return (T)BY_SKILL.get(s);
@@ -136,10 +155,35 @@ public final class ConfigManager {
     }
 
     public static Optional<SkillConfig> whichSkillHasBlock(String blockId) {
-        return BY_SKILL.values().stream()
+        Identifier id = Identifier.tryParse(blockId);
+        if (id == null || !Registries.BLOCK.containsId(id)) return Optional.empty();
+        return Optional.ofNullable(whichSkillHasBlock(Registries.BLOCK.get(id)));
+    }
+
+    /** The skill that awards XP for this block, or null. Hot path: one identity-hash lookup. */
+    public static @Nullable SkillConfig whichSkillHasBlock(Block block) {
+        var entry = BLOCK_INDEX.get(block);
+        return entry != null ? entry.skill() : null;
+    }
+
+    /** The owning skill and its base XP for this block, or null. */
+    public static BlockSkillIndex.@Nullable Entry blockEntry(Block block) {
+        return BLOCK_INDEX.get(block);
+    }
+
+    /** Base XP {@code skill} awards for breaking {@code block} (0 if it doesn't list it). */
+    public static int blockXp(SkillType skill, Block block) {
+        return BLOCK_INDEX.xp(skill, block);
+    }
+
+    /** Recompile the block dispatch table. Called on (re)load and whenever tags are rebound. */
+    public static void rebuildBlockIndex() {
+        var skills = BY_SKILL.values().stream()
                 .filter(Objects::nonNull) // in case a load failed and put(null) happened
-                .filter(cfg -> cfg instanceof IHasBlocks hb && hb.hasBlock(blockId))
-                .findFirst();
+                .toList();
+
+        BLOCK_INDEX = BlockSkillIndex.build(skills);
+        McRPG.getLogger().debug("Block index rebuilt with {} blocks", BLOCK_INDEX.size());
     }
 
     public static void rebuildAbilityIndex() {
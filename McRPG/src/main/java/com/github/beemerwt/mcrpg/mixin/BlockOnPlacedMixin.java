@@ -17,7 +17,6 @@ import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.item.ItemStack;
-import net.minecraft.registry.Registries;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundEvents;
@@ -62,10 +61,9 @@ public abstract class BlockOnPlacedMixin {
         }
 
         // Only track placements that are relevant to a skill (reduces save size)
-        String id = Registries.BLOCK.getId(block).toString();
-        var cfg = ConfigManager.whichSkillHasBlock(id).orElse(null);
+        var cfg = ConfigManager.whichSkillHasBlock(block);
         if (cfg == null) {
-            McRPG.getLogger().debug("Placed block {} is not tracked by any skill.", id);
+            McRPG.getLogger().debug("Placed block {} is not tracked by any skill.", block);
             return;
         }
 
@@ -82,15 +80,15 @@ public abstract class BlockOnPlacedMixin {
             cm.mark(sw, pos.down(), growthModifier);
 
             long k = pos.asLong();
-            boolean hasHere  = cm.containsKey(k);
-            boolean hasBelow = cm.containsKey(pos.down().asLong());
+            boolean hasHere  = cm.isMarked(pos);
+            boolean hasBelow = cm.isMarked(pos.down());
 
-            McRPG.getLogger().debug("onPlaced: world={} wHash={} cmHash={} size={}" +
+            McRPG.getLogger().debug("onPlaced: world={} wHash={} cmHash={} chunks={}" +
                             "pos={} long={} wrote={} hasHere={} hasBelow={}",
                     sw.getRegistryKey().getValue(),
                     System.identityHashCode(sw),
                     System.identityHashCode(cm),
-                    cm.size(),
+                    cm.markedChunkCount(),
                     pos, k, growthModifier,
                     hasHere, hasBelow
             );
@@ -1,29 +1,97 @@
 package com.github.beemerwt.mcrpg.permission;
 
+import com.github.beemerwt.mcrpg.McRPG;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
-/** Direct LuckPerms API check (only needed when Fabric Perms API is not present). */
+/**
+ * Direct LuckPerms API check (only needed when Fabric Perms API is not present).
+ * - The API is bound once into MethodHandles; nothing is looked up per check.
+ * - Each player's answers are cached in a byte table indexed by node id (nodes are numbered on first use).
+ * - LuckPerms recalculation events drop the affected player's table, or every table for group changes.
+ * - Context updates (world, dimension, gamemode) drop that player's table too, since answers depend on context.
+ */
 public final class LuckPermissionsProvider implements PermissionsProvider {
-    private final Object luckPerms;         // net.luckperms.api.LuckPerms
-    private final Method getPlayerAdapter;  // getPlayerAdapter(Class)
-    private final Method hasPermission;     // adapter.hasPermission(ServerPlayerEntity, String)
+    public record Stats(long hits, long misses, long invalidations, int players, int nodes) {}
+
+    // Cached states; 0 means not asked yet
+    private static final byte TRUE = 1, FALSE = 2, UNDEFINED = 3;
+
+    private final MethodHandle permissionData;  // (ServerPlayerEntity) -> CachedPermissionData, adapter bound
+    private final MethodHandle checkPermission; // (CachedPermissionData, String) -> Tristate
+    private final MethodHandle userUuid;        // (UserDataRecalculateEvent) -> UUID
+    private final MethodHandle contextSubject;  // (ContextUpdateEvent) -> platform subject
+
+    private final ConcurrentHashMap<String, Integer> nodeIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextNodeId = new AtomicInteger();
+    private final ConcurrentHashMap<UUID, Table> players = new ConcurrentHashMap<>();
+    private final List<AutoCloseable> subscriptions = new ArrayList<>(3);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /** One player's answers; replaced as a whole on invalidation. */
+    private static final class Table {
+        byte[] states = new byte[16];
+    }
 
     LuckPermissionsProvider() {
         try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
             Class<?> provider = Class.forName("net.luckperms.api.LuckPermsProvider");
-            luckPerms = provider.getMethod("get").invoke(null);
+            Class<?> api = Class.forName("net.luckperms.api.LuckPerms");
+            Class<?> adapterType = Class.forName("net.luckperms.api.platform.PlayerAdapter");
+            Class<?> dataType = Class.forName("net.luckperms.api.cacheddata.CachedPermissionData");
+            Class<?> tristate = Class.forName("net.luckperms.api.util.Tristate");
 
-            getPlayerAdapter = luckPerms.getClass()
-                    .getMethod("getPlayerAdapter", Class.class);
+            Object luckPerms = lookup.findStatic(provider, "get", MethodType.methodType(api)).invoke();
+            Object adapter = lookup.findVirtual(api, "getPlayerAdapter", MethodType.methodType(adapterType, Class.class))
+                    .invoke(luckPerms, ServerPlayerEntity.class);
 
-            // Resolve adapter type reflectively, then cache its hasPermission method
-            Object adapter = getPlayerAdapter.invoke(luckPerms, ServerPlayerEntity.class);
-            hasPermission = adapter.getClass()
-                    .getMethod("hasPermission", ServerPlayerEntity.class, String.class);
-        } catch (Exception e) {
+            permissionData = lookup.findVirtual(adapterType, "getPermissionData", MethodType.methodType(dataType, Object.class))
+                    .bindTo(adapter)
+                    .asType(MethodType.methodType(Object.class, ServerPlayerEntity.class));
+            checkPermission = lookup.findVirtual(dataType, "checkPermission", MethodType.methodType(tristate, String.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, String.class));
+
+            Class<?> userEvent = Class.forName("net.luckperms.api.event.user.UserDataRecalculateEvent");
+            Class<?> groupEvent = Class.forName("net.luckperms.api.event.group.GroupDataRecalculateEvent");
+            Class<?> user = Class.forName("net.luckperms.api.model.user.User");
+            userUuid = MethodHandles.filterReturnValue(
+                    lookup.findVirtual(userEvent, "getUser", MethodType.methodType(user)),
+                    lookup.findVirtual(user, "getUniqueId", MethodType.methodType(UUID.class))
+            ).asType(MethodType.methodType(UUID.class, Object.class));
+
+            Class<?> contextEvent = Class.forName("net.luckperms.api.event.context.ContextUpdateEvent");
+            contextSubject = lookup.findVirtual(contextEvent, "getSubject", MethodType.methodType(Object.class))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+
+            Class<?> eventBus = Class.forName("net.luckperms.api.event.EventBus");
+            Object bus = lookup.findVirtual(api, "getEventBus", MethodType.methodType(eventBus)).invoke(luckPerms);
+            MethodHandle subscribe = lookup.findVirtual(eventBus, "subscribe",
+                    MethodType.methodType(Class.forName("net.luckperms.api.event.EventSubscription"), Class.class, Consumer.class));
+
+            Consumer<Object> onUser = this::onUserRecalculated;
+            Consumer<Object> onGroup = e -> invalidateAll();
+            Consumer<Object> onContext = this::onContextUpdated;
+            subscriptions.add((AutoCloseable) subscribe.invoke(bus, userEvent, onUser));
+            subscriptions.add((AutoCloseable) subscribe.invoke(bus, groupEvent, onGroup));
+            subscriptions.add((AutoCloseable) subscribe.invoke(bus, contextEvent, onContext));
+        } catch (Throwable e) {
+            close();
             throw new IllegalStateException("LuckPermissionsProvider init failure", e);
         }
     }
@@ -35,25 +103,108 @@ public final class LuckPermissionsProvider implements PermissionsProvider {
             // Console/command blocks: use vanilla threshold
             return src.hasPermissionLevel(opLevelFallback);
         }
-        try {
-            Object adapter = getPlayerAdapter.invoke(luckPerms, ServerPlayerEntity.class);
-            Boolean has = (Boolean) hasPermission.invoke(adapter, player, node);
-            return has != null ? has : src.hasPermissionLevel(opLevelFallback);
-        } catch (Throwable t) {
-            return src.hasPermissionLevel(opLevelFallback);
-        }
+
+        byte state = resolve(player, node);
+        if (state == TRUE) return true;
+        if (state == FALSE) return false;
+        return src.hasPermissionLevel(opLevelFallback);
     }
 
     @Override
     public boolean checkOrDefault(ServerCommandSource src, String node, boolean defIfNoPerms) {
         ServerPlayerEntity player = src.getEntity() instanceof ServerPlayerEntity p ? p : null;
         if (player == null) return defIfNoPerms;
+
+        byte state = resolve(player, node);
+        if (state == TRUE) return true;
+        if (state == FALSE) return false;
+        return defIfNoPerms;
+    }
+
+    @Override
+    public void close() {
+        for (AutoCloseable s : subscriptions) {
+            try {
+                s.close();
+            } catch (Exception e) {
+                McRPG.getLogger().warning("Failed to unsubscribe from LuckPerms events: {}", e.getMessage());
+            }
+        }
+        subscriptions.clear();
+        players.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), invalidations.sum(), players.size(), nodeIds.size());
+    }
+
+    // ----- cache -----
+
+    private byte resolve(ServerPlayerEntity player, String node) {
+        int id = nodeIds.computeIfAbsent(node, k -> nextNodeId.getAndIncrement());
+        Table table = players.computeIfAbsent(player.getUuid(), k -> new Table());
+
+        byte[] states = table.states;
+        if (id < states.length && states[id] != 0) {
+            hits.increment();
+            return states[id];
+        }
+
+        misses.increment();
+        byte state = query(player, node);
+        if (state == 0) return UNDEFINED; // lookup failed; don't remember it
+
+        synchronized (table) {
+            if (id >= table.states.length) {
+                table.states = Arrays.copyOf(table.states, Math.max(id + 1, table.states.length * 2));
+            }
+            table.states[id] = state;
+        }
+        return state;
+    }
+
+    private byte query(ServerPlayerEntity player, String node) {
         try {
-            Object adapter = getPlayerAdapter.invoke(luckPerms, ServerPlayerEntity.class);
-            Boolean has = (Boolean) hasPermission.invoke(adapter, player, node);
-            return has != null ? has : defIfNoPerms;
+            Object data = (Object) permissionData.invokeExact(player);
+            Object result = (Object) checkPermission.invokeExact(data, node);
+            return switch (((Enum<?>) result).name()) {
+                case "TRUE" -> TRUE;
+                case "FALSE" -> FALSE;
+                default -> UNDEFINED;
+            };
         } catch (Throwable t) {
-            return defIfNoPerms;
+            return 0;
         }
     }
+
+    // LuckPerms fires these off its own threads, after the new data is in place
+    private void onUserRecalculated(Object event) {
+        try {
+            UUID id = (UUID) userUuid.invokeExact(event);
+            if (players.remove(id) != null) invalidations.increment();
+        } catch (Throwable t) {
+            invalidateAll();
+        }
+    }
+
+    // The subject is the player on Fabric; other subjects have no table
+    private void onContextUpdated(Object event) {
+        try {
+            Object subject = (Object) contextSubject.invokeExact(event);
+            if (subject instanceof ServerPlayerEntity p && players.remove(p.getUuid()) != null) invalidations.increment();
+        } catch (Throwable t) {
+            invalidateAll();
+        }
+    }
+
+    private void invalidateAll() {
+        if (players.isEmpty()) return;
+        players.clear();
+        invalidations.increment();
+    }
+
+    /** Forget a player who left; their table is rebuilt on their next check. */
+    void evict(UUID player) {
+        players.remove(player);
+    }
 }
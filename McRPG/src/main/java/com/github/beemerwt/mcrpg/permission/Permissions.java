@@ -4,6 +4,7 @@ package com.github.beemerwt.mcrpg.permission;
 import com.github.beemerwt.mcrpg.McRPG;
 import com.github.beemerwt.mcrpg.managers.ConfigManager;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.server.command.ServerCommandSource;
 
@@ -17,9 +18,19 @@ public final class Permissions {
 
     // Call once during mod init to set up a safe provider and a refresh hook.
     public static void init() {
-        REF.set(buildProviderSafely());
+        swap(buildProviderSafely(false));
         // Once the server is fully started, re-evaluate in case optional mods are present.
-        ServerLifecycleEvents.SERVER_STARTED.register(server -> REF.set(buildProviderSafely()));
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> swap(buildProviderSafely(true)));
+        // Drop LuckPerms event subscriptions and cached answers with the server they belong to
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> swap(new VanillaPermissionsProvider()));
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            if (REF.get() instanceof LuckPermissionsProvider lp) lp.evict(handler.player.getUuid());
+        });
+    }
+
+    /** The provider currently answering checks. */
+    public static PermissionsProvider provider() {
+        return REF.get();
     }
 
     public static boolean check(ServerCommandSource src, String node, int opLevelFallback) {
@@ -34,7 +45,12 @@ public final class Permissions {
         return REF.get().checkOrDefault(src, node, defIfNoPerms);
     }
 
-    private static PermissionsProvider buildProviderSafely() {
+    private static void swap(PermissionsProvider next) {
+        PermissionsProvider prev = REF.getAndSet(next);
+        if (prev != next) prev.close();
+    }
+
+    private static PermissionsProvider buildProviderSafely(boolean serverStarted) {
         String permSystem = ConfigManager.getGeneralConfig().permissions;
         try {
             // Prefer the Fabric Permissions API if present
@@ -48,6 +64,11 @@ public final class Permissions {
             }
 
             if (permSystem.equalsIgnoreCase("luckperms")) {
+                if (!serverStarted) {
+                    // LuckPerms only exposes its API once the server is up; op levels answer until then
+                    McRPG.getLogger().debug("Deferring LuckPerms permissions until the server has started");
+                    return new VanillaPermissionsProvider();
+                }
                 if (FabricLoader.getInstance().isModLoaded("luckperms")
                         || classPresent("net.luckperms.api.LuckPerms")) {
                     return new LuckPermissionsProvider();
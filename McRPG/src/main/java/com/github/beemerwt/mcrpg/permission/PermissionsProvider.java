@@ -5,4 +5,7 @@ import net.minecraft.server.command.ServerCommandSource;
 public interface PermissionsProvider {
     boolean check(ServerCommandSource src, String node, int opLevelFallback);
     boolean checkOrDefault(ServerCommandSource src, String node, boolean defIfNoPerms);
+
+    /** Release anything held for this provider once it has been replaced. */
+    default void close() {}
 }
@@ -4,66 +4,87 @@ import com.github.beemerwt.mcrpg.McRPG;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.PersistentState;
-import net.minecraft.world.PersistentStateManager;
 import net.minecraft.world.PersistentStateType;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
-public final class CropMarkers extends PersistentState {
-    private static final String KEY = "mcrpg_herbalism_markers";
-    private final Long2FloatOpenHashMap posToMultiplier = new Long2FloatOpenHashMap();
-
-    private record Entry(long pos, float mult) {}
-    private static final Codec<Entry> ENTRY_CODEC = RecordCodecBuilder.create(inst ->
-            inst.group(
-                    Codec.LONG.fieldOf("pos").forGetter(Entry::pos),
-                    Codec.FLOAT.fieldOf("mult").forGetter(Entry::mult)
-            ).apply(inst, Entry::new)
-    );
-
-    private static final Codec<CropMarkers> CODEC = RecordCodecBuilder.create(inst ->
-            inst.group(
-                    ENTRY_CODEC.listOf().fieldOf("entries").forGetter(m -> {
-                        var out = new ArrayList<Entry>(m.posToMultiplier.size());
-                        for (var it = m.posToMultiplier.long2FloatEntrySet().fastIterator(); it.hasNext();) {
-                            var e = it.next();
-                            out.add(new Entry(e.getLongKey(), e.getFloatValue()));
-                        }
-                        return out;
-                    })
-            ).apply(inst, entries -> {
-                CropMarkers m = new CropMarkers();
-                for (Entry e : entries) {
-                    float f = clampMultiplier(e.mult());
-                    if (f > 1.0f) m.posToMultiplier.put(e.pos(), f);
-                }
-                return m;
-            })
-    );
-
-    public static final PersistentStateType<CropMarkers> TYPE =
-            new PersistentStateType<>(KEY, CropMarkers::new, CODEC, DataFixTypes.SAVED_DATA_MAP_DATA);
-
-    public CropMarkers() {
-        super();
-        posToMultiplier.defaultReturnValue(1.0f);
+/**
+ * Green Thumb growth multipliers for player-planted crops.
+ * - A crop's multiplier is saved with its chunk, in a {@link LocalPosFloatMap} attachment keyed by local position.
+ * - Loaded chunks that hold any marker are kept in a set, so a random tick on an untracked crop
+ *   is answered without touching the chunk at all.
+ * Server thread only.
+ */
+public final class CropMarkers {
+    private static final String LEGACY_KEY = "mcrpg_herbalism_markers";
+
+    public static final AttachmentType<LocalPosFloatMap> SHARD = AttachmentRegistry.create(
+            Identifier.of("mcrpg", "crop_markers"), builder -> builder.persistent(LocalPosFloatMap.CODEC));
+
+    private static final Map<ServerWorld, CropMarkers> BY_WORLD = new HashMap<>();
+
+    private final ServerWorld world;
+
+    // Loaded chunks whose shard is non-empty
+    private final LongOpenHashSet markedChunks = new LongOpenHashSet();
+
+    private final @Nullable ShardMigration migration;
+
+    private CropMarkers(ServerWorld world) {
+        this.world = world;
+
+        Legacy legacy = world.getPersistentStateManager().get(Legacy.TYPE);
+        this.migration = ShardMigration.start(world, legacy, legacy == null ? null : legacy.markers.keySet(),
+                "crop markers", (chunk, positions) -> migrate(legacy, chunk, positions));
+    }
+
+    public static void register() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> get(world).onLoad(chunk));
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            CropMarkers markers = BY_WORLD.get(world);
+            if (markers != null) markers.markedChunks.remove(chunk.getPos().toLong());
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> BY_WORLD.remove(world));
     }
 
     public static CropMarkers get(ServerWorld world) {
-        PersistentStateManager psm = world.getPersistentStateManager();
-        return psm.getOrCreate(TYPE);
+        return BY_WORLD.computeIfAbsent(world, CropMarkers::new);
+    }
+
+    /** Cheap pre-check: false means no crop in this position's chunk is marked. */
+    public boolean mayBeMarked(BlockPos pos) {
+        return markedChunks.contains(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
     }
 
+    /** @return the growth multiplier at {@code pos}, or 1.0 if it isn't marked */
     public float getMultiplier(BlockPos pos) {
-        return posToMultiplier.get(pos.asLong());
+        if (!mayBeMarked(pos)) return 1.0f;
+
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return 1.0f;
+
+        LocalPosFloatMap shard = chunk.getAttached(SHARD);
+        return shard == null ? 1.0f : shard.get(LocalPosSet.pack(pos), 1.0f);
     }
 
     public boolean isMarked(BlockPos pos) {
-        return getMultiplier(pos) > 1.0;
+        return getMultiplier(pos) > 1.0f;
     }
 
     public void mark(ServerWorld world, BlockPos pos, float multiplier) {
@@ -72,15 +93,31 @@ public final class CropMarkers extends PersistentState {
             unmark(world, pos);
             return;
         }
-        posToMultiplier.put(pos.asLong(), clamped);
-        markDirty();
+
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return;
+
+        LocalPosFloatMap shard = chunk.getAttachedOrCreate(SHARD, LocalPosFloatMap::new);
+        if (shard.put(LocalPosSet.pack(pos), clamped)) {
+            chunk.setAttached(SHARD, shard); // flags the chunk for saving
+        }
+        markedChunks.add(chunk.getPos().toLong());
     }
 
     public void unmark(ServerWorld world, BlockPos pos) {
-        long k = pos.asLong();
-        if (posToMultiplier.containsKey(k)) {
-            posToMultiplier.remove(k);
-            markDirty();
+        if (!mayBeMarked(pos)) return;
+
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return;
+
+        LocalPosFloatMap shard = chunk.getAttached(SHARD);
+        if (shard == null || !shard.remove(LocalPosSet.pack(pos))) return;
+
+        if (shard.isEmpty()) {
+            chunk.removeAttached(SHARD);
+            markedChunks.remove(chunk.getPos().toLong());
+        } else {
+            chunk.setAttached(SHARD, shard);
         }
     }
 
@@ -90,12 +127,31 @@ public final class CropMarkers extends PersistentState {
         }
     }
 
-    public int size() {
-        return posToMultiplier.size();
+    /** Number of loaded chunks holding at least one marker. */
+    public int markedChunkCount() {
+        return markedChunks.size();
+    }
+
+    private @Nullable WorldChunk loadedChunk(BlockPos pos) {
+        return world.getChunkManager().getWorldChunk(pos.getX() >> 4, pos.getZ() >> 4);
     }
 
-    public boolean containsKey(long key) {
-        return posToMultiplier.containsKey(key);
+    private void onLoad(WorldChunk chunk) {
+        if (migration != null) migration.onChunkLoad(chunk);
+
+        LocalPosFloatMap shard = chunk.getAttached(SHARD);
+        if (shard != null && !shard.isEmpty()) markedChunks.add(chunk.getPos().toLong());
+    }
+
+    private void migrate(Legacy legacy, WorldChunk chunk, LongList positions) {
+        LocalPosFloatMap shard = chunk.getAttachedOrCreate(SHARD, LocalPosFloatMap::new);
+        for (int i = 0; i < positions.size(); i++) {
+            long packed = positions.getLong(i);
+            shard.put(LocalPosSet.pack(BlockPos.fromLong(packed)), legacy.markers.remove(packed));
+        }
+
+        chunk.setAttached(SHARD, shard);
+        markedChunks.add(chunk.getPos().toLong());
     }
 
     private static float clampMultiplier(float f) {
@@ -105,4 +161,38 @@ public final class CropMarkers extends PersistentState {
         }
         return Math.max(0.0f, Math.min(f, 16.0f)); // hard cap, just in case
     }
+
+    /** Pre-shard save: every marked crop in the world as (pos, multiplier) entries, clamped when read. */
+    private static final class Legacy extends PersistentState {
+        private final Long2FloatOpenHashMap markers = new Long2FloatOpenHashMap();
+
+        private record Entry(long pos, float mult) {}
+        private static final Codec<Entry> ENTRY_CODEC = RecordCodecBuilder.create(inst ->
+                inst.group(
+                        Codec.LONG.fieldOf("pos").forGetter(Entry::pos),
+                        Codec.FLOAT.fieldOf("mult").forGetter(Entry::mult)
+                ).apply(inst, Entry::new)
+        );
+
+        private static final Codec<Legacy> CODEC = RecordCodecBuilder.create(inst ->
+                inst.group(ENTRY_CODEC.listOf().fieldOf("entries").forGetter(legacy -> {
+                    var out = new ArrayList<Entry>(legacy.markers.size());
+                    for (var it = legacy.markers.long2FloatEntrySet().fastIterator(); it.hasNext();) {
+                        var e = it.next();
+                        out.add(new Entry(e.getLongKey(), e.getFloatValue()));
+                    }
+                    return out;
+                })).apply(inst, entries -> {
+                    Legacy legacy = new Legacy();
+                    for (Entry e : entries) {
+                        float f = clampMultiplier(e.mult());
+                        if (f > 1.0f) legacy.markers.put(e.pos(), f);
+                    }
+                    return legacy;
+                })
+        );
+
+        private static final PersistentStateType<Legacy> TYPE = new PersistentStateType<>(
+                LEGACY_KEY, Legacy::new, CODEC, DataFixTypes.SAVED_DATA_MAP_DATA);
+    }
 }
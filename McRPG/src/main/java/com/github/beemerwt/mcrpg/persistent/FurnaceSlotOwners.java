@@ -1,25 +1,38 @@
 package com.github.beemerwt.mcrpg.persistent;
 
+import com.github.beemerwt.mcrpg.McRPG;
+import com.github.beemerwt.mcrpg.util.BlockClassifier;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.block.entity.AbstractFurnaceBlockEntity;
 import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.PersistentState;
-import net.minecraft.world.PersistentStateManager;
 import net.minecraft.world.PersistentStateType;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.stream.LongStream;
 
 /**
- * Persistent ownership for furnace slots at a given BlockPos.
+ * Who filled each furnace slot, so smelting XP goes to the players who supplied it.
  * Fields:
  *  - input owner (slot 0)
  *  - fuel owner  (slot 1)
- * UUIDs are saved as strings via Codec.STRING.optionalFieldOf(...).
+ * A furnace's owners are saved with its chunk, in that chunk's {@link Shard} attachment.
+ * Entries are dropped when the furnace's block entity goes away for good (broken, exploded, replaced).
  */
-public class FurnaceSlotOwners extends PersistentState {
+public final class FurnaceSlotOwners {
     public static final class Owners {
         public UUID input;   // slot 0
         public UUID fuel;    // slot 1
@@ -41,154 +54,307 @@ public class FurnaceSlotOwners extends PersistentState {
         }
     }
 
-    private static final String KEY = "mcrpg_furnace_slot_owners";
+    private static final String LEGACY_KEY = "mcrpg_furnace_slot_owners";
 
-    private static final class Entry {
-        private final BlockPos pos;
-        private final UUID inputOwner;
-        private final UUID fuelOwner;
+    public static final AttachmentType<Shard> SHARD = AttachmentRegistry.create(
+            Identifier.of("mcrpg", "furnace_owners"), builder -> builder.persistent(Shard.CODEC));
 
-        public Entry(BlockPos pos, UUID inputOwner, UUID fuelOwner) {
-            this.pos = pos;
-            this.inputOwner = inputOwner;
-            this.fuelOwner = fuelOwner;
-        }
-
-        public Optional<String> getInputOwner() {
-            return Optional.ofNullable(inputOwner).map(UUID::toString);
-        }
+    private static final Map<ServerWorld, FurnaceSlotOwners> BY_WORLD = new HashMap<>();
 
-        public Optional<String> getFuelOwner() {
-            return Optional.ofNullable(fuelOwner).map(UUID::toString);
-        }
-    }
+    private final ServerWorld world;
 
-    private static final Codec<Entry> ENTRY_CODEC = RecordCodecBuilder.create(inst -> inst.group(
-            BlockPos.CODEC.fieldOf("pos").forGetter(e -> e.pos),
+    private final @Nullable ShardMigration migration;
 
-            Codec.STRING.optionalFieldOf("input").xmap(
-                    FurnaceSlotOwners::toUuidOpt,
-                    FurnaceSlotOwners::toStringOpt
-            ).forGetter(e -> Optional.ofNullable(e.inputOwner)),
+    private FurnaceSlotOwners(ServerWorld world) {
+        this.world = world;
 
-            Codec.STRING.optionalFieldOf("fuel").xmap(
-                    FurnaceSlotOwners::toUuidOpt,
-                    FurnaceSlotOwners::toStringOpt
-            ).forGetter(e -> Optional.ofNullable(e.fuelOwner))
-        ).apply(inst, (blockPos, input, fuel) ->
-            new Entry(blockPos, input.orElse(null), fuel.orElse(null))
-        ));
-
-    private static final Codec<List<Entry>> ENTRIES_CODEC = ENTRY_CODEC.listOf();
-
-    private static final Codec<FurnaceSlotOwners> CODEC = ENTRIES_CODEC.xmap(
-            list -> {
-                FurnaceSlotOwners f = new FurnaceSlotOwners();
-                for (Entry e : list) f.put(e.pos, e.inputOwner, e.fuelOwner);
-                return f;
-            },
-            f -> {
-                List<Entry> out = new ArrayList<>(f.byPos.size());
-                for (var it = f.byPos.long2ObjectEntrySet().fastIterator(); it.hasNext();) {
-                    var kv = it.next();
-                    BlockPos pos = BlockPos.fromLong(kv.getLongKey());
-                    var owners = kv.getValue();
-                    out.add(new Entry(pos, owners.input, owners.fuel));
-                }
-                return out;
-            }
-    );
-
-    private final Long2ObjectOpenHashMap<Owners> byPos = new Long2ObjectOpenHashMap<>();
-    public static final PersistentStateType<FurnaceSlotOwners> TYPE =
-            new PersistentStateType<>(KEY, FurnaceSlotOwners::new, CODEC, DataFixTypes.SAVED_DATA_MAP_DATA);
-
-    // ---------------------------
-    // PersistentState lifecycle
-    // ---------------------------
+        Legacy legacy = world.getPersistentStateManager().get(Legacy.TYPE);
+        this.migration = ShardMigration.start(world, legacy, legacy == null ? null : legacy.byPos.keySet(),
+                "furnace owners", (chunk, positions) -> migrate(legacy, chunk, positions));
+    }
 
-    public FurnaceSlotOwners() {
-        super();
+    public static void register() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            ShardMigration migration = get(world).migration;
+            if (migration != null) migration.onChunkLoad(chunk);
+        });
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((be, world) -> {
+            if (be instanceof AbstractFurnaceBlockEntity) get(world).evictIfGone(be.getPos());
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> BY_WORLD.remove(world));
     }
 
     public static FurnaceSlotOwners get(ServerWorld world) {
-        PersistentStateManager psm = world.getPersistentStateManager();
-        return psm.getOrCreate(TYPE);
+        return BY_WORLD.computeIfAbsent(world, FurnaceSlotOwners::new);
     }
 
     // ---------------------------
     // Convenience API
     // ---------------------------
 
-    public Owners get(BlockPos pos) {
-        return byPos.get(pos.asLong());
-    }
+    /** Snapshot of the owners at {@code pos}, or null if none are recorded. */
+    public @Nullable Owners get(BlockPos pos) {
+        Shard shard = shardAt(pos);
+        if (shard == null) return null;
 
-    public Owners getOrCreate(BlockPos pos) {
-        Owners val = byPos.get(pos.asLong());
-        if (val == null) {
-            val = new Owners();
-            byPos.put(pos.asLong(), val);
-            markDirty();
-        }
-        return val;
+        int idx = shard.indexOf(LocalPosSet.pack(pos));
+        return idx < 0 ? null : new Owners(shard.input(idx), shard.fuel(idx));
     }
 
     public void setAll(BlockPos pos, UUID owner) {
         Objects.requireNonNull(owner, "owner");
-        byPos.put(pos.asLong(), new Owners(owner));
-        markDirty();
+        update(pos, owner, owner);
     }
 
     public void setInput(BlockPos pos, UUID owner) {
         Objects.requireNonNull(owner, "owner");
-        getOrCreate(pos).input = owner;
-        markDirty();
+        update(pos, owner, getFuelOwner(pos));
     }
 
     public void setFuel(BlockPos pos, UUID owner) {
         Objects.requireNonNull(owner, "owner");
-        getOrCreate(pos).fuel = owner;
-        markDirty();
+        update(pos, getInputOwner(pos), owner);
     }
 
-    public UUID getInputOwner(BlockPos pos) {
-        Owners o = byPos.get(pos.asLong());
-        return o == null ? null : o.input;
+    public @Nullable UUID getInputOwner(BlockPos pos) {
+        Shard shard = shardAt(pos);
+        if (shard == null) return null;
+
+        int idx = shard.indexOf(LocalPosSet.pack(pos));
+        return idx < 0 ? null : shard.input(idx);
     }
 
-    public UUID getFuelOwner(BlockPos pos) {
-        Owners o = byPos.get(pos.asLong());
-        return o == null ? null : o.fuel;
+    public @Nullable UUID getFuelOwner(BlockPos pos) {
+        Shard shard = shardAt(pos);
+        if (shard == null) return null;
+
+        int idx = shard.indexOf(LocalPosSet.pack(pos));
+        return idx < 0 ? null : shard.fuel(idx);
     }
 
     public void remove(BlockPos pos) {
-        if (byPos.remove(pos.asLong()) != null) {
-            markDirty();
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return;
+
+        Shard shard = chunk.getAttached(SHARD);
+        if (shard == null || !shard.remove(LocalPosSet.pack(pos))) return;
+
+        if (shard.isEmpty()) chunk.removeAttached(SHARD);
+        else chunk.setAttached(SHARD, shard);
+    }
+
+    // ---------------------------
+    // Internals
+    // ---------------------------
+
+    private void update(BlockPos pos, @Nullable UUID input, @Nullable UUID fuel) {
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return;
+
+        Shard shard = chunk.getAttachedOrCreate(SHARD, Shard::new);
+        if (shard.put(LocalPosSet.pack(pos), input, fuel)) {
+            chunk.setAttached(SHARD, shard); // flags the chunk for saving
         }
     }
 
-    public boolean isEmpty() {
-        return byPos.isEmpty();
+    /** Block entity unload fires for both chunk unloads and removals; only the latter leaves a non-furnace behind. */
+    private void evictIfGone(BlockPos pos) {
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null || chunk.getAttached(SHARD) == null) return;
+        if (BlockClassifier.isFurnace(chunk.getBlockState(pos).getBlock())) return;
+
+        remove(pos);
+    }
+
+    private @Nullable Shard shardAt(BlockPos pos) {
+        WorldChunk chunk = loadedChunk(pos);
+        return chunk == null ? null : chunk.getAttached(SHARD);
     }
 
-    private void put(BlockPos pos, UUID input, UUID fuel) {
-        byPos.put(pos.asLong(), new Owners(input, fuel));
+    private @Nullable WorldChunk loadedChunk(BlockPos pos) {
+        return world.getChunkManager().getWorldChunk(pos.getX() >> 4, pos.getZ() >> 4);
     }
 
-    // Helpers
-    private static Optional<UUID> toUuidOpt(Optional<String> s) {
-        if (s.isEmpty()) return Optional.empty();
-        var str = s.get();
-        if (str.isEmpty()) return Optional.empty();
-        try {
-            return Optional.of(UUID.fromString(str));
-        } catch (IllegalArgumentException ex) {
-            return Optional.empty();
+    private static void migrate(Legacy legacy, WorldChunk chunk, LongList positions) {
+        Shard shard = chunk.getAttachedOrCreate(SHARD, Shard::new);
+        int dropped = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            long packed = positions.getLong(i);
+            Owners owners = legacy.byPos.remove(packed);
+            BlockPos pos = BlockPos.fromLong(packed);
+
+            // The old format never forgot furnaces that were blown up or replaced
+            if (owners == null || owners.isAllNull() || !BlockClassifier.isFurnace(chunk.getBlockState(pos).getBlock())) {
+                dropped++;
+                continue;
+            }
+            shard.put(LocalPosSet.pack(pos), owners.input, owners.fuel);
+        }
+
+        if (shard.isEmpty()) chunk.removeAttached(SHARD);
+        else chunk.setAttached(SHARD, shard);
+
+        if (dropped > 0) {
+            McRPG.getLogger().debug("Dropped {} stale furnace owners in chunk {}", dropped, chunk.getPos());
         }
     }
 
-    private static Optional<String> toStringOpt(Optional<UUID> u) {
-        return u.map(UUID::toString);
+    /**
+     * Sorted primitive furnace owners inside a single chunk.
+     * Keys use the {@link LocalPosSet#pack} encoding; each key has four longs (input msb/lsb, fuel msb/lsb),
+     * with 0/0 meaning no owner. On disk it's one NBT long array of five longs per furnace.
+     */
+    public static final class Shard {
+        private static final int STRIDE = 4;
+        private static final int[] NO_KEYS = new int[0];
+        private static final long[] NO_OWNERS = new long[0];
+
+        public static final Codec<Shard> CODEC = Codec.LONG_STREAM.xmap(
+                stream -> Shard.ofRecords(stream.toArray()),
+                shard -> {
+                    long[] out = new long[shard.size * (STRIDE + 1)];
+                    for (int i = 0, o = 0; i < shard.size; i++) {
+                        out[o++] = shard.keys[i];
+                        System.arraycopy(shard.owners, i * STRIDE, out, o, STRIDE);
+                        o += STRIDE;
+                    }
+                    return LongStream.of(out);
+                }
+        );
+
+        private int[] keys;
+        private long[] owners;
+        private int size;
+
+        public Shard() {
+            this.keys = NO_KEYS;
+            this.owners = NO_OWNERS;
+        }
+
+        static Shard ofRecords(long[] records) {
+            Shard shard = new Shard();
+            for (int o = 0; o + STRIDE < records.length; o += STRIDE + 1) {
+                shard.put((int) records[o],
+                        toUuid(records[o + 1], records[o + 2]),
+                        toUuid(records[o + 3], records[o + 4]));
+            }
+            return shard;
+        }
+
+        int indexOf(int local) {
+            return Arrays.binarySearch(keys, 0, size, local);
+        }
+
+        @Nullable UUID input(int idx) {
+            return toUuid(owners[idx * STRIDE], owners[idx * STRIDE + 1]);
+        }
+
+        @Nullable UUID fuel(int idx) {
+            return toUuid(owners[idx * STRIDE + 2], owners[idx * STRIDE + 3]);
+        }
+
+        /** @return true if the shard changed; two null owners remove the entry */
+        boolean put(int local, @Nullable UUID input, @Nullable UUID fuel) {
+            if (input == null && fuel == null) return remove(local);
+
+            long inMsb = input == null ? 0L : input.getMostSignificantBits();
+            long inLsb = input == null ? 0L : input.getLeastSignificantBits();
+            long fuelMsb = fuel == null ? 0L : fuel.getMostSignificantBits();
+            long fuelLsb = fuel == null ? 0L : fuel.getLeastSignificantBits();
+
+            int idx = indexOf(local);
+            if (idx < 0) {
+                idx = -idx - 1;
+                if (size == keys.length) {
+                    int cap = Math.max(4, size + (size >> 1));
+                    keys = Arrays.copyOf(keys, cap);
+                    owners = Arrays.copyOf(owners, cap * STRIDE);
+                }
+                System.arraycopy(keys, idx, keys, idx + 1, size - idx);
+                System.arraycopy(owners, idx * STRIDE, owners, (idx + 1) * STRIDE, (size - idx) * STRIDE);
+                keys[idx] = local;
+                size++;
+            } else {
+                int at = idx * STRIDE;
+                if (owners[at] == inMsb && owners[at + 1] == inLsb
+                        && owners[at + 2] == fuelMsb && owners[at + 3] == fuelLsb) return false;
+            }
+
+            int at = idx * STRIDE;
+            owners[at] = inMsb;
+            owners[at + 1] = inLsb;
+            owners[at + 2] = fuelMsb;
+            owners[at + 3] = fuelLsb;
+            return true;
+        }
+
+        /** @return true if the shard changed */
+        boolean remove(int local) {
+            int idx = indexOf(local);
+            if (idx < 0) return false;
+
+            System.arraycopy(keys, idx + 1, keys, idx, size - idx - 1);
+            System.arraycopy(owners, (idx + 1) * STRIDE, owners, idx * STRIDE, (size - idx - 1) * STRIDE);
+            size--;
+            return true;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        private static @Nullable UUID toUuid(long msb, long lsb) {
+            return msb == 0L && lsb == 0L ? null : new UUID(msb, lsb);
+        }
+    }
+
+    /** Pre-shard save: one list of (pos, input, fuel) for the whole world, with UUIDs as strings. */
+    private static final class Legacy extends PersistentState {
+        private record Entry(BlockPos pos, Optional<UUID> input, Optional<UUID> fuel) {}
+
+        private static final Codec<Optional<UUID>> UUID_STRING = Codec.STRING.xmap(
+                s -> {
+                    try {
+                        return s.isEmpty() ? Optional.<UUID>empty() : Optional.of(UUID.fromString(s));
+                    } catch (IllegalArgumentException ex) {
+                        return Optional.<UUID>empty();
+                    }
+                },
+                u -> u.map(UUID::toString).orElse("")
+        );
+
+        private static final Codec<Entry> ENTRY_CODEC = RecordCodecBuilder.create(inst -> inst.group(
+                BlockPos.CODEC.fieldOf("pos").forGetter(Entry::pos),
+                UUID_STRING.optionalFieldOf("input", Optional.empty()).forGetter(Entry::input),
+                UUID_STRING.optionalFieldOf("fuel", Optional.empty()).forGetter(Entry::fuel)
+        ).apply(inst, Entry::new));
+
+        private static final Codec<Legacy> CODEC = ENTRY_CODEC.listOf().xmap(
+                list -> {
+                    Legacy legacy = new Legacy();
+                    for (Entry e : list) {
+                        legacy.byPos.put(e.pos().asLong(), new Owners(e.input().orElse(null), e.fuel().orElse(null)));
+                    }
+                    return legacy;
+                },
+                legacy -> {
+                    List<Entry> out = new ArrayList<>(legacy.byPos.size());
+                    for (var it = legacy.byPos.long2ObjectEntrySet().fastIterator(); it.hasNext();) {
+                        var kv = it.next();
+                        out.add(new Entry(BlockPos.fromLong(kv.getLongKey()),
+                                Optional.ofNullable(kv.getValue().input), Optional.ofNullable(kv.getValue().fuel)));
+                    }
+                    return out;
+                }
+        );
+
+        private final Long2ObjectOpenHashMap<Owners> byPos = new Long2ObjectOpenHashMap<>();
+
+        private static final PersistentStateType<Legacy> TYPE = new PersistentStateType<>(
+                LEGACY_KEY, Legacy::new, CODEC, DataFixTypes.SAVED_DATA_MAP_DATA);
     }
 }
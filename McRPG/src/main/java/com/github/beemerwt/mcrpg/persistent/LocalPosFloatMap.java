@@ -0,0 +1,97 @@
+package com.github.beemerwt.mcrpg.persistent;
+
+import com.mojang.serialization.Codec;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Sorted primitive map from block positions inside a single chunk to a float.
+ * Keys use the {@link LocalPosSet#pack} encoding; on disk the map is one NBT int array of
+ * {@code key, floatBits} pairs, so a shard costs 8 bytes per position.
+ */
+public final class LocalPosFloatMap {
+    private static final int[] NO_KEYS = new int[0];
+    private static final float[] NO_VALUES = new float[0];
+
+    public static final Codec<LocalPosFloatMap> CODEC = Codec.INT_STREAM.xmap(
+            stream -> LocalPosFloatMap.ofPairs(stream.toArray()),
+            map -> {
+                int[] pairs = new int[map.size * 2];
+                for (int i = 0; i < map.size; i++) {
+                    pairs[2 * i] = map.keys[i];
+                    pairs[2 * i + 1] = Float.floatToIntBits(map.values[i]);
+                }
+                return IntStream.of(pairs);
+            }
+    );
+
+    private int[] keys;
+    private float[] values;
+    private int size;
+
+    public LocalPosFloatMap() {
+        this.keys = NO_KEYS;
+        this.values = NO_VALUES;
+    }
+
+    static LocalPosFloatMap ofPairs(int[] pairs) {
+        LocalPosFloatMap map = new LocalPosFloatMap();
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            map.put(pairs[i], Float.intBitsToFloat(pairs[i + 1]));
+        }
+        return map;
+    }
+
+    /** @return the value at {@code local}, or {@code absent} if there is none */
+    public float get(int local, float absent) {
+        int idx = Arrays.binarySearch(keys, 0, size, local);
+        return idx >= 0 ? values[idx] : absent;
+    }
+
+    public boolean containsKey(int local) {
+        return Arrays.binarySearch(keys, 0, size, local) >= 0;
+    }
+
+    /** @return true if the map changed */
+    public boolean put(int local, float value) {
+        int idx = Arrays.binarySearch(keys, 0, size, local);
+        if (idx >= 0) {
+            if (Float.compare(values[idx], value) == 0) return false;
+            values[idx] = value;
+            return true;
+        }
+
+        int at = -idx - 1;
+        if (size == keys.length) {
+            int cap = Math.max(8, size + (size >> 1));
+            keys = Arrays.copyOf(keys, cap);
+            values = Arrays.copyOf(values, cap);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(values, at, values, at + 1, size - at);
+        keys[at] = local;
+        values[at] = value;
+        size++;
+        return true;
+    }
+
+    /** @return true if the map changed */
+    public boolean remove(int local) {
+        int idx = Arrays.binarySearch(keys, 0, size, local);
+        if (idx < 0) return false;
+
+        System.arraycopy(keys, idx + 1, keys, idx, size - idx - 1);
+        System.arraycopy(values, idx + 1, values, idx, size - idx - 1);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.beemerwt.mcrpg.persistent;
+
+import com.mojang.serialization.Codec;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Sorted primitive set of block positions inside a single chunk.
+ * Each position is packed into an int as {@code (y + 2048) << 8 | (z & 15) << 4 | (x & 15)},
+ * so a shard costs 4 bytes per position in memory and on disk (NBT int array).
+ */
+public final class LocalPosSet {
+    private static final int Y_OFFSET = 2048;
+    private static final int[] EMPTY = new int[0];
+
+    public static final Codec<LocalPosSet> CODEC = Codec.INT_STREAM.xmap(
+            stream -> LocalPosSet.ofUnsorted(stream.toArray()),
+            set -> IntStream.of(set.values).limit(set.size)
+    );
+
+    private int[] values;
+    private int size;
+
+    public LocalPosSet() {
+        this.values = EMPTY;
+    }
+
+    private LocalPosSet(int[] sorted, int size) {
+        this.values = sorted;
+        this.size = size;
+    }
+
+    static LocalPosSet ofUnsorted(int[] raw) {
+        int[] sorted = raw.clone();
+        Arrays.sort(sorted);
+
+        // Drop duplicates in place
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[n - 1] != sorted[i]) sorted[n++] = sorted[i];
+        }
+        return new LocalPosSet(sorted, n);
+    }
+
+    public static int pack(BlockPos pos) {
+        return pack(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public static int pack(int x, int y, int z) {
+        return ((y + Y_OFFSET) & 0xFFF) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    public boolean contains(int local) {
+        return Arrays.binarySearch(values, 0, size, local) >= 0;
+    }
+
+    /** @return true if the set changed */
+    public boolean add(int local) {
+        int idx = Arrays.binarySearch(values, 0, size, local);
+        if (idx >= 0) return false;
+
+        int at = -idx - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(8, size + (size >> 1)));
+        }
+        System.arraycopy(values, at, values, at + 1, size - at);
+        values[at] = local;
+        size++;
+        return true;
+    }
+
+    /** @return true if the set changed */
+    public boolean remove(int local) {
+        int idx = Arrays.binarySearch(values, 0, size, local);
+        if (idx < 0) return false;
+
+        System.arraycopy(values, idx + 1, values, idx, size - idx - 1);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
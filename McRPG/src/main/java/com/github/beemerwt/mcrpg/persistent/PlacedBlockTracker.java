@@ -2,58 +2,121 @@ package com.github.beemerwt.mcrpg.persistent;
 
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.PersistentState;
-import net.minecraft.world.PersistentStateManager;
 import net.minecraft.world.PersistentStateType;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 
-public final class PlacedBlockTracker extends PersistentState {
-    private static final String KEY = "mcrpg_player_placed";
-    private final Set<Long> positions = new HashSet<>();
+/**
+ * Marks blocks players placed themselves, so breaking them again gives no XP.
+ * Marks are stored on their chunk as a {@link LocalPosSet} attachment: they are only visible while
+ * that chunk is loaded, and marking a block flags just that chunk for saving.
+ */
+public final class PlacedBlockTracker {
+    private static final String LEGACY_KEY = "mcrpg_player_placed";
 
-    // Gross...
-    private static final Codec<PlacedBlockTracker> CODEC = RecordCodecBuilder.create(inst ->
-            inst.group(Codec.LONG.listOf().fieldOf("positions").forGetter(tracker ->
-                    new ArrayList<>(tracker.positions))
-            ).apply(inst, (positions) -> {
-                PlacedBlockTracker tracker = new PlacedBlockTracker();
-                tracker.positions.addAll(positions);
-                return tracker;
-            })
-    );
+    public static final AttachmentType<LocalPosSet> SHARD = AttachmentRegistry.create(
+            Identifier.of("mcrpg", "player_placed"), builder -> builder.persistent(LocalPosSet.CODEC));
 
-    public static final PersistentStateType<PlacedBlockTracker> TYPE = new PersistentStateType<>(
-            KEY, PlacedBlockTracker::new, CODEC, DataFixTypes.SAVED_DATA_MAP_DATA);
+    private static final Map<ServerWorld, PlacedBlockTracker> BY_WORLD = new HashMap<>();
 
-    public PlacedBlockTracker() {
-        super();
+    private final ServerWorld world;
+
+    // Moves marks saved before they were kept per chunk; null if the world has none
+    private final @Nullable ShardMigration migration;
+
+    private PlacedBlockTracker(ServerWorld world) {
+        this.world = world;
+
+        Legacy legacy = world.getPersistentStateManager().get(Legacy.TYPE);
+        this.migration = ShardMigration.start(world, legacy, legacy == null ? null : legacy.positions,
+                "placed blocks", (chunk, positions) -> migrate(legacy, chunk, positions));
+    }
+
+    public static void register() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            ShardMigration migration = get(world).migration;
+            if (migration != null) migration.onChunkLoad(chunk);
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> BY_WORLD.remove(world));
     }
 
     public static PlacedBlockTracker get(ServerWorld world) {
-        PersistentStateManager psm = world.getPersistentStateManager();
-        return psm.getOrCreate(TYPE);
+        return BY_WORLD.computeIfAbsent(world, PlacedBlockTracker::new);
     }
 
     public boolean isMarked(BlockPos pos) {
-        return positions.contains(pos.asLong());
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return false;
+
+        LocalPosSet shard = chunk.getAttached(SHARD);
+        return shard != null && shard.contains(LocalPosSet.pack(pos));
     }
 
     public void mark(ServerWorld world, BlockPos pos) {
-        if (positions.add(pos.asLong())) {
-            markDirty();
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return;
+
+        LocalPosSet shard = chunk.getAttachedOrCreate(SHARD, LocalPosSet::new);
+        if (shard.add(LocalPosSet.pack(pos))) {
+            chunk.setAttached(SHARD, shard); // flags the chunk for saving
         }
     }
 
     public void unmark(ServerWorld world, BlockPos pos) {
-        if (positions.remove(pos.asLong())) {
-            markDirty();
+        WorldChunk chunk = loadedChunk(pos);
+        if (chunk == null) return;
+
+        LocalPosSet shard = chunk.getAttached(SHARD);
+        if (shard == null || !shard.remove(LocalPosSet.pack(pos))) return;
+
+        if (shard.isEmpty()) chunk.removeAttached(SHARD);
+        else chunk.setAttached(SHARD, shard);
+    }
+
+    private @Nullable WorldChunk loadedChunk(BlockPos pos) {
+        return world.getChunkManager().getWorldChunk(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    private static void migrate(Legacy legacy, WorldChunk chunk, LongList positions) {
+        LocalPosSet shard = chunk.getAttachedOrCreate(SHARD, LocalPosSet::new);
+        for (int i = 0; i < positions.size(); i++) {
+            long packed = positions.getLong(i);
+            shard.add(LocalPosSet.pack(BlockPos.fromLong(packed)));
+            legacy.positions.remove(packed);
         }
+        chunk.setAttached(SHARD, shard);
     }
-}
 
+    /** Where marks used to be saved: one list of every placed block in the world, as packed positions. */
+    private static final class Legacy extends PersistentState {
+        private final LongOpenHashSet positions = new LongOpenHashSet();
+
+        private static final Codec<Legacy> CODEC = RecordCodecBuilder.create(inst ->
+                inst.group(Codec.LONG.listOf().fieldOf("positions").forGetter(legacy ->
+                        new ArrayList<>(legacy.positions))
+                ).apply(inst, (positions) -> {
+                    Legacy legacy = new Legacy();
+                    legacy.positions.addAll(positions);
+                    return legacy;
+                })
+        );
+
+        private static final PersistentStateType<Legacy> TYPE = new PersistentStateType<>(
+                LEGACY_KEY, Legacy::new, CODEC, DataFixTypes.SAVED_DATA_MAP_DATA);
+    }
+}
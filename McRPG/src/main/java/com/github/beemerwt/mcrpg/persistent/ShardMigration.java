@@ -0,0 +1,79 @@
+package com.github.beemerwt.mcrpg.persistent;
+
+import com.github.beemerwt.mcrpg.McRPG;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+
+/**
+ * One-time move of a world-wide {@link PersistentState} into chunk attachments, a chunk at a time.
+ * - The legacy positions are bucketed by chunk up front; each bucket is handed over the first time its chunk loads.
+ * - Chunks already loaded when the move starts are handed over immediately, as they won't fire CHUNK_LOAD again.
+ * - The legacy state is marked dirty after every chunk, so it shrinks on disk as the world gets visited.
+ * Server thread only.
+ */
+final class ShardMigration {
+    private final ServerWorld world;
+    private final PersistentState legacy;
+    private final String what;
+    private final BiConsumer<WorldChunk, LongList> moveChunk;
+    private final Long2ObjectOpenHashMap<LongArrayList> pending = new Long2ObjectOpenHashMap<>();
+
+    private ShardMigration(ServerWorld world, PersistentState legacy, String what,
+                           BiConsumer<WorldChunk, LongList> moveChunk) {
+        this.world = world;
+        this.legacy = legacy;
+        this.what = what;
+        this.moveChunk = moveChunk;
+    }
+
+    /**
+     * Start moving {@code positions} (packed BlockPos keys of {@code legacy}); null if there is nothing to move.
+     * {@code moveChunk} receives a chunk with its positions, and must take them out of {@code legacy}.
+     */
+    static @Nullable ShardMigration start(ServerWorld world, @Nullable PersistentState legacy,
+                                          @Nullable LongCollection positions, String what,
+                                          BiConsumer<WorldChunk, LongList> moveChunk) {
+        if (legacy == null || positions == null || positions.isEmpty()) return null;
+
+        ShardMigration m = new ShardMigration(world, legacy, what, moveChunk);
+        for (LongIterator it = positions.iterator(); it.hasNext();) {
+            long packed = it.nextLong();
+            long chunk = ChunkPos.toLong(BlockPos.unpackLongX(packed) >> 4, BlockPos.unpackLongZ(packed) >> 4);
+            m.pending.computeIfAbsent(chunk, k -> new LongArrayList()).add(packed);
+        }
+
+        McRPG.getLogger().info("Migrating {} {} in {} chunks of {}",
+                positions.size(), what, m.pending.size(), world.getRegistryKey().getValue());
+
+        for (long chunk : m.pending.keySet().toLongArray()) {
+            WorldChunk wc = world.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunk), ChunkPos.getPackedZ(chunk));
+            if (wc != null) m.onChunkLoad(wc);
+        }
+        return m;
+    }
+
+    void onChunkLoad(WorldChunk chunk) {
+        if (pending.isEmpty()) return;
+
+        LongArrayList positions = pending.remove(chunk.getPos().toLong());
+        if (positions == null) return;
+
+        moveChunk.accept(chunk, positions);
+        legacy.markDirty();
+
+        if (pending.isEmpty()) {
+            McRPG.getLogger().info("Finished migrating {} for {}", what, world.getRegistryKey().getValue());
+        }
+    }
+}
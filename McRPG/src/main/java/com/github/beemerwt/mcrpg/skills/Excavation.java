@@ -26,10 +26,9 @@ public class Excavation {
                                   List<ItemStack> drops)
     {
         ExcavationConfig cfg = ConfigManager.getSkillConfig(SkillType.EXCAVATION);
-        var blocks = cfg.getBlocks();
         var block = state.getBlock();
 
-        long blockXp = Leveling.resolveBlockXp(blocks, block);
+        long blockXp = Leveling.resolveBlockXp(SkillType.EXCAVATION, block);
         if (blockXp <= 0) return;
 
         int level = Leveling.getLevel(player, SkillType.EXCAVATION);
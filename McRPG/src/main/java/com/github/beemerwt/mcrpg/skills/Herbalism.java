@@ -48,10 +48,9 @@ public class Herbalism {
                                     List<ItemStack> drops)
     {
         HerbalismConfig cfg = ConfigManager.getSkillConfig(SkillType.HERBALISM);
-        var blocks = cfg.getBlocks();
         var block = state.getBlock();
 
-        long blockXp = Leveling.resolveBlockXp(blocks, block);
+        long blockXp = Leveling.resolveBlockXp(SkillType.HERBALISM, block);
         if (blockXp <= 0) return;
 
         if (!Growth.isMature(state)) return; // Only award XP for fully grown crops
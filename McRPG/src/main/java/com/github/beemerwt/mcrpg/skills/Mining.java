@@ -35,10 +35,9 @@ public class Mining {
                                     List<ItemStack> drops)
     {
         MiningConfig cfg = ConfigManager.getSkillConfig(SkillType.MINING);
-        var blocks = cfg.getBlocks();
         var block = state.getBlock();
 
-        long blockXp = Leveling.resolveBlockXp(blocks, block);
+        long blockXp = Leveling.resolveBlockXp(SkillType.MINING, block);
         if (blockXp <= 0) return;
 
         int level = Leveling.getLevel(player, SkillType.MINING);
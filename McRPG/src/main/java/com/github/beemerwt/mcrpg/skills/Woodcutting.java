@@ -38,29 +38,20 @@ public class Woodcutting {
     {
         WoodcuttingConfig cfg = ConfigManager.getSkillConfig(SkillType.WOODCUTTING);
         var block = state.getBlock();
-        long blockXp = Leveling.resolveBlockXp(cfg.getBlocks(), block);
+        long blockXp = Leveling.resolveBlockXp(SkillType.WOODCUTTING, block);
         if (blockXp <= 0) return;
 
         int level = Leveling.getLevel(player, SkillType.WOODCUTTING);
 
         // Only trigger abilities when using an axe
         if (ItemClassifier.isAxe(player.getMainHandStack().getItem())) {
-            if (AbilityManager.isActive(player, ActiveAbilityType.TREE_FELLER)) {
-                long totalFromFeller = TreeFeller.fellAndProcess(player, pos, level, cfg);
-                if (totalFromFeller <= 0) return;
+            boolean felling = AbilityManager.isActive(player, ActiveAbilityType.TREE_FELLER)
+                    && TreeFeller.fell(player, pos, level, cfg);
+            if (felling) return; // XP for the tree is paid when the felling completes
 
-                long awarded = Math.max(0, Math.round(totalFromFeller * cfg.xpModifier));
-                if (awarded <= 0) return;
-
-                McRPG.getLogger().debug("{} Woodcutting XP (Tree Feller) -> {}",
-                        awarded, player.getName().getString());
-                Leveling.addXp(player, SkillType.WOODCUTTING, awarded);
-                return; // IMPORTANT: don't double-count the original block
-            } else {
-                // Normal single-block double drops
-                if (DoubleDrops.processTrigger(cfg.doubleDrops, level, world, pos, block, drops)) {
-                    blockXp *= 2;
-                }
+            // Normal single-block double drops
+            if (DoubleDrops.processTrigger(cfg.doubleDrops, level, world, pos, block, drops)) {
+                blockXp *= 2;
             }
         }
 
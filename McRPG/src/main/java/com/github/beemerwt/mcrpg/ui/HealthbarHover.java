@@ -1,8 +1,10 @@
 package com.github.beemerwt.mcrpg.ui;
 
+import com.github.beemerwt.mcrpg.managers.ConfigManager;
 import com.github.beemerwt.mcrpg.text.NamedTextColor;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.entity.passive.WolfEntity;
@@ -12,21 +14,60 @@ import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.text.TextColor;
 import net.minecraft.util.hit.HitResult;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.RaycastContext;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Hearts over the hostile mob a player is looking at.
+ * - Each player is sampled every healthbarSampleTicks, at a fixed offset so players don't all land on one tick.
+ * - A player whose view hasn't moved keeps their last target; the full raycast reruns on movement or every REFRESH_TICKS.
+ * - Heart texts are built once per (filled, shown) heart count and reused.
+ * - Shown bars hold the entity itself, so they are hidden in whichever world it is in.
+ */
 public final class HealthbarHover {
     // How long to keep the bar visible after last hover (ticks)
     private static final int SHOW_TICKS = 12;
     private static final double MAX_DISTANCE = 8.0;
 
-    // Track when we last showed a bar per-entity so we can hide it later
-    private static final Map<UUID, Integer> entityExpiry = new HashMap<>();
-    // Cache original names so we can restore
-    private static final Map<UUID, Text> originalNames = new HashMap<>();
+    // Re-raycast when the eye moves this far (squared blocks) or the view turns past ~2 degrees
+    private static final double MOVE_EPSILON_SQ = 0.05 * 0.05;
+    private static final double TURN_COS = 0.9994;
+    // ...and at least this often, so mobs walking into view are still picked up
+    private static final int REFRESH_TICKS = 10;
+
+    /** A bar currently replacing an entity's name. */
+    private static final class Shown {
+        final LivingEntity entity;
+        final Text originalName; // may be null
+        long expiresAt;
+
+        Shown(LivingEntity entity, Text originalName) {
+            this.entity = entity;
+            this.originalName = originalName;
+        }
+    }
+
+    /** What a player was looking at when last sampled. */
+    private static final class Viewer {
+        final int phase;
+        Vec3d eye = Vec3d.ZERO;
+        Vec3d dir = Vec3d.ZERO;
+        LivingEntity target;
+        long castAt = Long.MIN_VALUE;
+
+        Viewer(UUID id) {
+            this.phase = id.hashCode() & 0x7fffffff;
+        }
+    }
+
+    private static final Map<UUID, Shown> shown = new HashMap<>();
+    private static final Map<UUID, Viewer> viewers = new HashMap<>();
+    private static long tick = 0L;
 
     // Heart glyphs via escapes to keep code ASCII-only
     private static final String HEART  = "❤";
@@ -34,44 +75,70 @@ public final class HealthbarHover {
     private static final TextColor HEART_FULL_COLOR  = NamedTextColor.DARK_RED.asTextColor();
     private static final TextColor HEART_EMPTY_COLOR = NamedTextColor.DARK_GRAY.asTextColor();
 
+    // [heartsDisplayed][filledHearts], built on first use
+    private static final Text[][] HEART_TEXTS = new Text[MAX_HEARTS + 1][MAX_HEARTS + 1];
+
     public static void init() {
         ServerTickEvents.START_SERVER_TICK.register(HealthbarHover::onTick);
         ServerLivingEntityEvents.ALLOW_DEATH.register((entity, source, amount) -> {
             HealthbarHover.clearBarNow(entity); // restore original name & hide
             return true; // do not cancel death
         });
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> viewers.remove(handler.player.getUuid()));
     }
 
     private static void onTick(MinecraftServer server) {
-        // 1) Update for players looking at something
+        tick++;
+        final int cadence = Math.max(1, ConfigManager.getGeneralConfig().healthbarSampleTicks);
+
+        // 1) Update for players looking at something, each on their own phase
         for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
-            var target = getLookEntity(p, MAX_DISTANCE);
+            Viewer v = viewers.computeIfAbsent(p.getUuid(), Viewer::new);
+            if ((tick + v.phase) % cadence != 0) continue;
+
+            var target = sample(p, v);
             if (target != null) {
-                showBar(target);
+                showBar(target, cadence);
             }
         }
 
         // 2) Hide expired bars
-        var it = entityExpiry.entrySet().iterator();
+        if (shown.isEmpty()) return;
+        Iterator<Shown> it = shown.values().iterator();
         while (it.hasNext()) {
-            var e = it.next();
-            int remaining = e.getValue() - 1;
-            if (remaining <= 0) {
-                var id = e.getKey();
-                var entity = server.getOverworld().getEntity(id); // good enough if most are in OW; for multi-dim, track Ref<ServerWorld>
-                if (entity instanceof LivingEntity le) {
-                    hideBar(le);
-                }
-                it.remove();
-            } else {
-                e.setValue(remaining);
-            }
+            Shown s = it.next();
+            if (s.expiresAt > tick) continue;
+            restore(s);
+            it.remove();
         }
     }
 
-    private static void showBar(LivingEntity le) {
-        UUID id = le.getUuid();
+    /** The player's target, reusing the last one if their view hasn't moved and it is still valid. */
+    private static LivingEntity sample(ServerPlayerEntity p, Viewer v) {
+        Vec3d eye = p.getCameraPosVec(1.0f);
+        Vec3d dir = p.getRotationVec(1.0f);
+
+        boolean still = tick - v.castAt < REFRESH_TICKS
+                && eye.squaredDistanceTo(v.eye) <= MOVE_EPSILON_SQ
+                && dir.dotProduct(v.dir) >= TURN_COS;
+
+        if (still) {
+            LivingEntity t = v.target;
+            if (t == null) return null;
+            if (t.isAlive() && t.getEntityWorld() == p.getEntityWorld()
+                    && t.squaredDistanceTo(eye) <= (MAX_DISTANCE + 2.0) * (MAX_DISTANCE + 2.0)) {
+                return t;
+            }
+        }
 
+        v.eye = eye;
+        v.dir = dir;
+        v.castAt = tick;
+        v.target = getLookEntity(p, eye, dir, MAX_DISTANCE);
+        return v.target;
+    }
+
+    private static void showBar(LivingEntity le, int cadence) {
         float hp  = Math.max(0f, le.getHealth());
         float max = Math.max(1f, le.getMaxHealth());
 
@@ -86,7 +153,31 @@ public final class HealthbarHover {
         if (filledHearts < 0) filledHearts = 0;
         if (filledHearts > heartsDisplayed) filledHearts = heartsDisplayed;
 
-        var bar = Text.empty();
+        Text bar = hearts(heartsDisplayed, filledHearts);
+
+        // Cache and update custom name
+        Shown s = shown.get(le.getUuid());
+        if (s == null || s.entity != le) {
+            // Same UUID, new entity object (changed dimension): it already wears our bar, so keep the real name
+            Text original = (s != null) ? s.originalName : realName(le.getCustomName());
+            if (s != null) restore(s);
+            s = new Shown(le, original);
+            shown.put(le.getUuid(), s);
+        }
+
+        // Memoized texts make an unchanged bar an identity hit
+        if (le.getCustomName() != bar) le.setCustomName(bar);
+        if (!le.isCustomNameVisible()) le.setCustomNameVisible(true);
+
+        // Refresh visibility timer; outlive the gap between samples
+        s.expiresAt = tick + Math.max(SHOW_TICKS, cadence * 2L);
+    }
+
+    private static Text hearts(int heartsDisplayed, int filledHearts) {
+        Text cached = HEART_TEXTS[heartsDisplayed][filledHearts];
+        if (cached != null) return cached;
+
+        MutableText bar = Text.empty();
         for (int i = 0; i < heartsDisplayed; i++) {
             boolean isFull = i < filledHearts;
             bar = bar.append(
@@ -94,37 +185,34 @@ public final class HealthbarHover {
                             .styled(s -> s.withColor(isFull ? HEART_FULL_COLOR : HEART_EMPTY_COLOR))
             );
         }
+        HEART_TEXTS[heartsDisplayed][filledHearts] = bar;
+        return bar;
+    }
 
-        // Cache and update custom name
-        originalNames.putIfAbsent(id, le.getCustomName());
-        le.setCustomName(bar);
-        le.setCustomNameVisible(true);
-
-        // Refresh visibility timer
-        entityExpiry.put(id, SHOW_TICKS);
+    /** A name that is one of our bars is never the entity's own. */
+    private static Text realName(Text name) {
+        if (name == null) return null;
+        for (Text[] row : HEART_TEXTS) {
+            for (Text t : row) if (t == name) return null;
+        }
+        return name.getString().contains(HEART) ? null : name;
     }
 
-    private static void hideBar(LivingEntity le) {
-        UUID id = le.getUuid();
-        Text orig = originalNames.remove(id);
-        le.setCustomName(orig); // may be null
+    private static void restore(Shown s) {
+        LivingEntity le = s.entity;
+        if (le.isRemoved()) return;
+        le.setCustomName(s.originalName); // may be null
         le.setCustomNameVisible(false);
     }
 
     // Used for lethal or forced cleanup; also clears caches
     private static void clearBarNow(LivingEntity le) {
-        UUID id = le.getUuid();
-        if (originalNames.containsKey(id)) {
-            if (originalNames.get(id).getString().contains(HEART))
-                le.setCustomName(null);
-            else
-                le.setCustomName(originalNames.get(id));
-
-            le.setCustomNameVisible(false);
-        }
+        Shown s = shown.remove(le.getUuid());
+        if (s == null) return;
 
-        originalNames.remove(id);
-        entityExpiry.remove(id);
+        Text orig = s.originalName;
+        le.setCustomName(orig != null && orig.getString().contains(HEART) ? null : orig);
+        le.setCustomNameVisible(false);
     }
 
     // Show only for hostile mobs; exclude tamed wolves explicitly.
@@ -146,9 +234,8 @@ public final class HealthbarHover {
         return e instanceof HostileEntity;
     }
 
-    private static LivingEntity getLookEntity(ServerPlayerEntity p, double maxDist) {
-        var start = p.getCameraPosVec(1.0f);
-        var end   = start.add(p.getRotationVec(1.0f).multiply(maxDist));
+    private static LivingEntity getLookEntity(ServerPlayerEntity p, Vec3d start, Vec3d dir, double maxDist) {
+        var end   = start.add(dir.multiply(maxDist));
         var blockHit = p.getEntityWorld().raycast(new RaycastContext(
                 start, end, RaycastContext.ShapeType.OUTLINE, RaycastContext.FluidHandling.NONE, p));
 
@@ -156,7 +243,6 @@ public final class HealthbarHover {
                 ? blockHit.getPos().distanceTo(start)
                 : maxDist;
 
-        var dir = p.getRotationVec(1.0f);
         var box = p.getBoundingBox().stretch(dir.multiply(limit)).expand(1.0, 1.0, 1.0);
 
         LivingEntity best = null;
@@ -179,4 +265,3 @@ public final class HealthbarHover {
         return best;
     }
 }
-
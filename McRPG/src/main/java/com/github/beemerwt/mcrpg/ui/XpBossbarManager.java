@@ -9,6 +9,7 @@ import com.github.beemerwt.mcrpg.config.SkillConfig;
 import com.github.beemerwt.mcrpg.data.SkillType;
 import com.github.beemerwt.mcrpg.text.NamedTextColor;
 import com.github.beemerwt.mcrpg.util.SoundUtil;
+import com.github.beemerwt.mcrpg.util.TickScheduler;
 import com.github.beemerwt.mcrpg.data.Leveling;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
@@ -23,13 +24,48 @@ import net.minecraft.text.Text;
 
 import java.util.*;
 
+/**
+ * Per-skill XP bossbars.
+ * - XP gains only mark a bar dirty; each dirty bar is rendered once at the end of the tick,
+ *   sending just the fields (title, color, percent) that changed since the last render.
+ * - Bars expire through the TickScheduler wheel; more XP pushes the deadline out without rescheduling.
+ * - Hidden bars go back to a small pool and are reused instead of reallocated.
+ */
 public final class XpBossbarManager {
     private static final int DISPLAY_TICKS = 60; // ~3 seconds at 20 tps
+    private static final int POOL_MAX = 64;
 
-    // Per-player -> per-skill bossbar
-    private static final Map<UUID, EnumMap<SkillType, ServerBossBar>> bars = new HashMap<>();
-    // Time-to-live for each bar instance
-    private static final Map<ServerBossBar, Integer> ttl = new HashMap<>();
+    /** One skill's bar for one player. */
+    private static final class Slot {
+        final UUID owner;
+        final SkillType skill;
+        ServerPlayerEntity player;
+        ServerBossBar bar;           // null until first rendered
+        int shownLevel = -1;
+        boolean dirty;
+        long expiresAt;              // in manager ticks
+        TickScheduler.Task expiry;
+
+        Slot(UUID owner, SkillType skill) {
+            this.owner = owner;
+            this.skill = skill;
+        }
+    }
+
+    public record Stats(long lastTickPackets, long totalPackets, long lastTickRenders,
+                        long barsCreated, long barsReused, long titlesBuilt, int shown, int pooled) {}
+
+    // Per-player -> per-skill slot
+    private static final Map<UUID, EnumMap<SkillType, Slot>> slots = new HashMap<>();
+    private static final ArrayList<Slot> dirty = new ArrayList<>();
+    private static final ArrayDeque<ServerBossBar> pool = new ArrayDeque<>();
+
+    private static long now = 0L;
+    private static int shown = 0;
+
+    // ----- metrics -----
+    private static long tickPackets, lastTickPackets, totalPackets, lastTickRenders;
+    private static long barsCreated, barsReused, titlesBuilt;
 
     private XpBossbarManager() {}
 
@@ -38,13 +74,9 @@ public final class XpBossbarManager {
 
         // Ensure we clean up bars when a player leaves (sends REMOVE packets automatically)
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
-            ServerPlayerEntity sp = handler.player;
-            EnumMap<SkillType, ServerBossBar> map = bars.remove(sp.getUuid());
+            EnumMap<SkillType, Slot> map = slots.remove(handler.player.getUuid());
             if (map != null) {
-                for (ServerBossBar bar : map.values()) {
-                    bar.clearPlayers(); // sends BossBar remove packets
-                    ttl.remove(bar);
-                }
+                for (Slot slot : map.values()) hide(slot);
             }
         });
 
@@ -59,18 +91,139 @@ public final class XpBossbarManager {
     }
 
     private static void onEndTick(MinecraftServer server) {
-        if (ttl.isEmpty()) return;
+        now++;
+        lastTickRenders = dirty.size();
+
+        for (int i = 0; i < dirty.size(); i++) {
+            Slot slot = dirty.get(i);
+            slot.dirty = false;
+            if (slots.get(slot.owner) != null) render(slot);
+        }
+        dirty.clear();
 
-        List<ServerBossBar> toRemove = new ArrayList<>();
-        ttl.replaceAll((bar, t) -> t - 1);
-        for (var e : ttl.entrySet()) if (e.getValue() <= 0) toRemove.add(e.getKey());
-        if (toRemove.isEmpty()) return;
+        lastTickPackets = tickPackets;
+        totalPackets += tickPackets;
+        tickPackets = 0;
+    }
+
+    public static Stats stats() {
+        return new Stats(lastTickPackets, totalPackets, lastTickRenders,
+                barsCreated, barsReused, titlesBuilt, shown, pool.size());
+    }
 
-        for (ServerBossBar bar : toRemove) {
+    // ----- rendering -----
+
+    private static void render(Slot slot) {
+        ServerPlayerEntity sp = slot.player;
+        if (sp == null || sp.isDisconnected()) return;
+
+        final int maxLevel = ConfigManager.getGeneralConfig().maxLevel;
+        final SkillConfig skillCfg = ConfigManager.getSkillConfig(slot.skill);
+        Leveling.LevelProgress prog = Leveling.getLevelProgress(McRPG.getStore().get(sp), slot.skill);
+
+        int level = prog.level();
+        float percent = level >= maxLevel ? 1.0f : prog.progress();
+        BossBar.Color color = parseColor(skillCfg.bossbarColor);
+
+        ServerBossBar bar = slot.bar;
+        if (bar == null) {
+            // Fill in everything before attaching the player, so the ADD packet carries it all
+            bar = acquire();
+            bar.setName(title(slot.skill, level));
+            bar.setColor(color);
+            bar.setPercent(percent);
+            bar.addPlayer(sp);
+            tickPackets++;
+
+            slot.bar = bar;
+            slot.shownLevel = level;
+            shown++;
+            return;
+        }
+
+        if (!bar.getPlayers().contains(sp)) {
+            // Respawn hands us a new player entity for the same connection
+            bar.clearPlayers();
+            bar.addPlayer(sp);
+            tickPackets += 2;
+        }
+        if (level != slot.shownLevel) {
+            bar.setName(title(slot.skill, level));
+            slot.shownLevel = level;
+            tickPackets++;
+        }
+        if (color != bar.getColor()) {
+            bar.setColor(color);
+            tickPackets++;
+        }
+        if (percent != bar.getPercent()) {
+            bar.setPercent(percent);
+            tickPackets++;
+        }
+    }
+
+    // Title: "Mining Lv.5"
+    private static Text title(SkillType skill, int level) {
+        titlesBuilt++;
+        String niceName = skill.name().charAt(0) + skill.name().substring(1).toLowerCase(Locale.ROOT);
+        return Text.literal(niceName + " Lv.").append(
+                Text.literal(String.valueOf(level)).withColor(NamedTextColor.GOLD.value()));
+    }
+
+    // ----- lifetime -----
+
+    private static void touch(Slot slot) {
+        slot.expiresAt = now + DISPLAY_TICKS;
+        if (slot.expiry == null) {
+            slot.expiry = TickScheduler.schedule("XpBossbar", DISPLAY_TICKS, () -> expire(slot));
+        }
+    }
+
+    private static void expire(Slot slot) {
+        slot.expiry = null;
+
+        // Kept alive by XP since this was scheduled: wait out the rest
+        long remaining = slot.expiresAt - now;
+        if (remaining > 0) {
+            slot.expiry = TickScheduler.schedule("XpBossbar", remaining, () -> expire(slot));
+            return;
+        }
+
+        EnumMap<SkillType, Slot> map = slots.get(slot.owner);
+        if (map != null && map.get(slot.skill) == slot) {
+            map.remove(slot.skill);
+            if (map.isEmpty()) slots.remove(slot.owner);
+        }
+        hide(slot);
+    }
+
+    private static void hide(Slot slot) {
+        if (slot.expiry != null) {
+            slot.expiry.cancel();
+            slot.expiry = null;
+        }
+
+        ServerBossBar bar = slot.bar;
+        slot.bar = null;
+        slot.player = null;
+        if (bar == null) return;
+
+        if (!bar.getPlayers().isEmpty()) {
             bar.clearPlayers(); // sends remove packets to any attached players
-            ttl.remove(bar);
-            bars.values().forEach(m -> m.values().removeIf(b -> b == bar));
+            tickPackets++;
+        }
+        shown--;
+        if (pool.size() < POOL_MAX) pool.push(bar);
+    }
+
+    private static ServerBossBar acquire() {
+        ServerBossBar bar = pool.poll();
+        if (bar != null) {
+            barsReused++;
+            return bar;
         }
+        barsCreated++;
+        return new ServerBossBar(Text.empty(), BossBar.Color.BLUE, BossBar.Style.PROGRESS);
     }
 
     public static void showSkillXp(ServerPlayerEntity sp, SkillType skill, long justAdded, long newTotalXp, boolean playSound) {
@@ -78,13 +231,11 @@ public final class XpBossbarManager {
 
         final PlayerData data = McRPG.getStore().get(sp);
         final GeneralConfig cfg = ConfigManager.getGeneralConfig();
-        final SkillConfig skillCfg = ConfigManager.getSkillConfig(skill);
         final int maxLevel = cfg.maxLevel;
 
         // AFTER state (already applied by Leveling.addXp)
         Leveling.LevelProgress afterProg = Leveling.getLevelProgress(data, skill);
         int   levelAfter = afterProg.level();
-        float pctAfter   = afterProg.progress();
 
         // BEFORE state (reconstruct, do not mutate storage)
         int levelBefore;
@@ -136,22 +287,18 @@ public final class XpBossbarManager {
             }
         }
 
-        // Title: "Mining Lv.5"
-        String niceName = skill.name().charAt(0) + skill.name().substring(1).toLowerCase(Locale.ROOT);
-        Text title = Text.literal(niceName + " Lv.").append(
-                Text.literal(String.valueOf(levelAfter)).withColor(NamedTextColor.GOLD.value()));
-
-        ServerBossBar bar = bars
+        // The bar itself is brought up to date once, at the end of the tick
+        Slot slot = slots
                 .computeIfAbsent(sp.getUuid(), id -> new EnumMap<>(SkillType.class))
-                .computeIfAbsent(skill, s -> new ServerBossBar(title, parseColor(skillCfg.bossbarColor), BossBar.Style.PROGRESS));
-
-        bar.addPlayer(sp);
-        bar.setName(title);
-        bar.setColor(parseColor(skillCfg.bossbarColor));
-        bar.setPercent(levelAfter >= maxLevel ? 1.0f : pctAfter);
+                .computeIfAbsent(skill, k -> new Slot(sp.getUuid(), k));
+        slot.player = sp;
+        if (!slot.dirty) {
+            slot.dirty = true;
+            dirty.add(slot);
+        }
 
         // Keep it alive while XP is flowing
-        ttl.put(bar, DISPLAY_TICKS);
+        touch(slot);
     }
 
     /** Convert a raw total XP into (level, progress) using only public Leveling APIs. */
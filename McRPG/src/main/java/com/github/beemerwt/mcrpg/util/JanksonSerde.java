@@ -3,6 +3,9 @@ package com.github.beemerwt.mcrpg.util;
 import blue.endless.jankson.*;
 import com.github.beemerwt.mcrpg.annotation.*;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 
@@ -12,38 +15,36 @@ import java.util.*;
  * - Exclude with @JankIgnore.
  * - Optional: @JankKey to rename; @JankComment to write comments.
  * Supports primitives, wrappers, String, enums, arrays, List<T>, Map<String,T>, and nested @JanksonObject.
+ * Each class is compiled once into a {@link Plan} (keys, annotations, element types, field handles),
+ * so reloads only pay for the JSON itself.
  */
 public final class JanksonSerde {
     private JanksonSerde() {}
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType FACTORY = MethodType.methodType(Object.class);
+
+    private static final ClassValue<Plan> PLANS = new ClassValue<>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return Plan.compile(type);
+        }
+    };
+
     /* ========== Public API ========== */
     public static JsonObject toJson(Object pojo) {
         JsonObject out = new JsonObject();
 
-        // Walk class hierarchy from base -> derived
-        List<Class<?>> chain = hierarchy(pojo.getClass());
-        for (Class<?> c : chain) {
-            List<Field> fields = new ArrayList<>(Arrays.asList(c.getDeclaredFields()));
-            // Filter out static/transient/ignored
-            fields.removeIf(f -> Modifier.isStatic(f.getModifiers())
-                    || Modifier.isTransient(f.getModifiers())
-                    || f.isAnnotationPresent(JankIgnore.class));
-
-            for (Field f : fields) {
-                f.setAccessible(true);
-                String key = keyFor(f);
-                Object val = getFieldValue(pojo, f);
-
-                // NEW: omit optional default/empty values on write
-                if (f.isAnnotationPresent(JankOptional.class) && isDefaulty(val, f.getType())) {
-                    continue;
-                }
+        for (Prop p : PLANS.get(pojo.getClass()).writeOrder) {
+            Object val = p.getOrNull(pojo);
 
-                JsonElement el = toElement(val);
-                out.put(key, el);
-                if (f.isAnnotationPresent(JankComment.class))
-                    out.setComment(key, f.getAnnotation(JankComment.class).value());
-            }
+            // Omit optional default/empty values on write
+            if (p.optional && isDefaulty(val, p.type)) continue;
+
+            out.put(p.key, toElement(val));
+            if (p.comment != null) out.setComment(p.key, p.comment);
         }
         return out;
     }
@@ -54,35 +55,141 @@ public final class JanksonSerde {
         Class<?> type = instance.getClass();
         if (!type.isAnnotationPresent(JanksonObject.class)) return instance;
 
-        for (Field f : fieldsOf(type)) {
-            if (!shouldInclude(f)) continue;
-            String key = keyFor(f);
-            JsonElement raw = obj.get(key);
+        for (Prop p : PLANS.get(type).readOrder) {
+            JsonElement raw = obj.get(p.key);
 
             if (raw == null || raw instanceof JsonNull) {
-                // If explicitly required, complain
-                JankProperty prop = f.getAnnotation(JankProperty.class);
-                boolean required = (prop != null && prop.required());
-
-                // If the field is optional, missing is fine
-                if (f.isAnnotationPresent(JankOptional.class)) {
-                    continue; // keep in-class default
-                }
-
-                if (required) {
-                    throw new IllegalStateException("Missing required key '" + key
+                // If the field is optional, missing is fine; otherwise complain only if explicitly required
+                if (!p.optional && p.required) {
+                    throw new IllegalStateException("Missing required key '" + p.key
                             + "' for " + type.getName());
                 }
-
-                // Not required and not optional -> keep default
-                continue;
+                continue; // keep in-class default
             }
 
-            setFieldValueFromJson(instance, f, raw);
+            setFieldValueFromJson(instance, p, raw);
         }
         return instance;
     }
 
+    /* ========== Plans ========== */
+
+    private enum Kind { STRING, BOOLEAN, INT, LONG, DOUBLE, FLOAT, ENUM, LIST, MAP, OBJECT, OTHER }
+
+    /** One serialized field with everything resolved up front. */
+    private static final class Prop {
+        final String key;
+        final String comment; // null when absent
+        final boolean optional;
+        final boolean required;
+        final Class<?> type;
+        final Kind kind;
+        final Class<?> elemType; // List element / Map value type
+        final MethodHandle getter;
+        final MethodHandle setter; // null when the field can't be written
+
+        private Prop(Field f) throws IllegalAccessException {
+            f.setAccessible(true);
+            this.key = keyFor(f);
+            JankComment c = f.getAnnotation(JankComment.class);
+            this.comment = c == null ? null : c.value();
+            this.optional = f.isAnnotationPresent(JankOptional.class);
+            JankProperty prop = f.getAnnotation(JankProperty.class);
+            this.required = prop != null && prop.required();
+            this.type = f.getType();
+            this.kind = kindOf(type);
+            this.elemType = elemTypeOf(f, kind);
+            this.getter = LOOKUP.unreflectGetter(f).asType(GETTER);
+
+            MethodHandle set;
+            try {
+                set = LOOKUP.unreflectSetter(f).asType(SETTER);
+            } catch (IllegalAccessException e) {
+                set = null;
+            }
+            this.setter = set;
+        }
+
+        Object get(Object target) throws Throwable {
+            return (Object) getter.invokeExact(target);
+        }
+
+        Object getOrNull(Object target) {
+            try { return get(target); } catch (Throwable ignored) { return null; }
+        }
+
+        void set(Object target, Object value) throws Throwable {
+            if (setter != null) setter.invokeExact(target, value);
+        }
+    }
+
+    private static final class Plan {
+        private static final Prop[] NONE = new Prop[0];
+
+        final Prop[] writeOrder; // base class first
+        final Prop[] readOrder;  // most derived class first
+        final MethodHandle factory; // ()Object, or null without a no-arg constructor
+
+        private Plan(Prop[] writeOrder, Prop[] readOrder, MethodHandle factory) {
+            this.writeOrder = writeOrder;
+            this.readOrder = readOrder;
+            this.factory = factory;
+        }
+
+        static Plan compile(Class<?> type) {
+            List<Prop> read = new ArrayList<>();
+            Deque<List<Prop>> perClass = new ArrayDeque<>();
+            for (Class<?> t = type; t != null && t != Object.class; t = t.getSuperclass()) {
+                List<Prop> declared = new ArrayList<>();
+                for (Field f : t.getDeclaredFields()) {
+                    if (!shouldInclude(f)) continue;
+                    try {
+                        declared.add(new Prop(f));
+                    } catch (IllegalAccessException | RuntimeException ignored) {
+                        // Not reachable reflectively; it was never read or written
+                    }
+                }
+                read.addAll(declared);
+                perClass.push(declared);
+            }
+
+            List<Prop> write = new ArrayList<>(read.size());
+            for (List<Prop> declared : perClass) write.addAll(declared);
+
+            MethodHandle factory = null;
+            try {
+                Constructor<?> ct = type.getDeclaredConstructor();
+                ct.setAccessible(true);
+                factory = LOOKUP.unreflectConstructor(ct).asType(FACTORY);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {}
+
+            return new Plan(write.toArray(NONE), read.toArray(NONE), factory);
+        }
+    }
+
+    private static Kind kindOf(Class<?> t) {
+        if (t == String.class) return Kind.STRING;
+        if (t == boolean.class || t == Boolean.class) return Kind.BOOLEAN;
+        if (t == int.class || t == Integer.class) return Kind.INT;
+        if (t == long.class || t == Long.class) return Kind.LONG;
+        if (t == double.class || t == Double.class) return Kind.DOUBLE;
+        if (t == float.class || t == Float.class) return Kind.FLOAT;
+        if (Enum.class.isAssignableFrom(t)) return Kind.ENUM;
+        if (List.class.isAssignableFrom(t)) return Kind.LIST;
+        if (Map.class.isAssignableFrom(t)) return Kind.MAP;
+        if (t.isAnnotationPresent(JanksonObject.class)) return Kind.OBJECT;
+        return Kind.OTHER;
+    }
+
+    private static Class<?> elemTypeOf(Field f, Kind kind) {
+        int arg = kind == Kind.LIST ? 0 : kind == Kind.MAP ? 1 : -1;
+        if (arg >= 0 && f.getGenericType() instanceof ParameterizedType pt
+                && pt.getActualTypeArguments()[arg] instanceof Class<?> c) {
+            return c;
+        }
+        return Object.class;
+    }
+
     /* ========== Core conversion ========== */
 
     private static JsonElement toElement(Object v) {
@@ -127,14 +234,6 @@ public final class JanksonSerde {
         return JsonPrimitive.of(String.valueOf(v));
     }
 
-    private static List<Class<?>> hierarchy(Class<?> leaf) {
-        Deque<Class<?>> stack = new ArrayDeque<>();
-        for (Class<?> c = leaf; c != null && c != Object.class; c = c.getSuperclass()) {
-            stack.push(c);
-        }
-        return new ArrayList<>(stack); // base first
-    }
-
     private static boolean isDefaulty(Object v, Class<?> t) {
         if (v == null) return true;
 
@@ -160,62 +259,44 @@ public final class JanksonSerde {
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
-    private static void setFieldValueFromJson(Object target, Field f, JsonElement raw) {
-        Class<?> ft = f.getType();
+    private static void setFieldValueFromJson(Object target, Prop p, JsonElement raw) {
         try {
-            if (ft == String.class) { f.set(target, asString(raw, (String) f.get(target))); return; }
-            if (ft == boolean.class || ft == Boolean.class) { f.set(target, asBoolean(raw, (Boolean) f.get(target))); return; }
-            if (ft == int.class || ft == Integer.class) { f.set(target, asInt(raw, (Integer) f.get(target))); return; }
-            if (ft == long.class || ft == Long.class) { f.set(target, asLong(raw, (Long) f.get(target))); return; }
-            if (ft == double.class || ft == Double.class) { f.set(target, asDouble(raw, (Double) f.get(target))); return; }
-            if (ft == float.class || ft == Float.class) {
-                double d = asDouble(raw, ((Number) f.get(target)).doubleValue());
-                f.set(target, (float) d);
-                return;
-            }
-            if (Enum.class.isAssignableFrom(ft)) {
-                String s = asString(raw, null);
-                if (s != null) f.set(target, Enum.valueOf((Class<? extends Enum>) ft, s.trim().toUpperCase()));
-                return;
-            }
-
-            if (List.class.isAssignableFrom(ft)) {
-                Type g = f.getGenericType();
-                Class<?> elemType = Object.class;
-                if (g instanceof ParameterizedType pt) {
-                    Type t = pt.getActualTypeArguments()[0];
-                    if (t instanceof Class<?> c) elemType = c;
+            switch (p.kind) {
+                case STRING -> p.set(target, asString(raw, (String) p.get(target)));
+                case BOOLEAN -> p.set(target, asBoolean(raw, (Boolean) p.get(target)));
+                case INT -> p.set(target, asInt(raw, (Integer) p.get(target)));
+                case LONG -> p.set(target, asLong(raw, (Long) p.get(target)));
+                case DOUBLE -> p.set(target, asDouble(raw, (Double) p.get(target)));
+                case FLOAT -> {
+                    double d = asDouble(raw, ((Number) p.get(target)).doubleValue());
+                    p.set(target, (float) d);
                 }
-                List list = new ArrayList();
-                if (raw instanceof JsonArray arr) for (JsonElement el : arr) list.add(coerce(el, elemType, null));
-                f.set(target, list); return;
-            }
-
-            if (Map.class.isAssignableFrom(ft)) {
-                Type g = f.getGenericType();
-                Class<?> valType = Object.class;
-                if (g instanceof ParameterizedType pt) {
-                    Type vt = pt.getActualTypeArguments()[1];
-                    if (vt instanceof Class<?> c) valType = c;
+                case ENUM -> {
+                    String s = asString(raw, null);
+                    if (s != null) p.set(target, Enum.valueOf((Class<? extends Enum>) p.type, s.trim().toUpperCase()));
                 }
-                Map<String, Object> map = new LinkedHashMap<>();
-                if (raw instanceof JsonObject o) {
-                    for (String k : o.keySet().stream().toList()) {
-                        map.put(k, coerce(o.get(k), valType, null));
+                case LIST -> {
+                    List list = new ArrayList();
+                    if (raw instanceof JsonArray arr) for (JsonElement el : arr) list.add(coerce(el, p.elemType, null));
+                    p.set(target, list);
+                }
+                case MAP -> {
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    if (raw instanceof JsonObject o) {
+                        for (Map.Entry<String, JsonElement> e : o.entrySet()) {
+                            map.put(e.getKey(), coerce(e.getValue(), p.elemType, null));
+                        }
                     }
+                    p.set(target, map);
                 }
-                f.set(target, map);
-                return;
-            }
-
-            if (ft.isAnnotationPresent(JanksonObject.class)) {
-                Object child = f.get(target);
-                if (child == null) child = newInstance(ft);
-                if (raw instanceof JsonObject o) fillFrom(o, child);
-                f.set(target, child); return;
+                case OBJECT -> {
+                    Object child = p.get(target);
+                    if (child == null) child = newInstance(p.type);
+                    if (raw instanceof JsonObject o) fillFrom(o, child);
+                    p.set(target, child);
+                }
+                case OTHER -> {} // leave default
             }
-
-            // Else: leave default
         } catch (Throwable ignored) {}
     }
 
@@ -267,27 +348,10 @@ public final class JanksonSerde {
         return f.getName();
     }
 
-    private static List<Field> fieldsOf(Class<?> c) {
-        ArrayList<Field> out = new ArrayList<>();
-        for (Class<?> t = c; t != null && t != Object.class; t = t.getSuperclass()) {
-            for (Field f : t.getDeclaredFields()) { f.setAccessible(true); out.add(f); }
-        }
-        return out;
-    }
-
-    private static Object getFieldValue(Object o, Field f) {
-        try { return f.get(o); } catch (Throwable ignored) { return null; }
-    }
-
     private static Object newInstance(Class<?> c) {
-        try {
-            var ct = c.getDeclaredConstructor();
-            ct.setAccessible(true);
-            return ct.newInstance();
-        } catch (Throwable t) {
-            try { return c.getDeclaredConstructor().newInstance(); }
-            catch (Throwable ignored) { return null; }
-        }
+        MethodHandle factory = PLANS.get(c).factory;
+        if (factory == null) return null;
+        try { return (Object) factory.invokeExact(); } catch (Throwable ignored) { return null; }
     }
 
     private static String asString(JsonElement e, String def) {
@@ -1,50 +1,154 @@
 package com.github.beemerwt.mcrpg.util;
 
+import com.github.beemerwt.mcrpg.McRPG;
+import com.github.beemerwt.mcrpg.managers.ConfigManager;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.server.MinecraftServer;
 
-import java.util.ArrayDeque;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Hierarchical timing wheel driven by the server tick.
+ * - 4 levels of 64 slots (64, 4096, 262144, 16.7M ticks); far tasks cascade down as time advances.
+ * - Tasks are intrusive list nodes, so schedule and cancel are O(1).
+ * - Due tasks run within a per-tick time budget; whatever doesn't fit is carried to the next tick, first in line.
+ * - Run time and failures are tracked per owner (explicit, or the scheduling class).
+ *
+ * The wheel itself is only touched by the server thread. Other threads hand their schedules
+ * over through an inbox, and their cancels are honoured lazily.
+ */
 public final class TickScheduler {
 
     private TickScheduler() {}
 
-    /** Logical server tick counter since registration. */
-    private static long tick = 0L;
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1L;
 
-    /** dueTick -> queue of tasks to run at that tick */
-    private static final Map<Long, ArrayDeque<Task>> wheel = new HashMap<>();
+    /** Logical server tick counter since registration (last tick processed). */
+    private static volatile long tick = 0L;
 
-    /** Simple lock so scheduling/canceling from other threads can’t race the server tick. */
-    private static final Object LOCK = new Object();
+    /** Next tick to process; insertion is relative to this. */
+    private static long base = 1L;
+
+    private static final TaskList[][] wheels = new TaskList[LEVELS][WHEEL_SIZE];
+    private static final TaskList ready = new TaskList(-1, 0);
+
+    private static final ConcurrentLinkedQueue<Task> inbox = new ConcurrentLinkedQueue<>();
+    private static volatile Thread owner = null;
+
+    private static final Map<String, OwnerStats> STATS = new ConcurrentHashMap<>();
+    private static final ClassValue<String> OWNER_NAMES = new ClassValue<>() {
+        @Override protected String computeValue(Class<?> type) {
+            // Lambdas are named like Outer$$Lambda/0x..., attribute them to Outer
+            String name = type.getName();
+            int lambda = name.indexOf("$$");
+            if (lambda >= 0) name = name.substring(0, lambda);
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+    };
+
+    private static int lastCarried = 0;
+
+    static {
+        for (int l = 0; l < LEVELS; l++) {
+            for (int s = 0; s < WHEEL_SIZE; s++) {
+                wheels[l][s] = new TaskList(l, s);
+            }
+        }
+    }
 
     // --- Task type (compatible with your previous usage) ---------------------
 
     public static final class Task {
-        private final long dueTick;
         private final Runnable action;
+        private final OwnerStats stats;
+        private final long period; // 0 for one-shot
+        private volatile long dueTick;
+        private volatile boolean cancelled;
 
-        private Task(long dueTick, Runnable action) {
+        // Intrusive links; server thread only
+        private TaskList list;
+        private Task prev, next;
+
+        private Task(long dueTick, long period, Runnable action, OwnerStats stats) {
             this.dueTick = dueTick;
+            this.period = period;
             this.action = action;
+            this.stats = stats;
         }
 
         /** Estimated remaining ticks until this task is due (0 if already due/past). */
         public long getRemainingTicks() {
-            synchronized (LOCK) {
-                long remain = dueTick - tick;
-                return Math.max(0L, remain);
-            }
+            long remain = dueTick - tick;
+            return Math.max(0L, remain);
         }
 
-        /** Cancel this task if it hasn’t run yet. */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /** Cancel this task if it hasn’t run yet (or stop a repeating task). */
         public void cancel() {
             TickScheduler.cancel(this);
         }
     }
 
+    public static final class OwnerStats {
+        public final String owner;
+        private long runs, nanos, maxNanos, failures;
+
+        private OwnerStats(String owner) { this.owner = owner; }
+
+        public long runs() { return runs; }
+        public long totalMicros() { return nanos / 1_000L; }
+        public long maxMicros() { return maxNanos / 1_000L; }
+        public long failures() { return failures; }
+    }
+
+    private static final class TaskList {
+        private final int level, slot;
+        private Task head, tail;
+
+        private TaskList(int level, int slot) {
+            this.level = level;
+            this.slot = slot;
+        }
+
+        private void append(Task t) {
+            t.list = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) head = t;
+            else tail.next = t;
+            tail = t;
+        }
+
+        private void unlink(Task t) {
+            if (t.prev == null) head = t.next;
+            else t.prev.next = t.next;
+            if (t.next == null) tail = t.prev;
+            else t.next.prev = t.prev;
+            t.prev = t.next = null;
+            t.list = null;
+        }
+
+        /** Detach the whole list and return its head. */
+        private Task drain() {
+            Task h = head;
+            head = tail = null;
+            for (Task t = h; t != null; t = t.next) t.list = null;
+            return h;
+        }
+    }
+
     // --- Hook into server tick ------------------------------------------------
 
     static {
@@ -52,24 +156,119 @@ public final class TickScheduler {
     }
 
     private static void onServerTick(MinecraftServer server) {
-        final ArrayDeque<Task> due;
-        synchronized (LOCK) {
-            tick++; // advance tick first
-            due = wheel.remove(tick); // pop all tasks scheduled for this tick
-        }
-
-        if (due != null) {
-            Task t;
-            while ((t = due.pollFirst()) != null) {
-                try {
-                    t.action.run();
-                } catch (Throwable ex) {
-                    ex.printStackTrace();
-                }
+        owner = Thread.currentThread();
+
+        Task incoming;
+        while ((incoming = inbox.poll()) != null) {
+            if (!incoming.cancelled) insert(incoming);
+        }
+
+        long t = base;
+        cascadeFor(t);
+
+        // Due tasks queue up behind anything carried over from the last tick
+        Task due = wheels[0][(int) (t & WHEEL_MASK)].drain();
+        while (due != null) {
+            Task next = due.next;
+            due.prev = due.next = null;
+            ready.append(due);
+            due = next;
+        }
+
+        base = t + 1;
+        tick = t;
+
+        runReady();
+    }
+
+    private static void cascadeFor(long t) {
+        for (int level = 1; level < LEVELS; level++) {
+            // Only cascade a level when every lower level has wrapped
+            if ((t & ((1L << (WHEEL_BITS * level)) - 1L)) != 0L) break;
+
+            int slot = (int) ((t >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            Task task = wheels[level][slot].drain();
+            while (task != null) {
+                Task next = task.next;
+                task.prev = task.next = null;
+                if (!task.cancelled) insert(task);
+                task = next;
             }
         }
     }
 
+    private static void runReady() {
+        long budget = Math.max(1L, ConfigManager.getGeneralConfig().schedulerTickBudgetMicros) * 1_000L;
+        long start = System.nanoTime();
+
+        Task task;
+        while ((task = ready.head) != null) {
+            ready.unlink(task);
+            if (task.cancelled) continue;
+
+            run(task);
+            if (task.period > 0L && !task.cancelled) {
+                task.dueTick = tick + task.period;
+                insert(task);
+            }
+
+            // Always make progress by at least one task per tick
+            if (System.nanoTime() - start >= budget) break;
+        }
+
+        int carried = 0;
+        for (Task t = ready.head; t != null; t = t.next) carried++;
+        if (carried > 0 && lastCarried == 0) {
+            McRPG.getLogger().debug("TickScheduler over budget; carrying {} tasks to the next tick", carried);
+        }
+        lastCarried = carried;
+    }
+
+    private static void run(Task task) {
+        long before = System.nanoTime();
+        try {
+            task.action.run();
+        } catch (Throwable ex) {
+            task.stats.failures++;
+            McRPG.getLogger().error(ex, "Scheduled task from {} failed", task.stats.owner);
+        } finally {
+            long took = System.nanoTime() - before;
+            task.stats.runs++;
+            task.stats.nanos += took;
+            if (took > task.stats.maxNanos) task.stats.maxNanos = took;
+        }
+    }
+
+    /** Place a task in the wheel relative to {@link #base}. Server thread only. */
+    private static void insert(Task task) {
+        long due = Math.max(task.dueTick, base);
+        long delta = Math.min(due - base, MAX_DELTA);
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) level++;
+
+        // Beyond the top level, park in the furthest slot; it is re-inserted when that slot cascades
+        long slotTick = (delta == MAX_DELTA) ? base + MAX_DELTA : due;
+        int slot = (int) ((slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        wheels[level][slot].append(task);
+    }
+
+    private static boolean onServerThread() {
+        return Thread.currentThread() == owner;
+    }
+
+    private static Task submit(long ticks, long period, Runnable action, String ownerName) {
+        OwnerStats stats = STATS.computeIfAbsent(ownerName, OwnerStats::new);
+
+        // Minimum delay is 1 so tasks never run in the same tick they’re scheduled.
+        long when = tick + Math.max(1L, ticks);
+        Task task = new Task(when, period, action, stats);
+
+        if (onServerThread()) insert(task);
+        else inbox.add(task);
+        return task;
+    }
+
     // --- Public API -----------------------------------------------------------
 
     /**
@@ -78,17 +277,19 @@ public final class TickScheduler {
      */
     public static Task schedule(long ticks, Runnable action) {
         if (action == null) return null;
+        return submit(Math.max(0L, ticks), 0L, action, OWNER_NAMES.get(action.getClass()));
+    }
 
-        final long when;
-        synchronized (LOCK) {
-            long delay = Math.max(0L, ticks);
-            // Minimum delay is 1 so tasks never run in the same tick they’re scheduled.
-            when = tick + Math.max(1L, delay);
-            wheel.computeIfAbsent(when, k -> new ArrayDeque<>())
-                    .addLast(new Task(when, action));
-            // Return the tail we just added (deque’s last element)
-            return wheel.get(when).peekLast();
-        }
+    /** Same as {@link #schedule(long, Runnable)}, with timing statistics reported under {@code owner}. */
+    public static Task schedule(String owner, long ticks, Runnable action) {
+        if (action == null) return null;
+        return submit(Math.max(0L, ticks), 0L, action, owner);
+    }
+
+    /** Run {@code action} after {@code delay} ticks and then every {@code period} ticks until cancelled. */
+    public static Task scheduleRepeating(String owner, long delay, long period, Runnable action) {
+        if (action == null) return null;
+        return submit(Math.max(0L, delay), Math.max(1L, period), action, owner);
     }
 
     /** Convenience alias similar to your prior usage. */
@@ -96,15 +297,29 @@ public final class TickScheduler {
         return schedule(ticks, action);
     }
 
+    /** The last tick processed; deadlines computed against this line up with scheduled delays. */
+    public static long now() {
+        return tick;
+    }
+
     /** Cancel a scheduled task if it hasn’t run yet. */
     public static void cancel(Task task) {
         if (task == null) return;
-        synchronized (LOCK) {
-            var q = wheel.get(task.dueTick);
-            if (q != null) {
-                q.remove(task);
-                if (q.isEmpty()) wheel.remove(task.dueTick);
-            }
-        }
+        task.cancelled = true;
+
+        // Off-thread cancels are dropped when the wheel reaches them
+        if (onServerThread() && task.list != null) task.list.unlink(task);
+    }
+
+    /** Per-owner timing statistics, busiest first. */
+    public static List<OwnerStats> stats() {
+        List<OwnerStats> out = new ArrayList<>(STATS.values());
+        out.sort(Comparator.comparingLong(OwnerStats::totalMicros).reversed());
+        return out;
+    }
+
+    /** Tasks that did not fit in the last tick's budget. */
+    public static int carriedOver() {
+        return lastCarried;
     }
 }
@@ -0,0 +1,97 @@
+package com.github.beemerwt.mcrpg.data;
+
+import com.github.beemerwt.mcrpg.config.GeneralConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XpTableTest {
+    private static final int MAX_LEVEL = 50;
+
+    private static GeneralConfig linear() {
+        GeneralConfig cfg = new GeneralConfig();
+        cfg.maxLevel = MAX_LEVEL;
+        cfg.xpCurve.base = "linear";
+        cfg.xpCurve.linearBase = 1020;
+        cfg.xpCurve.multiplier = 20;
+        return cfg;
+    }
+
+    private static GeneralConfig quadratic() {
+        GeneralConfig cfg = new GeneralConfig();
+        cfg.maxLevel = MAX_LEVEL;
+        cfg.xpCurve.base = "quad";
+        cfg.xpCurve.quadA = 25;
+        cfg.xpCurve.quadB = 75;
+        cfg.xpCurve.quadC = 150;
+        return cfg;
+    }
+
+    // Reference totals: a plain running sum of the per-level requirements
+    private static long[] sums(GeneralConfig cfg, int upTo) {
+        long[] out = new long[upTo + 1];
+        for (int l = 1; l <= upTo; l++) out[l] = out[l - 1] + XpTable.perLevel(l, cfg.xpCurve);
+        return out;
+    }
+
+    private static void assertMatchesSums(GeneralConfig cfg) {
+        XpTable table = XpTable.compile(cfg);
+        long[] sum = sums(cfg, MAX_LEVEL + 5);
+
+        assertEquals(MAX_LEVEL, table.maxLevel());
+        assertEquals(sum[MAX_LEVEL], table.maxTotal());
+
+        // Past the table falls back to the closed form
+        for (int l = 0; l < sum.length; l++) {
+            assertEquals(sum[l], table.totalFor(l), "totalFor(" + l + ")");
+        }
+
+        for (int l = 1; l <= MAX_LEVEL; l++) {
+            assertEquals(l - 1, table.levelFor(sum[l] - 1), "levelFor(total[" + l + "] - 1)");
+            assertEquals(l, table.levelFor(sum[l]), "levelFor(total[" + l + "])");
+            assertEquals(l, table.levelFor(sum[l] + 1), "levelFor(total[" + l + "] + 1)");
+
+            assertEquals(l, table.continuousLevelFor(sum[l]), 0.0, "continuousLevelFor(total[" + l + "])");
+            if (l < MAX_LEVEL) {
+                double expected = l + 1.0 / (sum[l + 1] - sum[l]);
+                assertEquals(expected, table.continuousLevelFor(sum[l] + 1), 1e-12);
+            }
+            double below = table.continuousLevelFor(sum[l] - 1);
+            assertTrue(below >= l - 1 && below < l, "continuousLevelFor(total[" + l + "] - 1) = " + below);
+        }
+    }
+
+    @Test
+    void linearMatchesCumulativeSums() {
+        assertMatchesSums(linear());
+    }
+
+    @Test
+    void quadraticMatchesCumulativeSums() {
+        assertMatchesSums(quadratic());
+    }
+
+    @Test
+    void clampsAtBothEnds() {
+        XpTable table = XpTable.compile(linear());
+
+        assertEquals(0, table.levelFor(0));
+        assertEquals(0, table.levelFor(-1));
+        assertEquals(0.0, table.continuousLevelFor(0), 0.0);
+        assertEquals(0L, table.totalFor(-3));
+
+        assertEquals(MAX_LEVEL, table.levelFor(table.maxTotal()));
+        assertEquals(MAX_LEVEL, table.levelFor(Long.MAX_VALUE));
+        assertEquals(MAX_LEVEL, table.continuousLevelFor(Long.MAX_VALUE), 0.0);
+    }
+
+    @Test
+    void laterConfigEditsDoNotChangeTheTable() {
+        GeneralConfig cfg = linear();
+        XpTable table = XpTable.compile(cfg);
+        long before = table.totalFor(MAX_LEVEL + 3);
+
+        cfg.xpCurve.multiplier = 1000;
+        assertEquals(before, table.totalFor(MAX_LEVEL + 3));
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.beemerwt.mcrpg.managers;
+
+import com.github.beemerwt.mcrpg.config.IHasBlocks;
+import com.github.beemerwt.mcrpg.config.SkillConfig;
+import com.github.beemerwt.mcrpg.data.SkillType;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockSkillIndexTest {
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    private static final class Listing extends SkillConfig implements IHasBlocks {
+        private final Map<String, Integer> blocks = new LinkedHashMap<>();
+
+        Listing(SkillType type, Object... pairs) {
+            super(type);
+            for (int i = 0; i < pairs.length; i += 2) blocks.put((String) pairs[i], (Integer) pairs[i + 1]);
+        }
+
+        @Override
+        public Map<String, Integer> getBlocks() {
+            return blocks;
+        }
+    }
+
+    // Tags are unbound outside a running server, so contents are supplied here
+    private static Iterable<RegistryEntry<Block>> tag(TagKey<Block> tag) {
+        if (tag.equals(TagKey.of(RegistryKeys.BLOCK, Identifier.ofVanilla("logs"))))
+            return List.of(Registries.BLOCK.getEntry(Blocks.OAK_LOG), Registries.BLOCK.getEntry(Blocks.BIRCH_LOG));
+        if (tag.equals(TagKey.of(RegistryKeys.BLOCK, Identifier.ofVanilla("dirt"))))
+            return List.of(Registries.BLOCK.getEntry(Blocks.DIRT));
+        return List.of();
+    }
+
+    private static BlockSkillIndex build(SkillConfig... skills) {
+        return BlockSkillIndex.build(List.of(skills), BlockSkillIndexTest::tag);
+    }
+
+    @Test
+    void firstSkillToListAnIdOwnsIt() {
+        var mining = new Listing(SkillType.MINING, "minecraft:stone", 10);
+        var excavation = new Listing(SkillType.EXCAVATION, "minecraft:stone", 99);
+        var index = build(mining, excavation);
+
+        assertEquals(new BlockSkillIndex.Entry(mining, 10), index.get(Blocks.STONE));
+        // The later skill still scores the block for itself
+        assertEquals(99, index.xp(SkillType.EXCAVATION, Blocks.STONE));
+    }
+
+    @Test
+    void explicitIdsWinOverEarlierSkillsTags() {
+        var mining = new Listing(SkillType.MINING, "#minecraft:logs", 5);
+        var woodcutting = new Listing(SkillType.WOODCUTTING, "minecraft:oak_log", 70);
+        var index = build(mining, woodcutting);
+
+        assertEquals(new BlockSkillIndex.Entry(woodcutting, 70), index.get(Blocks.OAK_LOG));
+        assertEquals(new BlockSkillIndex.Entry(mining, 5), index.get(Blocks.BIRCH_LOG));
+    }
+
+    @Test
+    void firstSkillToListATagOwnsItsBlocks() {
+        var woodcutting = new Listing(SkillType.WOODCUTTING, "#minecraft:logs", 70);
+        var axes = new Listing(SkillType.AXES, "#minecraft:logs", 1);
+        var index = build(woodcutting, axes);
+
+        assertSame(woodcutting, index.get(Blocks.OAK_LOG).skill());
+        assertSame(woodcutting, index.get(Blocks.BIRCH_LOG).skill());
+        assertEquals(1, index.xp(SkillType.AXES, Blocks.BIRCH_LOG));
+    }
+
+    @Test
+    void aSkillsOwnIdBeatsItsOwnTagWhateverTheListingOrder() {
+        var woodcutting = new Listing(SkillType.WOODCUTTING, "#minecraft:logs", 50, "minecraft:oak_log", 70);
+        var index = build(woodcutting);
+
+        assertEquals(70, index.get(Blocks.OAK_LOG).xp());
+        assertEquals(70, index.xp(SkillType.WOODCUTTING, Blocks.OAK_LOG));
+        assertEquals(50, index.xp(SkillType.WOODCUTTING, Blocks.BIRCH_LOG));
+    }
+
+    @Test
+    void unknownIdsAndTagsAreSkipped() {
+        var excavation = new Listing(SkillType.EXCAVATION,
+                "minecraft:not_a_block", 3, "#minecraft:no_such_tag", 4, "#minecraft:dirt", null);
+        var index = build(excavation, new SkillConfig(SkillType.SWORDS));
+
+        assertEquals(1, index.size());
+        assertEquals(new BlockSkillIndex.Entry(excavation, 0), index.get(Blocks.DIRT));
+        assertNull(index.get(Blocks.STONE));
+        assertEquals(0, index.xp(SkillType.SWORDS, Blocks.DIRT));
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.beemerwt.mcrpg.util;
+
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import com.github.beemerwt.mcrpg.annotation.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JanksonSerdeTest {
+    enum Mode { FAST, SLOW }
+
+    @JanksonObject
+    static class Child {
+        public int level = 3;
+        public String label = "child";
+
+        Child() {}
+
+        Child(int level, String label) {
+            this.level = level;
+            this.label = label;
+        }
+    }
+
+    @JanksonObject
+    static class Base {
+        @JankComment("Shared by every config")
+        public int baseValue = 1;
+        public String name = "base";
+    }
+
+    @JanksonObject
+    static class Derived extends Base {
+        @JankKey("renamed")
+        public long count = 5;
+
+        @JankOptional
+        public String note = "";
+        @JankOptional
+        public List<String> extras = new ArrayList<>();
+
+        public List<Integer> numbers = new ArrayList<>(List.of(1, 2, 3));
+        public Map<String, Double> weights = new LinkedHashMap<>(Map.of("a", 1.5));
+        public Mode mode = Mode.FAST;
+        public float ratio = 0.25f;
+        public boolean flag = true;
+
+        public Child child = new Child();
+        public List<Child> children = new ArrayList<>();
+        public Map<String, Child> named = new LinkedHashMap<>();
+
+        @JankIgnore
+        public int ignored = 7;
+        public transient int skipped = 9;
+    }
+
+    @JanksonObject
+    static class Strict {
+        @JankProperty(name = "id", required = true)
+        public String id = "";
+    }
+
+    private static Derived edited() {
+        Derived d = new Derived();
+        d.baseValue = 42;
+        d.name = "edited";
+        d.count = 9_000_000_000L;
+        d.note = "hello";
+        d.extras = new ArrayList<>(List.of("x", "y"));
+        d.numbers = new ArrayList<>(List.of(7, -8));
+        d.weights = new LinkedHashMap<>(Map.of("b", 2.5));
+        d.mode = Mode.SLOW;
+        d.ratio = 0.75f;
+        d.flag = false;
+        d.child = new Child(11, "nested");
+        d.children = new ArrayList<>(List.of(new Child(1, "one"), new Child(2, "two")));
+        d.named = new LinkedHashMap<>(Map.of("boss", new Child(99, "boss")));
+        return d;
+    }
+
+    private static void assertSameValues(Derived expected, Derived actual) {
+        assertEquals(expected.baseValue, actual.baseValue);
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.count, actual.count);
+        assertEquals(expected.note, actual.note);
+        assertEquals(expected.extras, actual.extras);
+        assertEquals(expected.numbers, actual.numbers);
+        assertEquals(expected.weights, actual.weights);
+        assertEquals(expected.mode, actual.mode);
+        assertEquals(expected.ratio, actual.ratio);
+        assertEquals(expected.flag, actual.flag);
+        assertEquals(expected.child.level, actual.child.level);
+        assertEquals(expected.child.label, actual.child.label);
+
+        assertEquals(expected.children.size(), actual.children.size());
+        for (int i = 0; i < expected.children.size(); i++) {
+            assertEquals(expected.children.get(i).level, actual.children.get(i).level);
+            assertEquals(expected.children.get(i).label, actual.children.get(i).label);
+        }
+
+        assertEquals(expected.named.keySet(), actual.named.keySet());
+        for (String k : expected.named.keySet()) {
+            assertEquals(expected.named.get(k).level, actual.named.get(k).level);
+            assertEquals(expected.named.get(k).label, actual.named.get(k).label);
+        }
+    }
+
+    @Test
+    void writesBaseFieldsFirstWithKeysAndComments() {
+        JsonObject json = JanksonSerde.toJson(new Derived());
+
+        assertEquals(List.of("baseValue", "name", "renamed", "numbers", "weights", "mode", "ratio", "flag",
+                "child", "children", "named"), new ArrayList<>(json.keySet()));
+        assertEquals("Shared by every config", json.getComment("baseValue"));
+        assertNull(json.getComment("name"));
+    }
+
+    @Test
+    void writesOptionalFieldsOnlyWhenSet() {
+        JsonObject json = JanksonSerde.toJson(edited());
+
+        assertTrue(json.containsKey("note"));
+        assertTrue(json.containsKey("extras"));
+        assertFalse(json.containsKey("ignored"));
+        assertFalse(json.containsKey("skipped"));
+        assertFalse(json.containsKey("count"));
+    }
+
+    @Test
+    void roundTripsEveryFieldKind() {
+        Derived source = edited();
+        Derived copy = JanksonSerde.fillFrom(JanksonSerde.toJson(source), new Derived());
+
+        assertSameValues(source, copy);
+        assertEquals(Integer.class, copy.numbers.get(0).getClass());
+        assertEquals(Double.class, copy.weights.get("b").getClass());
+    }
+
+    @Test
+    void missingKeysKeepDefaults() {
+        JsonObject json = new JsonObject();
+        json.put("renamed", JsonPrimitive.of(12L));
+        json.put("count", JsonPrimitive.of(99L)); // the field name is not its key
+
+        Derived d = JanksonSerde.fillFrom(json, new Derived());
+
+        assertEquals(12L, d.count);
+        assertSameValues(withCount(new Derived(), 12L), d);
+    }
+
+    @Test
+    void ignoredAndTransientFieldsAreNeverRead() {
+        JsonObject json = new JsonObject();
+        json.put("ignored", JsonPrimitive.of(1L));
+        json.put("skipped", JsonPrimitive.of(1L));
+
+        Derived d = JanksonSerde.fillFrom(json, new Derived());
+
+        assertEquals(7, d.ignored);
+        assertEquals(9, d.skipped);
+    }
+
+    @Test
+    void missingRequiredKeyThrows() {
+        assertThrows(IllegalStateException.class, () -> JanksonSerde.fillFrom(new JsonObject(), new Strict()));
+
+        JsonObject json = new JsonObject();
+        json.put("id", JsonPrimitive.of("abc"));
+        assertEquals("abc", JanksonSerde.fillFrom(json, new Strict()).id);
+    }
+
+    private static Derived withCount(Derived d, long count) {
+        d.count = count;
+        return d;
+    }
+}
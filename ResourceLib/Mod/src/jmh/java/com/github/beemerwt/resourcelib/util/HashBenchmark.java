@@ -0,0 +1,93 @@
+package com.github.beemerwt.resourcelib.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pack hashing, before and after {@link Hashes#sha1Hex} moved to a FileChannel and {@link HexFormat}.
+ * - {@code *File}: the whole hash of a pack-sized file (read + digest + hex)
+ * - {@code *Hex}: only the hex encoding of a 20-byte digest, where the per-byte {@code String.format} cost was
+ * The file is random bytes in the temp dir, so after the first pass it is read from the page cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+    @Param({"1048576", "67108864"})
+    public int size;
+
+    private Path file;
+    private byte[] digest;
+
+    @Setup
+    public void setup() throws Exception {
+        file = Files.createTempFile("resourcelib-hash", ".zip");
+        byte[] chunk = new byte[64 * 1024];
+        SplittableRandom rnd = new SplittableRandom(42);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int left = size; left > 0; left -= chunk.length) {
+                for (int i = 0; i < chunk.length; i++) chunk[i] = (byte) rnd.nextInt();
+                out.write(chunk, 0, Math.min(left, chunk.length));
+            }
+        }
+
+        digest = MessageDigest.getInstance("SHA-1").digest(Files.readAllBytes(file));
+        if (!previousSha1Hex(file).equals(Hashes.sha1Hex(file)))
+            throw new IllegalStateException("Hash implementations disagree");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String previousFile() throws Exception {
+        return previousSha1Hex(file);
+    }
+
+    @Benchmark
+    public String currentFile() {
+        return Hashes.sha1Hex(file);
+    }
+
+    @Benchmark
+    public String previousHex() {
+        return previousHex(digest);
+    }
+
+    @Benchmark
+    public String currentHex() {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    // ----- the implementation Hashes replaced -----
+
+    private static String previousSha1Hex(Path file) throws Exception {
+        try (InputStream is = Files.newInputStream(file)) {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] buf = new byte[8192];
+            int r;
+            while ((r = is.read(buf)) != -1) md.update(buf, 0, r);
+            return previousHex(md.digest());
+        }
+    }
+
+    private static String previousHex(byte[] d) {
+        StringBuilder sb = new StringBuilder(d.length * 2);
+        for (byte b : d) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+}
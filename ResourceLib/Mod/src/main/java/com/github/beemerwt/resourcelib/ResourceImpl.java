@@ -3,6 +3,8 @@ package com.github.beemerwt.resourcelib;
 import com.github.beemerwt.resourcelib.config.ResourceLibConfig;
 import com.github.beemerwt.resourcelib.http.EmbeddedHttpServer;
 import com.github.beemerwt.resourcelib.io.LoadOrderManager;
+import com.github.beemerwt.resourcelib.util.HashCache;
+import com.github.beemerwt.resourcelib.util.Hashes;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.network.packet.s2c.common.ResourcePackSendS2CPacket;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -14,6 +16,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -24,6 +28,7 @@ import java.util.UUID;
 final class ResourceImpl implements ResourceApi {
     private final ResourceLibConfig config;
     private EmbeddedHttpServer http;
+    private volatile HashCache hashes;
 
     private final List<File> javaRegistered = new ArrayList<>();
     private final List<File> bedrockRegistered = new ArrayList<>();
@@ -42,9 +47,15 @@ final class ResourceImpl implements ResourceApi {
         javaOrdered = lom.resolveOrder("java", javaRegistered);
         bedrockOrdered = lom.resolveOrder("bedrock", bedrockRegistered);
 
+        // Hash every pack in the background (or reuse last run's hashes) so joins never hash
+        hashes = new HashCache(FabricLoader.getInstance().getConfigDir()
+                .resolve("ResourceLib").resolve("hashes.json"));
+        for (File f : javaOrdered) hashes.track(f.toPath());
+        for (File f : bedrockOrdered) hashes.track(f.toPath());
+
         // Spin up local HTTP if needed
         if (config.serveLocally()) {
-            http = new EmbeddedHttpServer(config);
+            http = new EmbeddedHttpServer(config, hashes);
             http.start();
             for (File f : javaOrdered) http.register(f.toPath());
             for (File f : bedrockOrdered) http.register(f.toPath());
@@ -59,6 +70,10 @@ final class ResourceImpl implements ResourceApi {
             http.stop();
             http = null;
         }
+        if (hashes != null) {
+            hashes.close();
+            hashes = null;
+        }
     }
 
     public List<File> getJavaPacks() { return List.copyOf(javaOrdered); }
@@ -73,6 +88,21 @@ final class ResourceImpl implements ResourceApi {
         return Optional.ofNullable(config.publicUrl());
     }
 
+    /** SHA-1 for a pack from the cache (one stat); only a new or changed pack the background hasher hasn't reached yet is hashed here. */
+    public String sha1For(File f) {
+        if (config.sha1Hex() != null && !config.sha1Hex().isBlank()) return config.sha1Hex();
+
+        HashCache h = hashes;
+        String cached = (h == null) ? null : h.cached(f.toPath());
+        if (cached != null) return cached;
+
+        try {
+            return (h != null) ? h.sha1(f.toPath()) : Hashes.sha1Hex(f.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static void sendJavaPack(ServerPlayerEntity player, String url, String sha1Hex, boolean required, String prompt) {
         // Packet signature (1.21.x): (UUID id, String url, String hashHex, boolean required, Optional<Text> prompt)
         ResourcePackSendS2CPacket pkt = new ResourcePackSendS2CPacket(
@@ -59,9 +59,7 @@ public final class ResourceLib implements ModInitializer, EventRegistrar {
                     LOGGER.warn("No URL available for {} (publicUrl not set and server not serving locally).", f.getName());
                     continue;
                 }
-                String sha1 = (cfg.sha1Hex() != null && !cfg.sha1Hex().isBlank())
-                        ? cfg.sha1Hex()
-                        : com.github.beemerwt.resourcelib.util.Hashes.sha1Hex(f.toPath());
+                String sha1 = impl.sha1For(f);
 
                 ServerPlayerEntity p = handler.player;
                 ResourceImpl.sendJavaPack(p, url.get(), sha1, true, "Server resource pack required");
@@ -18,6 +18,8 @@ import java.nio.file.Path;
  * @param dataFolder       where to store downloaded packs, e.g. resourcepacks/
  * @param bindAddress      HTTP bind address if serving locally (e.g., 0.0.0.0)
  * @param port             HTTP port if serving locally
+ * @param maxDownloads     concurrent downloads served locally; extra requests get 503
+ * @param downloadKbps     per-connection download rate limit in KiB/s (0 = unlimited)
  */
 public record ResourceLibConfig(
         boolean serveLocally,
@@ -26,7 +28,9 @@ public record ResourceLibConfig(
         String sha1Hex,
         String dataFolder,
         String bindAddress,
-        int port
+        int port,
+        int maxDownloads,
+        int downloadKbps
 ) {
     private static final String DIR_NAME = "ResourceLib";
     private static final String FILE_NAME = "config.json";
@@ -59,6 +63,8 @@ public record ResourceLibConfig(
             String dataFolder = getString(obj, "dataFolder", def.dataFolder());
             String bindAddress = getString(obj, "bindAddress", def.bindAddress());
             int port = getInt(obj, "port", def.port());
+            int maxDownloads = getInt(obj, "maxDownloads", def.maxDownloads());
+            int downloadKbps = getInt(obj, "downloadKbps", def.downloadKbps());
 
             ResourceLibConfig result = new ResourceLibConfig(
                     serveLocally,
@@ -67,7 +73,9 @@ public record ResourceLibConfig(
                     sha1Hex,
                     dataFolder,
                     bindAddress,
-                    port
+                    port,
+                    maxDownloads,
+                    downloadKbps
             );
 
             // Persist merged result so users get any new keys.
@@ -95,6 +103,8 @@ public record ResourceLibConfig(
             o.addProperty("dataFolder", cfg.dataFolder());
             o.addProperty("bindAddress", cfg.bindAddress());
             o.addProperty("port", cfg.port());
+            o.addProperty("maxDownloads", cfg.maxDownloads());
+            o.addProperty("downloadKbps", cfg.downloadKbps());
             GSON.toJson(o, w);
         } catch (IOException e) {
             throw new RuntimeException("Failed writing " + file + ": " + e.getMessage(), e);
@@ -117,6 +127,8 @@ public record ResourceLibConfig(
         String dataFolder = "resourcepacks"; // relative to game dir
         String bind = "0.0.0.0";
         int port = 8123;
+        int maxDownloads = 32;
+        int downloadKbps = 8192; // 8 MiB/s per joiner
 
         return new ResourceLibConfig(
                 true,
@@ -125,7 +137,9 @@ public record ResourceLibConfig(
                 sha1Hex,
                 dataFolder,
                 bind,
-                port
+                port,
+                maxDownloads,
+                downloadKbps
         );
     }
 
@@ -1,85 +1,288 @@
 package com.github.beemerwt.resourcelib.http;
 
+import com.github.beemerwt.resourcelib.ResourceLib;
 import com.github.beemerwt.resourcelib.config.ResourceLibConfig;
-import com.github.beemerwt.resourcelib.util.Hashes;
+import com.github.beemerwt.resourcelib.util.HashCache;
 import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Serves registered pack files over HTTP.
+ * - Bodies are streamed from a FileChannel in fixed chunks; a pack is never loaded onto the heap.
+ * - ETags come from the shared {@link HashCache}, so a file is only rehashed when it changes on disk.
+ * - Supports HEAD, If-None-Match, and single-range {@code Range}/{@code If-Range} requests for resumed downloads.
+ * - Each request runs on a virtual thread; concurrent bodies are capped and each is rate limited.
+ */
 public final class EmbeddedHttpServer {
+    private static final int CHUNK = 64 * 1024;
+
     private final ResourceLibConfig config;
+    private final HashCache hashes;
     private volatile HttpServer server;
-    private final Map<String, Path> files = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private Semaphore downloads;
+    private final Map<String, Served> files = new ConcurrentHashMap<>();
+
+    /** File size, mtime and hash from one stat. A response checks it against the channel it streams from. */
+    private record Version(long size, long modified, String sha1) {
+        String etag() { return "\"" + sha1 + "\""; }
+    }
+
+    private final class Served {
+        private final Path path;
+        private Version version;
+
+        private Served(Path path) {
+            this.path = path;
+        }
+
+        /** Current version of the file, rehashing only if it changed on disk; null if it is gone. */
+        synchronized @Nullable Version current() {
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                return null;
+            }
+            if (!attrs.isRegularFile()) return null;
 
-    public EmbeddedHttpServer(ResourceLibConfig config) {
+            long modified = attrs.lastModifiedTime().toMillis();
+            if (version == null || version.size() != attrs.size() || version.modified() != modified) {
+                version = new Version(attrs.size(), modified, hashes.sha1(path, attrs));
+            }
+            return version;
+        }
+    }
+
+    public EmbeddedHttpServer(ResourceLibConfig config, HashCache hashes) {
         this.config = config;
+        this.hashes = hashes;
     }
 
     public synchronized void start() throws IOException {
         if (server != null) return;
         server = HttpServer.create(new InetSocketAddress(config.bindAddress(), config.port()), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        downloads = new Semaphore(Math.max(1, config.maxDownloads()));
+        server.setExecutor(executor);
         server.createContext("/", exchange -> {
-            try (exchange) {
-                if (!"GET".equals(exchange.getRequestMethod())) {
-                    exchange.sendResponseHeaders(405, -1);
-                    return;
-                }
-                String raw = exchange.getRequestURI().getPath(); // "/Name.zip"
-                if (raw == null || raw.equals("/") || raw.isBlank()) {
-                    exchange.sendResponseHeaders(404, -1);
-                    return;
+            try {
+                handle(exchange);
+            } catch (Exception e) {
+                // Headers already out means the client went away mid-body
+                if (exchange.getResponseCode() == -1) {
+                    ResourceLib.LOGGER.warn("Failed to serve {}: {}", exchange.getRequestURI(), e.toString());
+                    try {
+                        exchange.sendResponseHeaders(500, -1);
+                    } catch (IOException ignored) {}
+                } else {
+                    ResourceLib.LOGGER.debug("Pack download aborted: {}", e.toString());
                 }
-                String name = raw.startsWith("/") ? raw.substring(1) : raw;
-                name = URLDecoder.decode(name, StandardCharsets.UTF_8);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
 
-                // Only plain filenames, no traversal
-                if (name.contains("/") || name.contains("\\") || name.contains("..")) {
-                    exchange.sendResponseHeaders(400, -1);
-                    return;
-                }
+    private void handle(HttpExchange exchange) throws IOException, InterruptedException {
+        String method = exchange.getRequestMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) {
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
 
-                Path target = files.get(name);
-                if (target == null || !Files.isRegularFile(target)) {
-                    exchange.sendResponseHeaders(404, -1);
-                    return;
-                }
+        String raw = exchange.getRequestURI().getPath(); // "/Name.zip"
+        if (raw == null || raw.equals("/") || raw.isBlank()) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        String name = raw.startsWith("/") ? raw.substring(1) : raw;
+        name = URLDecoder.decode(name, StandardCharsets.UTF_8);
 
-                String etag = "\"" + Hashes.sha1Hex(target) + "\"";
-                String inm = exchange.getRequestHeaders().getFirst("If-None-Match");
-                if (etag.equals(inm)) {
-                    exchange.sendResponseHeaders(304, -1);
-                    return;
-                }
+        // Only plain filenames, no traversal
+        if (name.contains("/") || name.contains("\\") || name.contains("..")) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+
+        Served served = files.get(name);
+        if (served == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+
+        // Open before the stat, so the body comes from the file the headers describe even if the pack is swapped later
+        try (FileChannel ch = open(served.path)) {
+            Version v = (ch == null) ? null : served.current();
+            if (v == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (ch.size() != v.size()) {
+                // Replaced between the open and the stat; the next attempt sees one file
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            respond(exchange, head, served, v, ch);
+        }
+    }
 
-                byte[] body = Files.readAllBytes(target);
-                Headers h = exchange.getResponseHeaders();
-                h.add("Content-Type", contentTypeFor(target));
-                h.add("Content-Length", String.valueOf(body.length));
-                h.add("ETag", etag);
-                exchange.sendResponseHeaders(200, body.length);
-                try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(body);
+    private void respond(HttpExchange exchange, boolean head, Served served, Version v, FileChannel ch)
+            throws IOException, InterruptedException {
+        Headers req = exchange.getRequestHeaders();
+        Headers h = exchange.getResponseHeaders();
+        h.add("Content-Type", contentTypeFor(served.path));
+        h.add("Accept-Ranges", "bytes");
+        h.add("ETag", v.etag());
+
+        if (etagMatches(req.getFirst("If-None-Match"), v.etag())) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        int status = 200;
+        long start = 0, end = v.size() - 1;
+
+        String range = req.getFirst("Range");
+        String ifRange = req.getFirst("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(v.etag()))) {
+            long[] r = parseRange(range, v.size());
+            if (r == null) {
+                h.add("Content-Range", "bytes */" + v.size());
+                exchange.sendResponseHeaders(416, -1);
+                return;
+            }
+            if (r.length == 2) {
+                status = 206;
+                start = r[0];
+                end = r[1];
+                h.add("Content-Range", "bytes " + start + "-" + end + "/" + v.size());
+            }
+        }
+
+        long length = end - start + 1;
+        h.add("Content-Length", String.valueOf(length));
+        if (head || length <= 0) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        if (!downloads.tryAcquire()) {
+            h.set("Retry-After", "5");
+            h.remove("Content-Length");
+            exchange.sendResponseHeaders(503, -1);
+            return;
+        }
+
+        try {
+            exchange.sendResponseHeaders(status, length);
+            transfer(ch, start, length, exchange.getResponseBody());
+        } finally {
+            downloads.release();
+        }
+    }
+
+    /** Stream {@code count} bytes starting at {@code position}, paced to the configured rate. */
+    private void transfer(FileChannel ch, long position, long count, OutputStream out) throws IOException, InterruptedException {
+        long rate = Math.max(0, config.downloadKbps()) * 1024L; // bytes per second
+        long began = System.nanoTime();
+
+        try (out) {
+            WritableByteChannel sink = Channels.newChannel(out);
+            long sent = 0;
+            while (sent < count) {
+                long n = ch.transferTo(position + sent, Math.min(CHUNK, count - sent), sink);
+                if (n <= 0) throw new IOException("File shrank during transfer");
+                sent += n;
+
+                if (rate > 0) {
+                    long aheadMillis = sent * 1000L / rate - (System.nanoTime() - began) / 1_000_000L;
+                    if (aheadMillis > 0) Thread.sleep(aheadMillis);
                 }
-            } catch (Exception e) {
-                exchange.sendResponseHeaders(500, -1);
             }
-        });
-        server.start();
+        }
+    }
+
+    private static @Nullable FileChannel open(Path path) {
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse a single {@code bytes=} range against {@code size}.
+     * Returns {start, end} inclusive, an empty array to ignore the header (multi-range or other units),
+     * or null when the range cannot be satisfied.
+     */
+    private static long @Nullable [] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return new long[0];
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new long[0];
+
+        try {
+            String a = spec.substring(0, dash).trim();
+            String b = spec.substring(dash + 1).trim();
+            long start, end;
+            if (a.isEmpty()) {
+                // Suffix range: last N bytes
+                long n = Long.parseLong(b);
+                if (n <= 0) return null;
+                start = Math.max(0, size - n);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(a);
+                end = b.isEmpty() ? size - 1 : Math.min(Long.parseLong(b), size - 1);
+            }
+            if (start < 0 || start >= size || end < start) return null;
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static boolean etagMatches(@Nullable String header, String etag) {
+        if (header == null) return false;
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
     }
 
     /** Map a file to be downloadable as http://host:port/<filename> */
     public void register(Path file) {
-        files.put(file.getFileName().toString(), file.normalize());
+        Served served = new Served(file.normalize());
+        files.put(file.getFileName().toString(), served);
     }
 
     /** http://host:port/<filename> (filename is URL-encoded) */
@@ -88,10 +291,12 @@ public final class EmbeddedHttpServer {
         return "http://" + config.bindAddress() + ":" + config.port() + "/" + enc;
     }
 
-    public void stop() {
+    public synchronized void stop() {
         if (server != null) server.stop(1);
+        if (executor != null) executor.shutdownNow();
         files.clear();
         server = null;
+        executor = null;
     }
 
     private static String contentTypeFor(Path p) {
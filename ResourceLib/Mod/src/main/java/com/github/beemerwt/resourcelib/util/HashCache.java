@@ -0,0 +1,241 @@
+package com.github.beemerwt.resourcelib.util;
+
+import com.github.beemerwt.resourcelib.ResourceLib;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * SHA-1s of pack files, keyed by path and validated by (size, mtime, inode).
+ * - Entries persist to a sidecar JSON file, so an unchanged pack is never rehashed across restarts.
+ * - Tracked files are hashed on a background thread at startup, and again when a WatchService sees them change.
+ * - {@link #cached(Path)} only stats the file, never reads it; it is what the join path uses.
+ */
+public final class HashCache implements AutoCloseable {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final long DEBOUNCE_MILLIS = 500L;
+
+    private record Entry(long size, long modified, String inode, String sha1) {
+        boolean matches(BasicFileAttributes attrs) {
+            return size == attrs.size()
+                && modified == attrs.lastModifiedTime().toMillis()
+                && inode.equals(inodeOf(attrs));
+        }
+    }
+
+    private final Path sidecar;
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Path> tracked = ConcurrentHashMap.newKeySet();
+    private final Map<Path, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ResourceLib-Hash");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile WatchService watcher;
+    private Thread watchThread;
+
+    public HashCache(Path sidecar) {
+        this.sidecar = sidecar;
+        load();
+    }
+
+    // ----- lookups -----
+
+    /** Known hash of {@code file} if it is unchanged since it was hashed (one stat, no read); null otherwise. */
+    public @Nullable String cached(Path file) {
+        Path k = key(file);
+        Entry e = entries.get(k);
+        if (e == null) return null;
+
+        try {
+            return e.matches(Files.readAttributes(k, BasicFileAttributes.class)) ? e.sha1() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /** Hash of {@code file} as it is now, rehashing on the calling thread only if it changed. */
+    public String sha1(Path file) throws IOException {
+        return sha1(file, Files.readAttributes(file, BasicFileAttributes.class));
+    }
+
+    /** Same as {@link #sha1(Path)}, for callers that already read the attributes. */
+    public String sha1(Path file, BasicFileAttributes attrs) {
+        Path k = key(file);
+        Entry e = entries.get(k);
+        if (e != null && e.matches(attrs)) return e.sha1();
+
+        e = new Entry(attrs.size(), attrs.lastModifiedTime().toMillis(), inodeOf(attrs), Hashes.sha1Hex(k));
+        entries.put(k, e);
+        saveLater();
+        return e.sha1();
+    }
+
+    // ----- tracking -----
+
+    /** Hash {@code file} in the background now and whenever it changes on disk. */
+    public void track(Path file) {
+        Path k = key(file);
+        if (!tracked.add(k)) return;
+
+        refreshLater(k, 0L);
+        try {
+            watch(k.getParent());
+        } catch (IOException e) {
+            ResourceLib.LOGGER.warn("Cannot watch {} for pack changes: {}", k.getParent(), e.toString());
+        }
+    }
+
+    private void refreshLater(Path k, long delayMillis) {
+        // Coalesce bursts of events (a pack being copied in) into one rehash
+        ScheduledFuture<?> prev = pending.put(k, worker.schedule(() -> refresh(k), delayMillis, TimeUnit.MILLISECONDS));
+        if (prev != null) prev.cancel(false);
+    }
+
+    private void refresh(Path k) {
+        pending.remove(k);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(k, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) return;
+
+            long began = System.nanoTime();
+            Entry before = entries.get(k);
+            String sha1 = sha1(k, attrs);
+            if (before == null || !before.sha1().equals(sha1)) {
+                ResourceLib.LOGGER.info("Hashed {} ({} bytes) in {} ms: {}", k.getFileName(), attrs.size(),
+                        (System.nanoTime() - began) / 1_000_000L, sha1);
+            }
+        } catch (NoSuchFileException e) {
+            // Removed; keep the entry in case it comes back unchanged
+        } catch (Exception e) {
+            ResourceLib.LOGGER.warn("Failed to hash {}: {}", k, e.toString());
+        }
+    }
+
+    private synchronized void watch(Path dir) throws IOException {
+        if (watcher == null) {
+            watcher = dir.getFileSystem().newWatchService();
+            watchThread = new Thread(this::pollWatcher, "ResourceLib-Watch");
+            watchThread.setDaemon(true);
+            watchThread.start();
+        }
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private void pollWatcher() {
+        WatchService ws = watcher;
+        while (true) {
+            WatchKey wk;
+            try {
+                wk = ws.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir = (Path) wk.watchable();
+            for (WatchEvent<?> ev : wk.pollEvents()) {
+                if (!(ev.context() instanceof Path name)) continue; // OVERFLOW
+                Path k = dir.resolve(name);
+                if (tracked.contains(k)) refreshLater(k, DEBOUNCE_MILLIS);
+            }
+            wk.reset();
+        }
+    }
+
+    // ----- persistence -----
+
+    private void load() {
+        if (!Files.isRegularFile(sidecar)) return;
+        try (BufferedReader r = Files.newBufferedReader(sidecar, StandardCharsets.UTF_8)) {
+            JsonObject root = JsonParser.parseReader(r).getAsJsonObject();
+            for (var e : root.entrySet()) {
+                JsonObject o = e.getValue().getAsJsonObject();
+                entries.put(Path.of(e.getKey()), new Entry(
+                        o.get("size").getAsLong(),
+                        o.get("modified").getAsLong(),
+                        o.get("inode").getAsString(),
+                        o.get("sha1").getAsString()));
+            }
+        } catch (Exception e) {
+            ResourceLib.LOGGER.warn("Ignoring unreadable hash cache {}: {}", sidecar, e.toString());
+            entries.clear();
+        }
+    }
+
+    private void saveLater() {
+        try {
+            worker.execute(this::save);
+        } catch (RejectedExecutionException ignored) {
+            // Closing; close() writes the file itself
+        }
+    }
+
+    // Worker thread, or close() once the worker has stopped
+    private void save() {
+        JsonObject root = new JsonObject();
+        for (var e : entries.entrySet()) {
+            Entry v = e.getValue();
+            JsonObject o = new JsonObject();
+            o.addProperty("size", v.size());
+            o.addProperty("modified", v.modified());
+            o.addProperty("inode", v.inode());
+            o.addProperty("sha1", v.sha1());
+            root.add(e.getKey().toString(), o);
+        }
+
+        // Write aside and swap in, so a crash never leaves a torn file
+        Path tmp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(sidecar.getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(root, w);
+            }
+            Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            ResourceLib.LOGGER.warn("Failed to save hash cache {}: {}", sidecar, e.toString());
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            try { if (watcher != null) watcher.close(); } catch (IOException ignored) {}
+            watcher = null;
+        }
+        worker.shutdownNow();
+        try {
+            // A save still running on the worker writes the same temp file; let it finish first
+            if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+                ResourceLib.LOGGER.warn("Hash worker did not stop; not saving {}", sidecar);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        save();
+    }
+
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    private static String inodeOf(BasicFileAttributes attrs) {
+        Object k = attrs.fileKey(); // (dev=...,ino=...) on Unix; null where unsupported
+        return (k == null) ? "" : k.toString();
+    }
+}
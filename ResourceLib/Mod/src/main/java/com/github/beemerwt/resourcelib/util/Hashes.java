@@ -1,23 +1,31 @@
 package com.github.beemerwt.resourcelib.util;
 
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
+import java.util.HexFormat;
 
 public final class Hashes {
     private Hashes() {}
 
+    private static final int BUFFER = 256 * 1024;
+    private static final HexFormat HEX = HexFormat.of();
+
+    // One buffer per hashing thread (the background hasher, occasionally the server thread)
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER));
+
     public static String sha1Hex(Path file) {
-        try (InputStream is = Files.newInputStream(file)) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
             MessageDigest md = MessageDigest.getInstance("SHA-1");
-            byte[] buf = new byte[8192];
-            int r;
-            while ((r = is.read(buf)) != -1) md.update(buf, 0, r);
-            byte[] d = md.digest();
-            StringBuilder sb = new StringBuilder(d.length * 2);
-            for (byte b : d) sb.append(String.format("%02x", b));
-            return sb.toString();
+            ByteBuffer buf = BUFFERS.get().clear();
+            while (ch.read(buf) != -1) {
+                buf.flip();
+                md.update(buf);
+                buf.clear();
+            }
+            return HEX.formatHex(md.digest());
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,87 @@
+package com.github.beemerwt.resourcelib.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashCacheTest {
+    @TempDir
+    Path dir;
+
+    private static String reference(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(data));
+    }
+
+    @Test
+    void sha1HexMatchesKnownVectors() throws Exception {
+        Path empty = Files.write(dir.resolve("empty.zip"), new byte[0]);
+        Path abc = Files.writeString(dir.resolve("abc.zip"), "abc");
+
+        assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", Hashes.sha1Hex(empty));
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", Hashes.sha1Hex(abc));
+    }
+
+    @Test
+    void sha1HexSpansBufferBoundaries() throws Exception {
+        // Several reads of the 256 KiB buffer plus a ragged tail, hashed twice to exercise buffer reuse
+        byte[] data = new byte[3 * 256 * 1024 + 12345];
+        new Random(42).nextBytes(data);
+        Path file = Files.write(dir.resolve("big.zip"), data);
+
+        assertEquals(reference(data), Hashes.sha1Hex(file));
+        assertEquals(reference(data), Hashes.sha1Hex(file));
+    }
+
+    @Test
+    void cachedOnlyAnswersForUnchangedFiles() throws Exception {
+        Path pack = Files.writeString(dir.resolve("pack.zip"), "first");
+        try (HashCache cache = new HashCache(dir.resolve("hashes.json"))) {
+            assertNull(cache.cached(pack), "never hashed");
+
+            String first = cache.sha1(pack);
+            assertEquals(reference("first".getBytes()), first);
+            assertEquals(first, cache.cached(pack));
+
+            // Same size, different content and mtime: must not serve the old hash
+            Files.writeString(pack, "other");
+            Files.setLastModifiedTime(pack, FileTime.fromMillis(Files.getLastModifiedTime(pack).toMillis() + 5_000L));
+            assertNull(cache.cached(pack));
+            assertEquals(reference("other".getBytes()), cache.sha1(pack));
+            assertEquals(reference("other".getBytes()), cache.cached(pack));
+
+            Files.delete(pack);
+            assertNull(cache.cached(pack), "missing file");
+        }
+    }
+
+    @Test
+    void entriesSurviveRestartOnlyWhileFileIsUnchanged() throws Exception {
+        Path sidecar = dir.resolve("hashes.json");
+        Path pack = Files.writeString(dir.resolve("pack.zip"), "contents");
+
+        String hash;
+        try (HashCache cache = new HashCache(sidecar)) {
+            hash = cache.sha1(pack);
+        }
+        assertTrue(Files.isRegularFile(sidecar));
+
+        try (HashCache cache = new HashCache(sidecar)) {
+            assertEquals(hash, cache.cached(pack));
+        }
+
+        // Replaced while "the server was down"
+        Files.writeString(pack, "new contents, longer");
+        try (HashCache cache = new HashCache(sidecar)) {
+            assertNull(cache.cached(pack));
+            assertEquals(reference("new contents, longer".getBytes()), cache.sha1(pack));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.beemerwt.spawnertweaks.runtime;
+
+import com.github.beemerwt.spawnertweaks.config.Config;
+import com.github.beemerwt.spawnertweaks.config.ConfigManager;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.EntityType;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One server tick of every spawner in a large farm world, i.e. the work of {@code MobSpawnerLogicMixin.applyConfig}
+ * per spawner: entity type from the entry id, resolved settings, live mob count, field writes.
+ * - {@link #tick}: the current path (cached type, resolved table, packed-pos counts)
+ * - {@link #previousTick}: the path it replaced (parse + merge settings + string key per spawner per tick)
+ * Run with the default {@code -prof gc}; {@code gc.alloc.rate.norm} for {@link #tick} should be ~0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpawnerTickBenchmark {
+    private static final EntityType<?>[] TYPES = {
+            EntityType.ZOMBIE, EntityType.SKELETON, EntityType.SPIDER, EntityType.CAVE_SPIDER, EntityType.BLAZE
+    };
+
+    /** The mixin's view of one spawner: its entry id, cached type, and the fields applyConfig writes. */
+    static final class Spawner {
+        final Identifier dim;
+        final BlockPos pos;
+        final String entryId;
+
+        String typeId;
+        EntityType<?> type;
+        int spawnDelay, spawnCount, maxNearbyEntities, requiredPlayerRange, spawnRange, minSpawnDelay, maxSpawnDelay;
+
+        Spawner(Identifier dim, BlockPos pos, String entryId) {
+            this.dim = dim;
+            this.pos = pos;
+            this.entryId = entryId;
+        }
+    }
+
+    @Param({"1000", "5000"})
+    public int spawners;
+
+    private Spawner[] farm;
+    private final Map<String, Integer> previousCounts = new HashMap<>();
+
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        var cfg = new Config();
+        cfg.entityOverrides.put("minecraft:cave_spider", settings(100, 400, 2, 45));
+        cfg.entityOverrides.put("minecraft:zombie", settings(-1, -1, 6, 30));
+        ConfigManager.set(cfg);
+
+        Identifier[] dims = { Identifier.ofVanilla("overworld"), Identifier.ofVanilla("the_nether") };
+        farm = new Spawner[spawners];
+        for (int i = 0; i < spawners; i++) {
+            EntityType<?> type = TYPES[i % TYPES.length];
+            BlockPos pos = new BlockPos((i % 64) * 16 + 8, 20 + i % 40, (i / 64) * 16 + 8);
+            // Each spawner's NBT holds its own copy of the id string
+            String id = new String(Registries.ENTITY_TYPE.getId(type).toString());
+            Spawner s = new Spawner(dims[i & 1], pos, id);
+            farm[i] = s;
+
+            // Most spawners have a few live mobs; some are at their cap
+            int mobs = (i % 7 == 0) ? 50 : i % 5;
+            if (mobs > 0) {
+                SpawnerCapTracker.adjust(s.dim, pos.asLong(), mobs);
+                previousCounts.put(s.dim + "|" + pos.getX() + "," + pos.getY() + "," + pos.getZ(), mobs);
+            }
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        int cancelled = 0;
+        for (Spawner sp : farm) {
+            final String typeId = sp.entryId;
+            if (typeId != sp.typeId) {
+                sp.typeId = typeId;
+                sp.type = entityTypeFromId(typeId);
+            }
+            final ConfigManager.Resolved s = ConfigManager.resolved(sp.type);
+
+            if (s.spawnCap() != -1) {
+                int existing = SpawnerCapTracker.count(sp.dim, sp.pos.asLong());
+                if (existing >= s.spawnCap()) {
+                    sp.spawnDelay = Math.max(sp.spawnDelay, 200);
+                    cancelled++;
+                    continue;
+                }
+            }
+
+            if (s.spawnCount() != -1) sp.spawnCount = s.spawnCount();
+            if (s.maxNearbyEntities() != -1) sp.maxNearbyEntities = s.maxNearbyEntities();
+            if (s.requiredPlayerRange() != -1) sp.requiredPlayerRange = s.requiredPlayerRange();
+            if (s.spawnRange() != -1) sp.spawnRange = s.spawnRange();
+            if (s.minSpawnDelay() != -1) sp.minSpawnDelay = s.minSpawnDelay();
+            if (s.maxSpawnDelay() != -1) sp.maxSpawnDelay = s.maxSpawnDelay();
+        }
+        return cancelled;
+    }
+
+    @Benchmark
+    public int previousTick() {
+        int cancelled = 0;
+        for (Spawner sp : farm) {
+            final EntityType<?> type = entityTypeFromId(sp.entryId);
+            final Config.SpawnSettings s = ConfigManager.effectiveSettings(type);
+
+            final String key = sp.dim + "|" + sp.pos.getX() + "," + sp.pos.getY() + "," + sp.pos.getZ();
+            if (s.spawnCap != -1) {
+                int existing = previousCounts.getOrDefault(key, 0);
+                if (existing >= s.spawnCap) {
+                    sp.spawnDelay = Math.max(sp.spawnDelay, 200);
+                    cancelled++;
+                    continue;
+                }
+            }
+
+            if (s.spawnCount != -1) sp.spawnCount = s.spawnCount;
+            if (s.maxNearbyEntities != -1) sp.maxNearbyEntities = s.maxNearbyEntities;
+            if (s.requiredPlayerRange != -1) sp.requiredPlayerRange = s.requiredPlayerRange;
+            if (s.spawnRange != -1) sp.spawnRange = s.spawnRange;
+            if (s.minSpawnDelay != -1) sp.minSpawnDelay = s.minSpawnDelay;
+            if (s.maxSpawnDelay != -1) sp.maxSpawnDelay = s.maxSpawnDelay;
+        }
+        return cancelled;
+    }
+
+    private static EntityType<?> entityTypeFromId(String idStr) {
+        if (idStr.isEmpty()) return null;
+
+        Identifier id = Identifier.tryParse(idStr);
+        if (id == null) return null;
+        return Registries.ENTITY_TYPE.get(id);
+    }
+
+    private static Config.SpawnSettings settings(int minDelay, int maxDelay, int count, int cap) {
+        var s = new Config.SpawnSettings();
+        s.minSpawnDelay = minDelay;
+        s.maxSpawnDelay = maxDelay;
+        s.spawnCount = count;
+        s.spawnCap = cap;
+        return s;
+    }
+}
@@ -1,8 +1,10 @@
 package com.github.beemerwt.spawnertweaks.config;
 
+import com.github.beemerwt.spawnertweaks.SpawnerTweaks;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.SerializedName;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.entity.EntityType;
 import net.minecraft.registry.Registries;
@@ -33,12 +35,26 @@ public final class ConfigManager {
     private static final String FILE_NAME = "config.json";
     private static volatile Config CURRENT;
 
+    /** Fully resolved settings for one entity type; immutable so it can be shared across spawner ticks. */
+    public record Resolved(int minSpawnDelay, int maxSpawnDelay, int spawnCount, int maxNearbyEntities,
+                           int requiredPlayerRange, int spawnRange, int spawnCap) {
+        private static Resolved of(Config.SpawnSettings s) {
+            return new Resolved(s.minSpawnDelay, s.maxSpawnDelay, s.spawnCount, s.maxNearbyEntities,
+                    s.requiredPlayerRange, s.spawnRange, s.spawnCap);
+        }
+    }
+
+    // Built on first use after each (re)load, once every mod's entity types are registered
+    private static volatile Reference2ObjectOpenHashMap<EntityType<?>, Resolved> RESOLVED;
+    private static volatile Resolved RESOLVED_DEFAULT;
+
     public static Path path() {
         return FabricLoader.getInstance().getConfigDir().resolve(CONFIG_DIR).resolve(FILE_NAME);
     }
 
     public static synchronized void load() {
         var p = path();
+        RESOLVED = null;
         try {
             if (!Files.exists(p)) {
                 ensureParent(p);
@@ -84,8 +100,49 @@ public final class ConfigManager {
         return CURRENT;
     }
 
+    /** Replace the current config without touching the file (see {@link #save()}); spawners pick it up next tick. */
+    public static synchronized void set(Config cfg) {
+        CURRENT = cfg;
+        RESOLVED = null;
+    }
+
     // ----- Resolution -----
 
+    /** Settings for spawners of {@code type} (defaults if null or not overridden). No allocation once built. */
+    public static Resolved resolved(EntityType<?> type) {
+        var table = RESOLVED;
+        if (table == null) table = rebuild();
+
+        Resolved r = (type == null) ? null : table.get(type);
+        return (r != null) ? r : RESOLVED_DEFAULT;
+    }
+
+    private static synchronized Reference2ObjectOpenHashMap<EntityType<?>, Resolved> rebuild() {
+        if (RESOLVED != null) return RESOLVED;
+
+        var cfg = get();
+        var table = new Reference2ObjectOpenHashMap<EntityType<?>, Resolved>();
+        for (String key : cfg.entityOverrides.keySet()) {
+            Identifier id = Identifier.tryParse(key);
+            if (id == null || !Registries.ENTITY_TYPE.containsId(id)) {
+                SpawnerTweaks.LOGGER.warn("Unknown entity '{}' in entityOverrides", key);
+                continue;
+            }
+
+            EntityType<?> type = Registries.ENTITY_TYPE.get(id);
+            table.put(type, Resolved.of(effectiveSettings(type)));
+        }
+        table.trim();
+
+        var defaults = cfg.defaults.copy();
+        if (!cfg.disable_safety_caps) clamp(defaults);
+        if (cfg.disable_spawn_caps) defaults.spawnCap = -1;
+
+        RESOLVED_DEFAULT = Resolved.of(defaults);
+        RESOLVED = table;
+        return table;
+    }
+
     public static Config.SpawnSettings effectiveSettings(EntityType<?> type) {
         var cfg = get();
         var base = cfg.defaults.copy();
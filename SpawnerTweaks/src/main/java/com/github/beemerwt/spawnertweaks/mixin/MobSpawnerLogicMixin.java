@@ -1,7 +1,6 @@
 // mixin/MobSpawnerLogicMixin.java
 package com.github.beemerwt.spawnertweaks.mixin;
 
-import com.github.beemerwt.spawnertweaks.config.Config;
 import com.github.beemerwt.spawnertweaks.config.ConfigManager;
 import com.github.beemerwt.spawnertweaks.runtime.SpawnerCapTracker;
 import net.minecraft.block.spawner.MobSpawnerEntry;
@@ -31,37 +30,36 @@ public abstract class MobSpawnerLogicMixin {
     @Shadow private int minSpawnDelay;
     @Shadow private int maxSpawnDelay;
 
-    @Unique private static final ThreadLocal<String> ST_CURRENT_KEY = new ThreadLocal<>();
+    // Last "id" string seen and the type it names. Spawn eggs rewrite the id in place, so compare the
+    // string instance rather than the entry; it is only re-parsed when it actually changes.
+    @Unique private String st$typeId;
+    @Unique private EntityType<?> st$type;
 
     @Inject(method = "serverTick", at = @At("HEAD"), cancellable = true)
     private void applyConfig(ServerWorld world, BlockPos pos, CallbackInfo ci) {
         final MobSpawnerEntry entry = ((MobSpawnerLogic_SpawnEntryAccessor)(Object)this).st$getSpawnEntry();
-        final EntityType<?> type = entityTypeFromEntry(entry);
-        final Config.SpawnSettings s = ConfigManager.effectiveSettings(type);
-
-        final String key = makeSpawnerKey(world, pos);
-        ST_CURRENT_KEY.set(key);
+        final String typeId = (entry == null) ? "" : entry.getNbt().getString("id", "");
+        if (typeId != st$typeId) {
+            st$typeId = typeId;
+            st$type = entityTypeFromId(typeId);
+        }
+        final ConfigManager.Resolved s = ConfigManager.resolved(st$type);
 
-        if (s.spawnCap != -1) {
-            int existing = SpawnerCapTracker.count(key);
-            if (existing >= s.spawnCap) {
+        if (s.spawnCap() != -1) {
+            int existing = SpawnerCapTracker.count(world.getRegistryKey().getValue(), pos.asLong());
+            if (existing >= s.spawnCap()) {
                 this.spawnDelay = Math.max(this.spawnDelay, 200);
                 ci.cancel();
                 return;
             }
         }
 
-        if (s.spawnCount != -1) this.spawnCount = s.spawnCount;
-        if (s.maxNearbyEntities != -1) this.maxNearbyEntities = s.maxNearbyEntities;
-        if (s.requiredPlayerRange != -1) this.requiredPlayerRange = s.requiredPlayerRange;
-        if (s.spawnRange != -1) this.spawnRange = s.spawnRange;
-        if (s.minSpawnDelay != -1) this.minSpawnDelay = s.minSpawnDelay;
-        if (s.maxSpawnDelay != -1) this.maxSpawnDelay = s.maxSpawnDelay;
-    }
-
-    @Inject(method = "serverTick", at = @At("TAIL"))
-    private void clearThreadLocal(ServerWorld world, BlockPos pos, CallbackInfo ci) {
-        ST_CURRENT_KEY.remove();
+        if (s.spawnCount() != -1) this.spawnCount = s.spawnCount();
+        if (s.maxNearbyEntities() != -1) this.maxNearbyEntities = s.maxNearbyEntities();
+        if (s.requiredPlayerRange() != -1) this.requiredPlayerRange = s.requiredPlayerRange();
+        if (s.spawnRange() != -1) this.spawnRange = s.spawnRange();
+        if (s.minSpawnDelay() != -1) this.minSpawnDelay = s.minSpawnDelay();
+        if (s.maxSpawnDelay() != -1) this.maxSpawnDelay = s.maxSpawnDelay();
     }
 
     @Redirect(
@@ -71,28 +69,17 @@ public abstract class MobSpawnerLogicMixin {
                     target = "Lnet/minecraft/server/world/ServerWorld;spawnNewEntityAndPassengers(Lnet/minecraft/entity/Entity;)Z"
             )
     )
-    private boolean tagAndSpawn(ServerWorld world, Entity entity) {
-        String key = ST_CURRENT_KEY.get();
-        if (key != null) {
-            entity.addCommandTag(SpawnerCapTracker.makeTag(key));
-        }
+    private boolean tagAndSpawn(ServerWorld world, Entity entity, ServerWorld tickWorld, BlockPos pos) {
+        entity.addCommandTag(SpawnerCapTracker.makeTag(tickWorld.getRegistryKey().getValue(), pos));
         return world.spawnNewEntityAndPassengers(entity);
     }
 
     @Unique
-    private static String makeSpawnerKey(ServerWorld world, BlockPos pos) {
-        String dim = world.getRegistryKey().getValue().toString(); // e.g. minecraft:overworld
-        return dim + "|" + pos.getX() + "," + pos.getY() + "," + pos.getZ();
-    }
-
-    @Unique
-    private EntityType<?> entityTypeFromEntry(MobSpawnerEntry entry) {
-        if (entry == null) return null;
-        String idStr = entry.getNbt().getString("id", "");
+    private static EntityType<?> entityTypeFromId(String idStr) {
         if (idStr.isEmpty()) return null;
 
         Identifier id = Identifier.tryParse(idStr);
         if (id == null) return null;
         return Registries.ENTITY_TYPE.get(id);
     }
-}
\ No newline at end of file
+}
@@ -1,41 +1,72 @@
 // runtime/SpawnerCapTracker.java
 package com.github.beemerwt.spawnertweaks.runtime;
 
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.minecraft.entity.Entity;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Live mob counts per spawner, keyed by dimension and packed BlockPos.
+ * Spawned mobs carry a {@code spawnertweaks:<dim>|x,y,z} tag so counts survive restarts;
+ * the tag is only built at spawn and parsed on entity load/unload, never on the spawner tick.
+ * Server thread only.
+ */
 public final class SpawnerCapTracker {
     private SpawnerCapTracker() {}
 
-    private static final Map<String, Integer> COUNTS = new ConcurrentHashMap<>();
-    private static final String TAG_PREFIX = "spawnertweaks:"; // + key
+    private static final Map<Identifier, Long2IntOpenHashMap> COUNTS = new HashMap<>();
+    private static final String TAG_PREFIX = "spawnertweaks:"; // + dim|x,y,z
 
     public static void register() {
-        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
-            String key = keyFromTags(entity);
-            if (key != null) COUNTS.merge(key, 1, Integer::sum);
-        });
-        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
-            String key = keyFromTags(entity);
-            if (key != null) COUNTS.computeIfPresent(key, (k, v) -> (v <= 1) ? null : v - 1);
-        });
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> adjust(entity, 1));
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> adjust(entity, -1));
     }
 
-    public static int count(String key) {
-        return key == null ? 0 : COUNTS.getOrDefault(key, 0);
+    public static int count(Identifier dim, long pos) {
+        Long2IntOpenHashMap counts = COUNTS.get(dim);
+        return counts == null ? 0 : counts.get(pos);
     }
 
-    public static String makeTag(String key) {
-        return TAG_PREFIX + key;
+    public static String makeTag(Identifier dim, BlockPos pos) {
+        return TAG_PREFIX + dim + "|" + pos.getX() + "," + pos.getY() + "," + pos.getZ();
     }
 
-    private static String keyFromTags(Entity e) {
+    private static void adjust(Entity e, int delta) {
         for (String t : e.getCommandTags()) {
-            if (t.startsWith(TAG_PREFIX)) return t.substring(TAG_PREFIX.length());
+            if (!t.startsWith(TAG_PREFIX)) continue;
+
+            int bar = t.indexOf('|', TAG_PREFIX.length());
+            if (bar < 0) return;
+            Identifier dim = Identifier.tryParse(t.substring(TAG_PREFIX.length(), bar));
+            long pos = parsePos(t, bar + 1);
+            if (dim != null && pos != Long.MIN_VALUE) adjust(dim, pos, delta);
+            return;
+        }
+    }
+
+    static void adjust(Identifier dim, long pos, int delta) {
+        Long2IntOpenHashMap counts = COUNTS.computeIfAbsent(dim, k -> new Long2IntOpenHashMap());
+        int n = counts.addTo(pos, delta) + delta;
+        if (n <= 0) counts.remove(pos);
+    }
+
+    /** "x,y,z" starting at {@code from}, or Long.MIN_VALUE if malformed. */
+    private static long parsePos(String s, int from) {
+        int c1 = s.indexOf(',', from);
+        int c2 = (c1 < 0) ? -1 : s.indexOf(',', c1 + 1);
+        if (c2 < 0) return Long.MIN_VALUE;
+        try {
+            int x = Integer.parseInt(s, from, c1, 10);
+            int y = Integer.parseInt(s, c1 + 1, c2, 10);
+            int z = Integer.parseInt(s, c2 + 1, s.length(), 10);
+            return BlockPos.asLong(x, y, z);
+        } catch (NumberFormatException ex) {
+            return Long.MIN_VALUE;
         }
-        return null;
     }
 }
@@ -0,0 +1,117 @@
+package com.github.beemerwt.spawnertweaks.config;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.EntityType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigManagerTest {
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    private static Config.SpawnSettings unset() {
+        var s = new Config.SpawnSettings();
+        s.minSpawnDelay = -1;
+        s.maxSpawnDelay = -1;
+        s.spawnCount = -1;
+        s.maxNearbyEntities = -1;
+        s.requiredPlayerRange = -1;
+        s.spawnRange = -1;
+        s.spawnCap = -1;
+        return s;
+    }
+
+    private static Config config() {
+        var cfg = new Config();
+        var zombie = unset();
+        zombie.spawnCount = 8;
+        zombie.spawnCap = 20;
+        cfg.entityOverrides.put("minecraft:zombie", zombie);
+        return cfg;
+    }
+
+    @Test
+    void overridesMergeOverDefaults() {
+        ConfigManager.set(config());
+
+        assertEquals(new ConfigManager.Resolved(200, 800, 8, 6, 16, 4, 20), ConfigManager.resolved(EntityType.ZOMBIE));
+        assertEquals(new ConfigManager.Resolved(200, 800, 4, 6, 16, 4, 70), ConfigManager.resolved(EntityType.SPIDER));
+    }
+
+    @Test
+    void typesWithoutOverrideShareTheDefaults() {
+        ConfigManager.set(config());
+
+        var defaults = ConfigManager.resolved(null);
+        assertSame(defaults, ConfigManager.resolved(EntityType.SPIDER));
+        assertSame(defaults, ConfigManager.resolved(EntityType.BLAZE));
+        assertSame(ConfigManager.resolved(EntityType.ZOMBIE), ConfigManager.resolved(EntityType.ZOMBIE));
+    }
+
+    @Test
+    void unknownKeysAreSkipped() {
+        var cfg = config();
+        cfg.entityOverrides.put("minecraft:not_a_mob", new Config.SpawnSettings());
+        cfg.entityOverrides.put("::bad::", new Config.SpawnSettings());
+        ConfigManager.set(cfg);
+
+        assertEquals(8, ConfigManager.resolved(EntityType.ZOMBIE).spawnCount());
+        assertSame(ConfigManager.resolved(null), ConfigManager.resolved(EntityType.SKELETON));
+    }
+
+    @Test
+    void settingAConfigReplacesTheTable() {
+        ConfigManager.set(config());
+        assertEquals(8, ConfigManager.resolved(EntityType.ZOMBIE).spawnCount());
+
+        var cfg = config();
+        cfg.entityOverrides.get("minecraft:zombie").spawnCount = 3;
+        ConfigManager.set(cfg);
+
+        assertEquals(3, ConfigManager.resolved(EntityType.ZOMBIE).spawnCount());
+    }
+
+    @Test
+    void safetyCapsClampAndOrderDelays() {
+        var cfg = config();
+        var spider = unset();
+        spider.minSpawnDelay = 900;
+        spider.maxSpawnDelay = 0;
+        spider.spawnCount = 500;
+        spider.requiredPlayerRange = 1000;
+        spider.spawnRange = 0;
+        spider.spawnCap = 5000;
+        cfg.entityOverrides.put("minecraft:spider", spider);
+        ConfigManager.set(cfg);
+
+        assertEquals(new ConfigManager.Resolved(1, 900, 64, 6, 128, 1, 1000), ConfigManager.resolved(EntityType.SPIDER));
+    }
+
+    @Test
+    void disablingSafetyCapsKeepsRawValues() {
+        var cfg = config();
+        cfg.disable_safety_caps = true;
+        cfg.defaults.spawnCount = 500;
+        ConfigManager.set(cfg);
+
+        assertEquals(new ConfigManager.Resolved(200, 800, 8, 6, 16, 4, 20), ConfigManager.resolved(EntityType.ZOMBIE));
+        assertEquals(500, ConfigManager.resolved(EntityType.SPIDER).spawnCount());
+        assertEquals(500, ConfigManager.effectiveSettings(EntityType.SPIDER).spawnCount);
+    }
+
+    @Test
+    void disablingSpawnCapsAppliesEverywhere() {
+        var cfg = config();
+        cfg.disable_spawn_caps = true;
+        ConfigManager.set(cfg);
+
+        assertEquals(-1, ConfigManager.resolved(EntityType.ZOMBIE).spawnCap());
+        assertEquals(-1, ConfigManager.resolved(null).spawnCap());
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.beemerwt.telekinesis;
+
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * One server tick on a world with {@code players} players each harvesting their own bamboo farm.
+ * Per player per tick: one bamboo broken, filed the way Telekinesis does it (a block zone plus a 65-zone column,
+ * radius 2.25, 4 ticks), then one item spawn per broken segment looked up, then the tick's purge.
+ * - {@link #tick}: the per-world section index with expiry buckets
+ * - {@link #previousTick}: the per-player deques it replaced, where every spawn walked every player
+ * Player resolution is a map lookup standing in for PlayerManager.getPlayer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BreakZonesBenchmark {
+    private static final int LIFETIME_TICKS = 4;
+    private static final double RADIUS = 2.25;
+    private static final int COLUMN = 64;
+    private static final int BAMBOO_HEIGHT = 14;
+    private static final int ROWS = 16; // bamboo columns per farm, harvested in turn
+
+    @Param({"200"})
+    public int players;
+
+    private UUID[] ids;
+    private Map<UUID, UUID> online;
+    private Function<UUID, UUID> resolve;
+    private Vec3d[][][] zoneCenters; // [player][row][zone]
+    private Vec3d[][][] drops;       // [player][row][segment]
+
+    private BreakZones.Index index;
+    private PreviousZones previous;
+    private long now;
+
+    @Setup
+    public void setup() {
+        ids = new UUID[players];
+        online = new HashMap<>();
+        zoneCenters = new Vec3d[players][ROWS][];
+        drops = new Vec3d[players][ROWS][BAMBOO_HEIGHT];
+
+        SplittableRandom rnd = new SplittableRandom(42);
+        int side = (int) Math.ceil(Math.sqrt(players));
+        for (int p = 0; p < players; p++) {
+            ids[p] = new UUID(rnd.nextLong(), rnd.nextLong());
+            online.put(ids[p], ids[p]);
+
+            // Farms 48 blocks apart, each a row of bamboo at y=64
+            int fx = (p % side) * 48, fz = (p / side) * 48;
+            for (int row = 0; row < ROWS; row++) {
+                double x = fx + row + 0.5, z = fz + 0.5;
+                Vec3d[] centers = new Vec3d[COLUMN + 2];
+                centers[0] = new Vec3d(x, 64.5, z);
+                for (int i = 0; i <= COLUMN; i++) centers[i + 1] = new Vec3d(x, 64.5 + i, z);
+                zoneCenters[p][row] = centers;
+
+                for (int s = 0; s < BAMBOO_HEIGHT; s++) {
+                    drops[p][row][s] = new Vec3d(x + rnd.nextDouble(-0.25, 0.25), 64.5 + s, z + rnd.nextDouble(-0.25, 0.25));
+                }
+            }
+        }
+
+        resolve = online::get;
+        index = new BreakZones.Index();
+        previous = new PreviousZones();
+        now = 0;
+    }
+
+    @Benchmark
+    public int tick() {
+        long t = ++now;
+        int row = (int) (t % ROWS);
+        for (int p = 0; p < players; p++) {
+            for (Vec3d c : zoneCenters[p][row]) index.add(new BreakZones.Zone(ids[p], c, RADIUS, t + LIFETIME_TICKS));
+        }
+
+        int captured = 0;
+        for (int p = 0; p < players; p++) {
+            for (Vec3d item : drops[p][row]) {
+                if (index.breaker(item, t, resolve) != null) captured++;
+            }
+        }
+
+        index.purge(t);
+        return captured;
+    }
+
+    @Benchmark
+    public int previousTick() {
+        long t = ++now;
+        int row = (int) (t % ROWS);
+        for (int p = 0; p < players; p++) {
+            previous.addAll(ids[p], zoneCenters[p][row], RADIUS, t, LIFETIME_TICKS);
+        }
+
+        int captured = 0;
+        for (int p = 0; p < players; p++) {
+            for (Vec3d item : drops[p][row]) {
+                if (previous.breakerFor(online, item) != null) captured++;
+            }
+        }
+
+        previous.purgeExpired(t);
+        return captured;
+    }
+
+    /** The per-player deques BreakZones replaced. */
+    private static final class PreviousZones {
+        private record Zone(Vec3d center, double r2, long expiresAt) {
+            boolean contains(Vec3d p) {
+                return p.squaredDistanceTo(center) <= r2;
+            }
+        }
+
+        private final Map<UUID, Deque<Zone>> zones = new ConcurrentHashMap<>();
+
+        void addAll(UUID playerId, Vec3d[] centers, double radius, long nowTick, int lifetimeTicks) {
+            Deque<Zone> dq = zones.computeIfAbsent(playerId, k -> new ArrayDeque<>());
+            for (Vec3d c : centers) dq.addLast(new Zone(c, radius * radius, nowTick + lifetimeTicks));
+        }
+
+        void purgeExpired(long nowTick) {
+            for (Deque<Zone> dq : zones.values()) {
+                while (!dq.isEmpty() && dq.peekFirst().expiresAt() <= nowTick) dq.removeFirst();
+            }
+        }
+
+        UUID breakerFor(Map<UUID, UUID> online, Vec3d itemPos) {
+            UUID best = null;
+            long bestExpires = Long.MIN_VALUE;
+
+            for (Map.Entry<UUID, Deque<Zone>> e : zones.entrySet()) {
+                UUID sp = online.get(e.getKey());
+                if (sp == null) continue;
+
+                Iterator<Zone> it = e.getValue().descendingIterator();
+                while (it.hasNext()) {
+                    Zone z = it.next();
+                    if (z.contains(itemPos)) {
+                        if (z.expiresAt() > bestExpires) {
+                            bestExpires = z.expiresAt();
+                            best = sp;
+                        }
+                        break;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+}
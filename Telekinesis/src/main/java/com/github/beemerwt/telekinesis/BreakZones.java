@@ -1,25 +1,40 @@
 package com.github.beemerwt.telekinesis;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.function.Function;
+
+/**
+ * Short-lived capture zones, indexed per world.
+ * - Each zone is filed under every chunk section its sphere overlaps, so a spawn only checks its own section.
+ * - Zones are also bucketed by expiry tick; purging a tick drops one bucket.
+ * Server thread only.
+ */
 public final class BreakZones {
     private BreakZones() {}
 
-    private static final class Zone {
+    static final class Zone {
+        final UUID playerId;
         final Vec3d center;
         final double r2;
         final long expiresAt; // server tick time (world.getTime())
+        final long[] sections;
 
-        Zone(Vec3d c, double radius, long expiresAt) {
+        Zone(UUID playerId, Vec3d c, double radius, long expiresAt) {
+            this.playerId = playerId;
             this.center = c;
             this.r2 = radius * radius;
             this.expiresAt = expiresAt;
+            this.sections = overlappedSections(c, radius);
         }
 
         boolean contains(Vec3d p) {
@@ -27,61 +42,127 @@ public final class BreakZones {
         }
     }
 
-    // zones per player
-    private static final Map<UUID, Deque<Zone>> ZONES = new ConcurrentHashMap<>();
+    static final class Index {
+        private final Long2ObjectOpenHashMap<ArrayList<Zone>> bySection = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<ArrayList<Zone>> byExpiry = new Long2ObjectOpenHashMap<>();
+        private long purgedThrough = Long.MIN_VALUE;
+
+        void add(Zone z) {
+            for (long s : z.sections) bySection.computeIfAbsent(s, k -> new ArrayList<>(4)).add(z);
+            byExpiry.computeIfAbsent(z.expiresAt, k -> new ArrayList<>()).add(z);
+        }
+
+        void purge(long nowTick) {
+            if (byExpiry.isEmpty()) {
+                purgedThrough = nowTick;
+                return;
+            }
+
+            // Normally one bucket per tick; after a long gap, sweep the buckets instead of the ticks
+            if (purgedThrough == Long.MIN_VALUE || nowTick - purgedThrough > byExpiry.size()) {
+                ObjectIterator<Long2ObjectMap.Entry<ArrayList<Zone>>> it = byExpiry.long2ObjectEntrySet().fastIterator();
+                while (it.hasNext()) {
+                    var e = it.next();
+                    if (e.getLongKey() > nowTick) continue;
+                    unfile(e.getValue());
+                    it.remove();
+                }
+            } else {
+                for (long t = purgedThrough + 1; t <= nowTick; t++) {
+                    ArrayList<Zone> due = byExpiry.remove(t);
+                    if (due != null) unfile(due);
+                }
+            }
+            purgedThrough = nowTick;
+        }
+
+        /** The zone containing {@code pos} that lives longest, among those whose player {@code resolve} accepts. */
+        <P> P breaker(Vec3d pos, long nowTick, Function<UUID, P> resolve) {
+            long section = ChunkSectionPos.asLong(
+                    MathHelper.floor(pos.x) >> 4, MathHelper.floor(pos.y) >> 4, MathHelper.floor(pos.z) >> 4);
+            ArrayList<Zone> cell = bySection.get(section);
+            if (cell == null) return null;
+
+            P best = null;
+            long bestExpires = Long.MIN_VALUE;
+
+            // newest first
+            for (int i = cell.size() - 1; i >= 0; i--) {
+                Zone z = cell.get(i);
+                if (z.expiresAt <= nowTick || z.expiresAt <= bestExpires || !z.contains(pos)) continue;
+
+                P p = resolve.apply(z.playerId);
+                if (p == null) continue;
+
+                bestExpires = z.expiresAt;
+                best = p;
+            }
+            return best;
+        }
+
+        int sectionCount() {
+            return bySection.size();
+        }
+
+        int bucketCount() {
+            return byExpiry.size();
+        }
+
+        private void unfile(List<Zone> zones) {
+            for (Zone z : zones) {
+                for (long s : z.sections) {
+                    ArrayList<Zone> cell = bySection.get(s);
+                    if (cell == null) continue;
+                    cell.remove(z);
+                    if (cell.isEmpty()) bySection.remove(s);
+                }
+            }
+        }
+    }
+
+    private static final Map<ServerWorld, Index> WORLDS = new HashMap<>();
+
+    private static Index index(ServerWorld world) {
+        return WORLDS.computeIfAbsent(world, w -> new Index());
+    }
+
+    /** Drop a world's zones when it unloads. */
+    public static void forget(ServerWorld world) {
+        WORLDS.remove(world);
+    }
 
     /** Add a small zone at pos for `lifetimeTicks`. */
-    public static void add(UUID playerId, Vec3d center, double radius, long nowTick, int lifetimeTicks) {
-        ZONES.computeIfAbsent(playerId, k -> new ArrayDeque<>())
-                .addLast(new Zone(center, radius, nowTick + lifetimeTicks));
+    public static void add(ServerWorld world, UUID playerId, Vec3d center, double radius, int lifetimeTicks) {
+        index(world).add(new Zone(playerId, center, radius, world.getTime() + lifetimeTicks));
     }
 
     /** Add multiple zones (e.g., for a vertical column of “connected” blocks). */
-    public static void addAll(UUID playerId, Collection<Vec3d> centers, double radius, long nowTick, int lifetimeTicks) {
-        Deque<Zone> dq = ZONES.computeIfAbsent(playerId, k -> new ArrayDeque<>());
-        for (Vec3d c : centers) dq.addLast(new Zone(c, radius, nowTick + lifetimeTicks));
+    public static void addAll(ServerWorld world, UUID playerId, Collection<Vec3d> centers, double radius, int lifetimeTicks) {
+        Index idx = index(world);
+        long expiresAt = world.getTime() + lifetimeTicks;
+        for (Vec3d c : centers) idx.add(new Zone(playerId, c, radius, expiresAt));
     }
 
-    /** Remove expired zones. Call once per server tick. */
-    public static void purgeExpired(long nowTick) {
-        for (Deque<Zone> dq : ZONES.values()) {
-            while (!dq.isEmpty() && dq.peekFirst().expiresAt <= nowTick) {
-                dq.removeFirst();
-            }
-        }
+    /** Remove this world's expired zones. Call once per world per server tick. */
+    public static void purgeExpired(ServerWorld world) {
+        Index idx = WORLDS.get(world);
+        if (idx != null) idx.purge(world.getTime());
     }
 
-    /** If itemPos is inside any player’s zone, return that player (prefer the one with the most recent/unexpired zone). */
+    /** If itemPos is inside any player’s zone, return that player (prefer the zone that lives longest). */
     public static ServerPlayerEntity breakerFor(ServerWorld world, Vec3d itemPos) {
-        ServerPlayerEntity best = null;
-        long bestExpires = Long.MIN_VALUE;
-
-        for (Map.Entry<UUID, Deque<Zone>> e : ZONES.entrySet()) {
-            UUID pid = e.getKey();
-            ServerPlayerEntity sp = world.getServer().getPlayerManager().getPlayer(pid);
-            if (sp == null || sp.isRemoved() || sp.isDead()) continue;
-
-            // scan zones from the tail (newest first)
-            Iterator<Zone> it = e.getValue().descendingIterator();
-            while (it.hasNext()) {
-                Zone z = it.next();
-                if (z.contains(itemPos)) {
-                    if (z.expiresAt > bestExpires) {
-                        bestExpires = z.expiresAt;
-                        best = sp;
-                    }
-                    break; // we found a match for this player, no need to check older zones
-                }
-            }
-        }
-        return best;
+        Index idx = WORLDS.get(world);
+        if (idx == null) return null;
+
+        return idx.breaker(itemPos, world.getTime(), id -> {
+            ServerPlayerEntity sp = world.getServer().getPlayerManager().getPlayer(id);
+            return sp == null || sp.isRemoved() || sp.isDead() ? null : sp;
+        });
     }
 
     /** Convenience: add a bounded vertical “column” of zones for connected stacks. */
     public static void addColumnZones(ServerWorld world, UUID playerId, BlockPos base, int upMax, int downMax,
                                       int lifetimeTicks, double radius) {
-        long now = world.getTime();
-
         List<Vec3d> centers = new ArrayList<>();
         // upward
         BlockPos.Mutable pos = base.mutableCopy();
@@ -95,7 +176,21 @@ public final class BreakZones {
             pos.move(0, -1, 0);
             centers.add(Vec3d.ofCenter(pos));
         }
-        addAll(playerId, centers, radius, now, lifetimeTicks);
+        addAll(world, playerId, centers, radius, lifetimeTicks);
     }
-}
 
+    /** Packed chunk sections touched by the sphere's bounding box (1 to 8 of them). */
+    private static long[] overlappedSections(Vec3d c, double radius) {
+        int x0 = MathHelper.floor(c.x - radius) >> 4, x1 = MathHelper.floor(c.x + radius) >> 4;
+        int y0 = MathHelper.floor(c.y - radius) >> 4, y1 = MathHelper.floor(c.y + radius) >> 4;
+        int z0 = MathHelper.floor(c.z - radius) >> 4, z1 = MathHelper.floor(c.z + radius) >> 4;
+
+        long[] out = new long[(x1 - x0 + 1) * (y1 - y0 + 1) * (z1 - z0 + 1)];
+        int n = 0;
+        for (int x = x0; x <= x1; x++)
+            for (int y = y0; y <= y1; y++)
+                for (int z = z0; z <= z1; z++)
+                    out[n++] = ChunkSectionPos.asLong(x, y, z);
+        return out;
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.beemerwt.telekinesis;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Where captured items can go in a player's main inventory (slots 0..35).
+ * - Partial stacks are listed by item+components hash; empty slots are a bitset.
+ * - An index is rebuilt whenever the inventory's change count or the tick moves on,
+ *   so a burst of drops in one tick shares one scan.
+ * - Every slot it hands out is re-checked before use, and a stale miss falls back to a fresh scan,
+ *   so in-place stack edits the hooks don't see can't make it wrong.
+ * Keyed weakly by inventory, which is replaced on respawn. Server thread only.
+ */
+final class InsertIndex {
+    private static final int MAIN_SLOTS = 36;
+    private static final Map<PlayerInventory, InsertIndex> INDEXES = new WeakHashMap<>();
+
+    private final Int2ObjectOpenHashMap<IntArrayList> partials = new Int2ObjectOpenHashMap<>();
+    private long free;        // bit i set = slot i empty
+    private int changeCount;
+    private long tick = Long.MIN_VALUE;
+
+    private InsertIndex() {}
+
+    /** Move as much of {@code original} as fits into the main inventory; returns the leftover. */
+    static ItemStack insert(PlayerInventory inv, ItemStack original, long tick) {
+        ItemStack remaining = original.copy();
+        if (remaining.isEmpty()) return ItemStack.EMPTY;
+
+        InsertIndex idx = INDEXES.computeIfAbsent(inv, k -> new InsertIndex());
+        boolean fresh = false;
+        if (idx.tick != tick || idx.changeCount != inv.getChangeCount()) {
+            idx.rebuild(inv, tick);
+            fresh = true;
+        }
+
+        idx.fill(inv, remaining);
+
+        // Nothing left to go on: make sure that's true before reporting it
+        if (!remaining.isEmpty() && !fresh) {
+            idx.rebuild(inv, tick);
+            idx.fill(inv, remaining);
+        }
+
+        // Our own edits don't invalidate what we just recorded
+        idx.changeCount = inv.getChangeCount();
+        return remaining;
+    }
+
+    private void rebuild(PlayerInventory inv, long tick) {
+        partials.clear();
+        free = 0L;
+
+        final int maxPerStack = inv.getMaxCountPerStack();
+        final int mainSlots = Math.min(MAIN_SLOTS, inv.size());
+        for (int i = 0; i < mainSlots; i++) {
+            ItemStack s = inv.getStack(i);
+            if (s.isEmpty()) {
+                free |= 1L << i;
+            } else if (s.getCount() < Math.min(s.getMaxCount(), maxPerStack)) {
+                partials.computeIfAbsent(ItemStack.hashCode(s), h -> new IntArrayList(2)).add(i);
+            }
+        }
+
+        this.tick = tick;
+        this.changeCount = inv.getChangeCount();
+    }
+
+    private void fill(PlayerInventory inv, ItemStack remaining) {
+        final int maxPerStack = inv.getMaxCountPerStack();
+        final int hash = ItemStack.hashCode(remaining);
+
+        // 1) Merge into existing stacks of the same item
+        IntArrayList slots = partials.get(hash);
+        if (slots != null) {
+            for (int j = 0; j < slots.size() && !remaining.isEmpty(); ) {
+                int i = slots.getInt(j);
+                ItemStack slot = inv.getStack(i);
+                if (slot.isEmpty() || !TeleContext.canCombine(slot, remaining)) {
+                    slots.removeInt(j); // stale, or a hash collision that is already full for us
+                    continue;
+                }
+
+                int slotCap = Math.min(slot.getMaxCount(), maxPerStack);
+                int move = Math.min(slotCap - slot.getCount(), remaining.getCount());
+                if (move > 0) {
+                    slot.increment(move);
+                    remaining.decrement(move);
+                    inv.setStack(i, slot);
+                }
+
+                if (slot.getCount() >= slotCap) slots.removeInt(j);
+                else j++;
+            }
+            if (slots.isEmpty()) partials.remove(hash);
+        }
+
+        // 2) Fill empty slots
+        while (!remaining.isEmpty() && free != 0L) {
+            int i = Long.numberOfTrailingZeros(free);
+            free &= ~(1L << i);
+            if (!inv.getStack(i).isEmpty()) continue; // filled behind our back
+
+            int move = Math.min(remaining.getCount(), Math.min(remaining.getMaxCount(), maxPerStack));
+            if (move <= 0) break;
+            ItemStack placed = remaining.split(move);
+            inv.setStack(i, placed);
+
+            if (placed.getCount() < Math.min(placed.getMaxCount(), maxPerStack))
+                partials.computeIfAbsent(hash, h -> new IntArrayList(2)).add(i);
+        }
+    }
+}
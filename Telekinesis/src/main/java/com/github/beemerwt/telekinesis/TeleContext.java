@@ -2,7 +2,6 @@ package com.github.beemerwt.telekinesis;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.ItemEntity;
-import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
 import net.minecraft.network.packet.s2c.play.SubtitleS2CPacket;
@@ -21,13 +20,13 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.Map;
+import java.util.LinkedHashMap;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 public final class TeleContext implements AutoCloseable {
-    private static final Map<UUID, Long> FULL_NOTICE_COOLDOWN = new ConcurrentHashMap<>();
     private static final long FULL_NOTICE_MS = 10000L; // adjust to taste
+    private static final int FULL_NOTICE_MAX = 1024;
+    private static final NoticeCooldowns FULL_NOTICES = new NoticeCooldowns(FULL_NOTICE_MS, FULL_NOTICE_MAX);
 
     private static final ThreadLocal<Deque<TeleContext>> TL = ThreadLocal.withInitial(ArrayDeque::new);
     public static final Logger LOGGER = LoggerFactory.getLogger("Telekinesis");
@@ -85,7 +84,7 @@ public final class TeleContext implements AutoCloseable {
         }
 
         // Insert as much as possible into the owner's inventory
-        ItemStack remaining = insertIntoInventory(player.getInventory(), stack);
+        ItemStack remaining = insertIntoInventory(player, stack);
         // NEW: mark dirty if any amount was inserted
         if (remaining.getCount() < stack.getCount()) {
             markScopeDirtyIfActive();
@@ -126,7 +125,7 @@ public final class TeleContext implements AutoCloseable {
         if (target == null) return false;
 
         // Insert as much as possible
-        ItemStack remaining = insertIntoInventory(target.getInventory(), stack);
+        ItemStack remaining = insertIntoInventory(target, stack);
 
         // NEW: mark dirty if any amount was inserted
         if (remaining.getCount() < stack.getCount()) {
@@ -149,52 +148,14 @@ public final class TeleContext implements AutoCloseable {
         return false;
     }
 
-    // === NEW: smart insertion that respects stack limits and merges to existing stacks
+    // Smart insertion that respects stack limits and merges to existing stacks.
     // Only touch main inventory (0..35). Never armor (36..39) or offhand (40).
-    private static ItemStack insertIntoInventory(PlayerInventory inv, ItemStack original) {
-        ItemStack remaining = original.copy();
-        if (remaining.isEmpty()) return ItemStack.EMPTY;
-
-        final int maxPerStack = inv.getMaxCountPerStack();
-        // vanilla main section is 36 slots; clamp in case a mod alters size
-        final int mainSlots = Math.min(36, inv.size());
-
-        // 1) Merge into existing stacks in main inventory (0..35)
-        for (int i = 0; i < mainSlots && !remaining.isEmpty(); i++) {
-            ItemStack slot = inv.getStack(i);
-            if (slot.isEmpty()) continue;
-            if (!canCombine(slot, remaining)) continue;
-
-            int slotCap = Math.min(slot.getMaxCount(), maxPerStack);
-            int free = slotCap - slot.getCount();
-            if (free <= 0) continue;
-
-            int move = Math.min(free, remaining.getCount());
-            if (move > 0) {
-                slot.increment(move);
-                remaining.decrement(move);
-                inv.setStack(i, slot);
-            }
-        }
-
-        // 2) Fill empty main slots
-        for (int i = 0; i < mainSlots && !remaining.isEmpty(); i++) {
-            if (!inv.getStack(i).isEmpty()) continue;
-
-            int move = Math.min(remaining.getCount(), Math.min(remaining.getMaxCount(), maxPerStack));
-            if (move <= 0) break;
-            inv.setStack(i, remaining.split(move));
-        }
-
-        return remaining;
+    private static ItemStack insertIntoInventory(ServerPlayerEntity player, ItemStack original) {
+        return InsertIndex.insert(player.getInventory(), original, player.getEntityWorld().getTime());
     }
 
     private static void maybeNotifyFull(ServerPlayerEntity player) {
-        long now = System.currentTimeMillis();
-        UUID id = player.getUuid();
-        Long last = FULL_NOTICE_COOLDOWN.get(id);
-        if (last != null && (now - last) < FULL_NOTICE_MS) return;
-        FULL_NOTICE_COOLDOWN.put(id, now);
+        if (!FULL_NOTICES.tryAcquire(player.getUuid(), System.currentTimeMillis())) return;
 
         // Red "Inventory Full" as a subtitle. (Short title timing so it feels snappy.)
         player.networkHandler.sendPacket(new TitleS2CPacket(Text.empty()));
@@ -215,40 +176,6 @@ public final class TeleContext implements AutoCloseable {
         );
     }
 
-    // Partial insert into main (slots 0..35); returns leftover
-    private static ItemStack insertIntoMainWithRemainder(PlayerInventory inv, ItemStack in) {
-        if (in.isEmpty()) return ItemStack.EMPTY;
-
-        ItemStack remaining = in.copy();
-        final int maxPerStack = inv.getMaxCountPerStack();
-        final int mainSlots = Math.min(36, inv.size());
-
-        // merge pass
-        for (int i = 0; i < mainSlots && !remaining.isEmpty(); i++) {
-            ItemStack slot = inv.getStack(i);
-            if (slot.isEmpty()) continue;
-            if (!ItemStack.areItemsAndComponentsEqual(slot, remaining)) continue;
-
-            int slotCap = Math.min(slot.getMaxCount(), maxPerStack);
-            if (slot.getCount() >= slotCap) continue;
-
-            int move = Math.min(remaining.getCount(), slotCap - slot.getCount());
-            slot.increment(move);
-            remaining.decrement(move);
-            inv.setStack(i, slot);
-        }
-
-        // empty slot pass
-        for (int i = 0; i < mainSlots && !remaining.isEmpty(); i++) {
-            if (!inv.getStack(i).isEmpty()) continue;
-
-            int move = Math.min(remaining.getCount(), Math.min(remaining.getMaxCount(), maxPerStack));
-            inv.setStack(i, remaining.split(move));
-        }
-
-        return remaining.isEmpty() ? ItemStack.EMPTY : remaining;
-    }
-
     /* =========================
    Target resolution helpers
    ========================= */
@@ -344,7 +271,7 @@ public final class TeleContext implements AutoCloseable {
         if (stack.isEmpty()) return false;
         if (player.isRemoved() || player.isDead()) return false;
 
-        ItemStack remaining = insertIntoInventory(player.getInventory(), stack);
+        ItemStack remaining = insertIntoInventory(player, stack);
         // mark dirty if any inserted
         if (remaining.getCount() < stack.getCount()) {
             markScopeDirtyIfActive();
@@ -379,4 +306,35 @@ public final class TeleContext implements AutoCloseable {
         Entity owner = item.getOwner();
         return owner instanceof ServerPlayerEntity sp && guard.equals(sp.getUuid());
     }
+
+    /**
+     * Last notice time per player, oldest first.
+     * Entries drop off once their cooldown has passed, and the map never holds more than {@code max}.
+     */
+    private static final class NoticeCooldowns {
+        private final long cooldownMs;
+        private final int max;
+        private final LinkedHashMap<UUID, Long> lastSent = new LinkedHashMap<>();
+
+        NoticeCooldowns(long cooldownMs, int max) {
+            this.cooldownMs = cooldownMs;
+            this.max = max;
+        }
+
+        /** True (and restarts the cooldown) if {@code id} may be notified now. */
+        synchronized boolean tryAcquire(UUID id, long now) {
+            // Head is always the oldest, so expired entries come off the front
+            var it = lastSent.values().iterator();
+            while (it.hasNext() && now - it.next() >= cooldownMs) it.remove();
+
+            if (lastSent.containsKey(id)) return false;
+            if (lastSent.size() >= max) {
+                it = lastSent.values().iterator();
+                it.next();
+                it.remove();
+            }
+            lastSent.put(id, now);
+            return true;
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.github.beemerwt.telekinesis;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
 import net.minecraft.entity.Tameable;
 import net.minecraft.entity.TntEntity;
@@ -35,7 +36,7 @@ public final class Telekinesis implements ModInitializer {
             // Small, short-lived zone at the death spot.
             final double zoneRadius = 2.25;
             final int lifetimeTicks = 10;     // covers staggered loot spawns
-            BreakZones.add(killer.getUuid(), living.getEntityPos(), zoneRadius, world.getTime(), lifetimeTicks);
+            BreakZones.add(world, killer.getUuid(), living.getEntityPos(), zoneRadius, lifetimeTicks);
         });
 
         // On block break, add a zone at the broken block position
@@ -44,7 +45,7 @@ public final class Telekinesis implements ModInitializer {
             if (world.isClient()) return;
 
             // Short-lived zone right where the break happened
-            BreakZones.add(player.getUuid(), Vec3d.ofCenter(pos), ZONE_RADIUS, world.getTime(), LIFETIME_TICKS);
+            BreakZones.add((ServerWorld)world, player.getUuid(), Vec3d.ofCenter(pos), ZONE_RADIUS, LIFETIME_TICKS);
 
             // Connected stacks: add vertical column of zones for a bounded range
             // Pick conservative ranges to avoid scanning forever on huge/modded stacks
@@ -56,9 +57,8 @@ public final class Telekinesis implements ModInitializer {
         });
 
         // purge zones every tick
-        ServerTickEvents.END_SERVER_TICK.register(server ->
-                server.getWorlds().forEach(w -> BreakZones.purgeExpired(w.getTime()))
-        );
+        ServerTickEvents.END_WORLD_TICK.register(BreakZones::purgeExpired);
+        ServerWorldEvents.UNLOAD.register((server, world) -> BreakZones.forget(world));
     }
 
     private static boolean isColumnStack(String translationKey) {
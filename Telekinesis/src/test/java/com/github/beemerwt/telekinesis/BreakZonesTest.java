@@ -0,0 +1,112 @@
+package com.github.beemerwt.telekinesis;
+
+import net.minecraft.util.math.Vec3d;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreakZonesTest {
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+
+    private static BreakZones.Zone zone(UUID player, double x, double y, double z, long expiresAt) {
+        return new BreakZones.Zone(player, new Vec3d(x, y, z), 1.5, expiresAt);
+    }
+
+    @Test
+    void findsTheZoneAroundASpawn() {
+        BreakZones.Index idx = new BreakZones.Index();
+        idx.add(zone(ALICE, 8.5, 72.5, 8.5, 10));
+
+        assertEquals(ALICE, idx.breaker(new Vec3d(8.2, 72.9, 8.7), 0, id -> id));
+        assertNull(idx.breaker(new Vec3d(12.5, 72.5, 8.5), 0, id -> id)); // same section, outside the sphere
+        assertNull(idx.breaker(new Vec3d(40.5, 72.5, 8.5), 0, id -> id)); // other section
+    }
+
+    @Test
+    void zonesOnASectionBorderAreFiledInEverySectionTheyTouch() {
+        BreakZones.Index idx = new BreakZones.Index();
+        idx.add(zone(ALICE, 16.0, 72.5, 8.5, 10)); // straddles x = 16
+
+        assertEquals(2, idx.sectionCount());
+        assertEquals(ALICE, idx.breaker(new Vec3d(15.2, 72.5, 8.5), 0, id -> id));
+        assertEquals(ALICE, idx.breaker(new Vec3d(16.8, 72.5, 8.5), 0, id -> id));
+
+        idx.purge(10);
+        assertEquals(0, idx.sectionCount());
+        assertEquals(0, idx.bucketCount());
+    }
+
+    @Test
+    void prefersTheLongestLivedZone() {
+        BreakZones.Index idx = new BreakZones.Index();
+        idx.add(zone(ALICE, 8.5, 72.5, 8.5, 30));
+        idx.add(zone(BOB, 8.5, 72.5, 8.5, 20));
+
+        assertEquals(ALICE, idx.breaker(new Vec3d(8.5, 72.5, 8.5), 0, id -> id));
+        // Alice is offline: fall back to the next zone
+        assertEquals(BOB, idx.breaker(new Vec3d(8.5, 72.5, 8.5), 0, id -> id == ALICE ? null : id));
+    }
+
+    @Test
+    void expiredZonesNeverMatchEvenBeforeTheyArePurged() {
+        BreakZones.Index idx = new BreakZones.Index();
+        idx.add(zone(ALICE, 8.5, 72.5, 8.5, 5));
+
+        assertEquals(ALICE, idx.breaker(new Vec3d(8.5, 72.5, 8.5), 4, id -> id));
+        assertNull(idx.breaker(new Vec3d(8.5, 72.5, 8.5), 5, id -> id));
+    }
+
+    @Test
+    void purgeDropsOneBucketPerTick() {
+        BreakZones.Index idx = new BreakZones.Index();
+        idx.purge(0);
+        idx.add(zone(ALICE, 8.5, 72.5, 8.5, 2));
+        idx.add(zone(BOB, 8.5, 72.5, 8.5, 2));
+        idx.add(zone(ALICE, 40.5, 72.5, 8.5, 3));
+        assertEquals(2, idx.bucketCount());
+        assertEquals(2, idx.sectionCount());
+
+        idx.purge(1);
+        assertEquals(2, idx.bucketCount());
+
+        idx.purge(2);
+        assertEquals(1, idx.bucketCount());
+        assertEquals(1, idx.sectionCount());
+        assertNull(idx.breaker(new Vec3d(8.5, 72.5, 8.5), 2, id -> id));
+        assertEquals(ALICE, idx.breaker(new Vec3d(40.5, 72.5, 8.5), 2, id -> id));
+
+        idx.purge(3);
+        assertEquals(0, idx.bucketCount());
+        assertEquals(0, idx.sectionCount());
+    }
+
+    @Test
+    void purgeAfterALongGapSweepsEveryDueBucket() {
+        BreakZones.Index idx = new BreakZones.Index();
+        idx.purge(0);
+        for (int t = 1; t <= 5; t++) idx.add(zone(ALICE, 8.5 + 16 * t, 72.5, 8.5, t));
+        idx.add(zone(BOB, 8.5, 72.5, 8.5, 1_000));
+
+        idx.purge(500); // gap larger than the number of buckets
+        assertEquals(1, idx.bucketCount());
+        assertEquals(1, idx.sectionCount());
+        assertEquals(BOB, idx.breaker(new Vec3d(8.5, 72.5, 8.5), 500, id -> id));
+
+        idx.purge(1_000);
+        assertEquals(0, idx.bucketCount());
+        assertEquals(0, idx.sectionCount());
+    }
+
+    @Test
+    void firstPurgeHandlesZonesAddedBeforeIt() {
+        BreakZones.Index idx = new BreakZones.Index();
+        idx.add(zone(ALICE, 8.5, 72.5, 8.5, 7));
+
+        idx.purge(7);
+        assertEquals(0, idx.bucketCount());
+        assertEquals(0, idx.sectionCount());
+    }
+}